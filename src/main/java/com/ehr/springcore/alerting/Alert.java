@@ -0,0 +1,20 @@
+package com.ehr.springcore.alerting;
+
+import java.time.Instant;
+
+/**
+ * A rule starting or stopping to fire.
+ *
+ * @param rule       name of the rule
+ * @param metricName metric the rule watches
+ * @param state      {@code FIRING} when the rule's condition became true, {@code RESOLVED} when it no longer holds
+ * @param value      the metric value that caused the change
+ * @param signal     what the rule compared with its bounds: the value, a rate per second or a z-score
+ * @param timestamp  timestamp of that metric value
+ */
+public record Alert(String rule, String metricName, State state, double value, double signal, Instant timestamp) {
+
+    public enum State {
+        FIRING, RESOLVED
+    }
+}
@@ -0,0 +1,20 @@
+package com.ehr.springcore.alerting;
+
+/**
+ * Receives alerts as rules start and stop firing. Every enabled {@code AlertNotifier}
+ * bean is called, one alert at a time, from a single notification thread, never from
+ * the request path. A notifier that throws is not retried.
+ */
+public interface AlertNotifier {
+
+    void notify(Alert alert) throws Exception;
+
+    /**
+     * Read once at startup; a disabled notifier receives no alerts. Lets a notifier be
+     * switched by configuration without a bean condition, which Spring AOT would fix at
+     * build time.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ehr.springcore.alerting;
+
+import com.ehr.springcore.config.AlertingProperties;
+
+import java.time.Instant;
+
+/**
+ * One configured rule with its window state. Each value of the watched metric is turned
+ * into a signal, and the rule fires while the signal is outside its bounds. Only changes
+ * are reported: one {@code FIRING} alert when the bounds are crossed and one
+ * {@code RESOLVED} alert when the signal is back inside.
+ * <p>
+ * Windows fill in arrival order. Rate-of-change rules skip a value that is older than
+ * the newest one they have seen.
+ */
+public abstract class AlertRule {
+
+    private final String name;
+    private final String metricName;
+    private final Double above;
+    private final Double below;
+    private boolean firing;
+
+    AlertRule(AlertingProperties.Rule rule) {
+        this.name = rule.getName();
+        this.metricName = rule.getMetric();
+        this.above = rule.getAbove();
+        this.below = rule.getBelow();
+    }
+
+    /**
+     * Creates the rule of the configured type.
+     *
+     * @throws IllegalArgumentException if the rule is incomplete
+     */
+    public static AlertRule of(AlertingProperties.Rule rule) {
+        if (rule.getName() == null || rule.getName().isBlank() || rule.getMetric() == null || rule.getMetric().isBlank()) {
+            throw new IllegalArgumentException("Alert rules need a name and a metric");
+        }
+        if (rule.getAbove() == null && rule.getBelow() == null) {
+            throw new IllegalArgumentException("Alert rule '" + rule.getName() + "' needs 'above' or 'below'");
+        }
+        if (rule.getWindowSize() < 2 || rule.getMinSamples() < 1) {
+            throw new IllegalArgumentException("Alert rule '" + rule.getName()
+                    + "' needs window-size of at least 2 and min-samples of at least 1");
+        }
+        return switch (rule.getType()) {
+            case THRESHOLD -> new ThresholdRule(rule);
+            case RATE_OF_CHANGE -> new RateOfChangeRule(rule);
+            case Z_SCORE -> new ZScoreRule(rule);
+            case EWMA -> new EwmaRule(rule);
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public synchronized boolean isFiring() {
+        return firing;
+    }
+
+    /**
+     * Adds a value to the rule's window and returns an alert if the rule started or
+     * stopped firing, otherwise null.
+     */
+    public synchronized Alert evaluate(Instant timestamp, double value) {
+        double signal = signal(timestamp.toEpochMilli(), value);
+        if (Double.isNaN(signal)) {
+            return null;
+        }
+        boolean breached = (above != null && signal > above) || (below != null && signal < below);
+        if (breached == firing) {
+            return null;
+        }
+        firing = breached;
+        return new Alert(name, metricName, breached ? Alert.State.FIRING : Alert.State.RESOLVED, value, signal,
+                timestamp);
+    }
+
+    /**
+     * The value compared with the bounds, or NaN while the window has too little data.
+     * Called with the rule's lock held.
+     */
+    abstract double signal(long timestampMillis, double value);
+
+    /**
+     * Standard deviations between a value and a mean. A value that differs from a window
+     * without any variance is infinitely far off.
+     */
+    static double zScore(double value, double mean, double variance) {
+        double deviation = value - mean;
+        if (variance <= 0) {
+            return deviation == 0 ? 0 : Math.copySign(Double.POSITIVE_INFINITY, deviation);
+        }
+        return deviation / Math.sqrt(variance);
+    }
+}
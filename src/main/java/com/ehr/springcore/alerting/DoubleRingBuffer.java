@@ -0,0 +1,88 @@
+package com.ehr.springcore.alerting;
+
+/**
+ * Fixed-capacity window of (timestamp, value) samples in primitive arrays, with a
+ * running sum and sum of squares for O(1) mean and variance. Adding to a full buffer
+ * overwrites the oldest sample. The sums are recomputed once per capacity additions so
+ * that floating-point drift cannot accumulate. Not thread-safe.
+ */
+final class DoubleRingBuffer {
+
+    private final long[] timestamps;
+    private final double[] values;
+    private int start;
+    private int size;
+    private double sum;
+    private double sumOfSquares;
+    private int addsSinceRecompute;
+
+    DoubleRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    void add(long timestamp, double value) {
+        if (size == values.length) {
+            removeOldest();
+        }
+        int index = (start + size) % values.length;
+        timestamps[index] = timestamp;
+        values[index] = value;
+        size++;
+        sum += value;
+        sumOfSquares += value * value;
+        if (++addsSinceRecompute == values.length) {
+            recompute();
+        }
+    }
+
+    void removeOldest() {
+        double value = values[start];
+        sum -= value;
+        sumOfSquares -= value * value;
+        start = (start + 1) % values.length;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long oldestTimestamp() {
+        return timestamps[start];
+    }
+
+    double oldestValue() {
+        return values[start];
+    }
+
+    long newestTimestamp() {
+        return timestamps[(start + size - 1) % values.length];
+    }
+
+    double mean() {
+        return sum / size;
+    }
+
+    /**
+     * Population variance of the samples held.
+     */
+    double variance() {
+        double mean = mean();
+        return Math.max(0, sumOfSquares / size - mean * mean);
+    }
+
+    private void recompute() {
+        sum = 0;
+        sumOfSquares = 0;
+        for (int i = 0; i < size; i++) {
+            double value = values[(start + i) % values.length];
+            sum += value;
+            sumOfSquares += value * value;
+        }
+        addsSinceRecompute = 0;
+    }
+}
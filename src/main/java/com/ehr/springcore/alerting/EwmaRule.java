@@ -0,0 +1,41 @@
+package com.ehr.springcore.alerting;
+
+import com.ehr.springcore.config.AlertingProperties;
+
+/**
+ * Z-score of a value against an exponentially weighted moving mean and variance, which
+ * follow slow drifts without keeping a window.
+ */
+final class EwmaRule extends AlertRule {
+
+    private final double alpha;
+    private final int minSamples;
+    private long samples;
+    private double mean;
+    private double variance;
+
+    EwmaRule(AlertingProperties.Rule rule) {
+        super(rule);
+        if (!(rule.getAlpha() > 0 && rule.getAlpha() <= 1)) {
+            throw new IllegalArgumentException("Alert rule '" + rule.getName() + "' needs an alpha in (0, 1]");
+        }
+        this.alpha = rule.getAlpha();
+        this.minSamples = rule.getMinSamples();
+    }
+
+    @Override
+    double signal(long timestampMillis, double value) {
+        if (samples == 0) {
+            samples = 1;
+            mean = value;
+            return Double.NaN;
+        }
+        double z = samples < minSamples ? Double.NaN : zScore(value, mean, variance);
+        double deviation = value - mean;
+        double increment = alpha * deviation;
+        mean += increment;
+        variance = (1 - alpha) * (variance + deviation * increment);
+        samples++;
+        return z;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ehr.springcore.alerting;
+
+import com.ehr.springcore.config.AlertingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Logs every alert and keeps the most recent ones in memory. Stands in for a paging or
+ * chat integration during development and tests. Turned off with
+ * {@code alerting.log-notifier.enabled: false}.
+ */
+@Component
+public class LoggingAlertNotifier implements AlertNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingAlertNotifier.class);
+    private static final int RECENT_ALERTS = 100;
+
+    private final boolean enabled;
+    private final Deque<Alert> recent = new ArrayDeque<>();
+
+    public LoggingAlertNotifier(AlertingProperties properties) {
+        this.enabled = properties.getLogNotifier().isEnabled();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void notify(Alert alert) {
+        if (alert.state() == Alert.State.FIRING) {
+            logger.warn("Alert '{}' firing: {} = {} (signal {}) at {}", alert.rule(), alert.metricName(),
+                    alert.value(), alert.signal(), alert.timestamp());
+        } else {
+            logger.info("Alert '{}' resolved: {} = {} at {}", alert.rule(), alert.metricName(), alert.value(),
+                    alert.timestamp());
+        }
+        synchronized (recent) {
+            if (recent.size() == RECENT_ALERTS) {
+                recent.removeFirst();
+            }
+            recent.addLast(alert);
+        }
+    }
+
+    /**
+     * The last alerts received, oldest first.
+     */
+    public List<Alert> recent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ehr.springcore.alerting;
+
+import com.ehr.springcore.config.AlertingProperties;
+
+/**
+ * Change per second between a value and the oldest value still within the window.
+ */
+final class RateOfChangeRule extends AlertRule {
+
+    private final long windowMillis;
+    private final DoubleRingBuffer window;
+
+    RateOfChangeRule(AlertingProperties.Rule rule) {
+        super(rule);
+        if (rule.getWindow().isNegative() || rule.getWindow().isZero()) {
+            throw new IllegalArgumentException("Alert rule '" + rule.getName() + "' needs a positive window");
+        }
+        this.windowMillis = rule.getWindow().toMillis();
+        this.window = new DoubleRingBuffer(rule.getWindowSize());
+    }
+
+    @Override
+    double signal(long timestampMillis, double value) {
+        if (window.size() > 0 && timestampMillis < window.newestTimestamp()) {
+            // Out of order: the window only moves forward
+            return Double.NaN;
+        }
+        while (window.size() > 0 && window.oldestTimestamp() < timestampMillis - windowMillis) {
+            window.removeOldest();
+        }
+        double rate = Double.NaN;
+        if (window.size() > 0 && window.oldestTimestamp() < timestampMillis) {
+            rate = (value - window.oldestValue()) * 1000.0 / (timestampMillis - window.oldestTimestamp());
+        }
+        window.add(timestampMillis, value);
+        return rate;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ehr.springcore.alerting;
+
+import com.ehr.springcore.config.AlertingProperties;
+
+final class ThresholdRule extends AlertRule {
+
+    ThresholdRule(AlertingProperties.Rule rule) {
+        super(rule);
+    }
+
+    @Override
+    double signal(long timestampMillis, double value) {
+        return value;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ehr.springcore.alerting;
+
+import com.ehr.springcore.config.AlertingProperties;
+
+/**
+ * Z-score of a value against the previous {@code window-size} values.
+ */
+final class ZScoreRule extends AlertRule {
+
+    private final int minSamples;
+    private final DoubleRingBuffer window;
+
+    ZScoreRule(AlertingProperties.Rule rule) {
+        super(rule);
+        this.minSamples = rule.getMinSamples();
+        this.window = new DoubleRingBuffer(rule.getWindowSize());
+    }
+
+    @Override
+    double signal(long timestampMillis, double value) {
+        double z = window.size() < minSamples ? Double.NaN : zScore(value, window.mean(), window.variance());
+        window.add(timestampMillis, value);
+        return z;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ehr.springcore.archive;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row encoding inside a segment block, before compression. Integers are zigzag varints,
+ * doubles are raw IEEE 754 bits, and strings that repeat within a block (names, units,
+ * property keys) are written once and then referenced by index.
+ */
+final class BlockCodec {
+
+    private BlockCodec() {
+    }
+
+    static final class Encoder {
+
+        private byte[] bytes = new byte[4096];
+        private int length;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        void reset() {
+            length = 0;
+            dictionary.clear();
+        }
+
+        int length() {
+            return length;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            bytes[length++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            ensure(10);
+            while ((zigzag & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            bytes[length++] = (byte) zigzag;
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (bits >>> shift);
+            }
+        }
+
+        /**
+         * Writes a nullable string inline: length + 1 (0 for null), then UTF-8 bytes.
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        /**
+         * Writes a nullable, repeating string: 0 for null, 1..n for an earlier entry, n + 1
+         * followed by the string for a new one.
+         */
+        void writeDictionaryString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            Integer index = dictionary.get(value);
+            if (index != null) {
+                writeVarLong(index + 1L);
+                return;
+            }
+            int next = dictionary.size();
+            dictionary.put(value, next);
+            writeVarLong(next + 1L);
+            writeString(value);
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + extra, bytes.length * 2));
+            }
+        }
+    }
+
+    static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final List<String> dictionary = new ArrayList<>();
+
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            return buffer.get() & 0xFF;
+        }
+
+        long readVarLong() {
+            long zigzag = 0;
+            int shift = 0;
+            while (true) {
+                byte b = buffer.get();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+                shift += 7;
+            }
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        double readDouble() {
+            return Double.longBitsToDouble(buffer.getLong());
+        }
+
+        String readString() {
+            int length = (int) readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        String readDictionaryString() {
+            int reference = (int) readVarLong();
+            if (reference == 0) {
+                return null;
+            }
+            if (reference <= dictionary.size()) {
+                return dictionary.get(reference - 1);
+            }
+            String value = readString();
+            dictionary.add(value);
+            return value;
+        }
+    }
+}
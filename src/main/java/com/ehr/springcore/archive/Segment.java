@@ -0,0 +1,314 @@
+package com.ehr.springcore.archive;
+
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.entity.Metric;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read side of an immutable segment file of archived metrics or events, memory-mapped.
+ * <p>
+ * Layout: a header (magic, version, kind, shard, covered time range), deflate-compressed
+ * blocks of rows of one name each, an index of every name's blocks with their time
+ * ranges, and a footer pointing at the index. Only the index is read into the heap; a
+ * query inflates just the blocks of the requested name that overlap its time range.
+ * Timestamps are kept with microsecond precision, like the database columns.
+ * <p>
+ * Instances are immutable and safe to read from any number of threads.
+ */
+public final class Segment {
+
+    static final int MAGIC = 0x45485253;
+    static final short VERSION = 1;
+    public static final String FILE_SUFFIX = ".seg";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES;
+
+    record Block(long offset, int compressedLength, int rawLength, int rows, long minMicros, long maxMicros) {
+    }
+
+    private final Path file;
+    private final SegmentKind kind;
+    private final String shard;
+    private final Instant rangeStart;
+    private final Instant rangeEnd;
+    private final Map<String, List<Block>> index;
+    private final int rowCount;
+    private final MappedByteBuffer data;
+
+    private Segment(Path file, SegmentKind kind, String shard, Instant rangeStart, Instant rangeEnd,
+                    Map<String, List<Block>> index, MappedByteBuffer data) {
+        this.file = file;
+        this.kind = kind;
+        this.shard = shard;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.index = index;
+        this.rowCount = index.values().stream().flatMap(List::stream).mapToInt(Block::rows).sum();
+        this.data = data;
+    }
+
+    /**
+     * Maps a finished segment file. The mapping stays valid if the file is deleted later.
+     */
+    public static Segment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Segment " + file + " is larger than 2 GB");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < 32 || data.getInt(0) != MAGIC || data.getInt((int) size - Integer.BYTES) != MAGIC) {
+                throw new IOException("Not a complete segment file: " + file);
+            }
+            if (data.getShort(4) != VERSION) {
+                throw new IOException("Unsupported segment version " + data.getShort(4) + ": " + file);
+            }
+            SegmentKind kind = SegmentKind.values()[data.get(6)];
+            int[] position = {7};
+            String shard = readUtf8(data, position);
+            Instant rangeStart = Instant.ofEpochMilli(data.getLong(position[0]));
+            Instant rangeEnd = Instant.ofEpochMilli(data.getLong(position[0] + Long.BYTES));
+
+            position[0] = (int) data.getLong((int) size - FOOTER_BYTES);
+            int names = data.getInt(position[0]);
+            position[0] += Integer.BYTES;
+            Map<String, List<Block>> index = new LinkedHashMap<>();
+            for (int i = 0; i < names; i++) {
+                String name = readUtf8(data, position);
+                int blocks = data.getInt(position[0]);
+                int p = position[0] + Integer.BYTES;
+                List<Block> list = new ArrayList<>(blocks);
+                for (int b = 0; b < blocks; b++) {
+                    list.add(new Block(data.getLong(p), data.getInt(p + 8), data.getInt(p + 12), data.getInt(p + 16),
+                            data.getLong(p + 20), data.getLong(p + 28)));
+                    p += 36;
+                }
+                position[0] = p;
+                index.put(name, List.copyOf(list));
+            }
+            return new Segment(file, kind, shard, rangeStart, rangeEnd, index, data);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public SegmentKind getKind() {
+        return kind;
+    }
+
+    public String getShard() {
+        return shard;
+    }
+
+    public Instant getRangeStart() {
+        return rangeStart;
+    }
+
+    public Instant getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getSizeInBytes() {
+        return data.capacity();
+    }
+
+    public boolean overlaps(Instant fromInclusive, Instant toExclusive) {
+        return rangeStart.isBefore(toExclusive) && rangeEnd.isAfter(fromInclusive);
+    }
+
+    /**
+     * Metrics with {@code fromInclusive <= timestamp < toExclusive}, of one name or of all
+     * names if {@code name} is null. Ordered by timestamp within each block.
+     */
+    public void forEachMetric(String name, Instant fromInclusive, Instant toExclusive, Consumer<Metric> consumer) {
+        requireKind(SegmentKind.METRICS);
+        forEachRow(name, fromInclusive, toExclusive, (blockName, decoder, row) -> {
+            double value = decoder.readDouble();
+            String unit = decoder.readDictionaryString();
+            boolean aggregate = decoder.readByte() != 0;
+            Metric metric = null;
+            if (row.inRange()) {
+                metric = new Metric(blockName, value, row.timestamp(), unit);
+                metric.setId(row.id());
+                metric.setCreatedAt(row.createdAt());
+            }
+            if (aggregate) {
+                long count = decoder.readVarLong();
+                double sum = decoder.readDouble();
+                double min = decoder.readDouble();
+                double max = decoder.readDouble();
+                if (metric != null) {
+                    metric.setSampleCount(count);
+                    metric.setSumValue(sum);
+                    metric.setMinValue(min);
+                    metric.setMaxValue(max);
+                }
+            }
+            if (metric != null) {
+                consumer.accept(metric);
+            }
+        });
+    }
+
+    /**
+     * Events with {@code fromInclusive <= timestamp < toExclusive}, of one name or of all
+     * names if {@code name} is null. Ordered by timestamp within each block.
+     */
+    public void forEachEvent(String name, Instant fromInclusive, Instant toExclusive, Consumer<Event> consumer) {
+        requireKind(SegmentKind.EVENTS);
+        forEachRow(name, fromInclusive, toExclusive, (blockName, decoder, row) -> {
+            int count = (int) decoder.readVarLong();
+            Map<String, String> properties = new HashMap<>(Math.max(4, count * 2));
+            for (int i = 0; i < count; i++) {
+                String key = decoder.readDictionaryString();
+                properties.put(key, decoder.readString());
+            }
+            if (row.inRange()) {
+                Event event = new Event(blockName, row.timestamp(), properties);
+                event.setId(row.id());
+                event.setCreatedAt(row.createdAt());
+                consumer.accept(event);
+            }
+        });
+    }
+
+    /**
+     * IDs of every row in the segment, sorted.
+     */
+    public long[] ids() {
+        long[] ids = new long[rowCount];
+        int[] count = {0};
+        forEachRow(null, Instant.MIN, Instant.MAX, (blockName, decoder, row) -> {
+            ids[count[0]++] = row.id();
+            skipPayload(decoder);
+        });
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return file.getFileName().toString();
+    }
+
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    static Instant ofMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    private void skipPayload(BlockCodec.Decoder decoder) {
+        if (kind == SegmentKind.METRICS) {
+            decoder.readDouble();
+            decoder.readDictionaryString();
+            if (decoder.readByte() != 0) {
+                decoder.readVarLong();
+                decoder.readDouble();
+                decoder.readDouble();
+                decoder.readDouble();
+            }
+        } else {
+            int count = (int) decoder.readVarLong();
+            for (int i = 0; i < count; i++) {
+                decoder.readDictionaryString();
+                decoder.readString();
+            }
+        }
+    }
+
+    private void requireKind(SegmentKind expected) {
+        if (kind != expected) {
+            throw new IllegalStateException("Segment " + file + " holds " + kind + ", not " + expected);
+        }
+    }
+
+    /**
+     * Decodes every row of the matching blocks. The row visitor must consume the row's
+     * payload even when the row is out of range, since rows are delta-encoded.
+     */
+    private void forEachRow(String name, Instant fromInclusive, Instant toExclusive, RowVisitor visitor) {
+        long from = fromInclusive == Instant.MIN ? Long.MIN_VALUE : toMicros(fromInclusive);
+        long to = toExclusive == Instant.MAX ? Long.MAX_VALUE : toMicros(toExclusive);
+        Map<String, List<Block>> blocks = name == null ? index
+                : index.containsKey(name) ? Map.of(name, index.get(name)) : Map.of();
+        Inflater inflater = new Inflater();
+        try {
+            for (Map.Entry<String, List<Block>> entry : blocks.entrySet()) {
+                for (Block block : entry.getValue()) {
+                    if (block.maxMicros() < from || block.minMicros() >= to) {
+                        continue;
+                    }
+                    BlockCodec.Decoder decoder = new BlockCodec.Decoder(ByteBuffer.wrap(inflate(inflater, block)));
+                    long micros = 0;
+                    long id = 0;
+                    for (int i = 0; i < block.rows(); i++) {
+                        micros += decoder.readVarLong();
+                        id += decoder.readVarLong();
+                        long createdAt = micros + decoder.readVarLong();
+                        boolean inRange = micros >= from && micros < to;
+                        visitor.visit(entry.getKey(), decoder,
+                                new Row(id, ofMicros(micros), ofMicros(createdAt), inRange));
+                    }
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private byte[] inflate(Inflater inflater, Block block) {
+        byte[] raw = new byte[block.rawLength()];
+        inflater.reset();
+        inflater.setInput(data.slice((int) block.offset(), block.compressedLength()));
+        try {
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                length += inflater.inflate(raw, length, raw.length - length);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block in segment " + file, e);
+        }
+        return raw;
+    }
+
+    private static String readUtf8(MappedByteBuffer data, int[] position) {
+        int length = data.getInt(position[0]);
+        byte[] bytes = new byte[length];
+        data.get(position[0] + Integer.BYTES, bytes);
+        position[0] += Integer.BYTES + length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Row(long id, Instant timestamp, Instant createdAt, boolean inRange) {
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+        void visit(String name, BlockCodec.Decoder decoder, Row row);
+    }
+}
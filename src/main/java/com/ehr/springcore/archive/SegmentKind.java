@@ -0,0 +1,22 @@
+package com.ehr.springcore.archive;
+
+/**
+ * Table whose rows a segment holds.
+ */
+public enum SegmentKind {
+    METRICS("metrics"),
+    EVENTS("events");
+
+    private final String prefix;
+
+    SegmentKind(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * File name prefix, also the name of the archived table.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+}
@@ -0,0 +1,240 @@
+package com.ehr.springcore.archive;
+
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.entity.Metric;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one immutable segment file. Rows should arrive grouped by name and ordered by
+ * timestamp within a name; each run of up to {@code blockRows} rows of one name becomes a
+ * deflate-compressed block with its time range in the index.
+ * <p>
+ * The file is written under a temporary name and only appears under its final name,
+ * complete and synced, when {@link #finish()} succeeds. Closing an unfinished writer
+ * deletes the temporary file. Not thread-safe.
+ */
+public final class SegmentWriter implements Closeable {
+
+    private final Path file;
+    private final Path temporaryFile;
+    private final SegmentKind kind;
+    private final int blockRows;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private final Map<String, List<Segment.Block>> index = new LinkedHashMap<>();
+    private final BlockCodec.Encoder encoder = new BlockCodec.Encoder();
+    private final Deflater deflater = new Deflater();
+    private byte[] compressed = new byte[8192];
+
+    private long position;
+    private int rows;
+    private boolean finished;
+
+    private String blockName;
+    private int blockRowCount;
+    private long blockMinMicros;
+    private long blockMaxMicros;
+    private long previousMicros;
+    private long previousId;
+
+    public SegmentWriter(Path file, SegmentKind kind, String shard, Instant rangeStart, Instant rangeEnd, int blockRows) {
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("blockRows must be at least 1");
+        }
+        this.file = file;
+        this.temporaryFile = file.resolveSibling(file.getFileName() + Segment.TEMPORARY_SUFFIX);
+        this.kind = kind;
+        this.blockRows = blockRows;
+        try {
+            this.channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            this.out = new DataOutputStream(stream);
+            out.writeInt(Segment.MAGIC);
+            out.writeShort(Segment.VERSION);
+            out.writeByte(kind.ordinal());
+            writeUtf8(shard);
+            out.writeLong(rangeStart.toEpochMilli());
+            out.writeLong(rangeEnd.toEpochMilli());
+            position = out.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void append(Metric metric) {
+        requireKind(SegmentKind.METRICS);
+        startRow(metric.getMetricName(), metric.getId(), metric.getTimestamp(), metric.getCreatedAt());
+        encoder.writeDouble(metric.getValue());
+        encoder.writeDictionaryString(metric.getUnit());
+        if (metric.getSampleCount() == null) {
+            encoder.writeByte(0);
+        } else {
+            encoder.writeByte(1);
+            encoder.writeVarLong(metric.getSampleCount());
+            encoder.writeDouble(metric.getSumValue());
+            encoder.writeDouble(metric.getMinValue());
+            encoder.writeDouble(metric.getMaxValue());
+        }
+        endRow();
+    }
+
+    public void append(Event event) {
+        requireKind(SegmentKind.EVENTS);
+        startRow(event.getEventName(), event.getId(), event.getTimestamp(), event.getCreatedAt());
+        Map<String, String> properties = event.getProperties();
+        encoder.writeVarLong(properties.size());
+        properties.forEach((key, value) -> {
+            encoder.writeDictionaryString(key);
+            encoder.writeString(value);
+        });
+        endRow();
+    }
+
+    /**
+     * Bytes written so far, not counting the current block and the index.
+     */
+    public long size() {
+        return position;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the index, syncs the file and moves it to its final name.
+     */
+    public Path finish() {
+        try {
+            flushBlock();
+            long indexOffset = position;
+            out.writeInt(index.size());
+            for (Map.Entry<String, List<Segment.Block>> entry : index.entrySet()) {
+                writeUtf8(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (Segment.Block block : entry.getValue()) {
+                    out.writeLong(block.offset());
+                    out.writeInt(block.compressedLength());
+                    out.writeInt(block.rawLength());
+                    out.writeInt(block.rows());
+                    out.writeLong(block.minMicros());
+                    out.writeLong(block.maxMicros());
+                }
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(Segment.MAGIC);
+            out.flush();
+            channel.force(true);
+            out.close();
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+        if (finished) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // Discarded anyway
+        }
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void requireKind(SegmentKind expected) {
+        if (kind != expected) {
+            throw new IllegalStateException("Cannot append " + expected + " rows to a " + kind + " segment");
+        }
+    }
+
+    private void startRow(String name, long id, Instant timestamp, Instant createdAt) {
+        if (!name.equals(blockName) || blockRowCount == blockRows) {
+            flushBlock();
+            blockName = name;
+            blockMinMicros = Long.MAX_VALUE;
+            blockMaxMicros = Long.MIN_VALUE;
+            previousMicros = 0;
+            previousId = 0;
+        }
+        long micros = Segment.toMicros(timestamp);
+        encoder.writeVarLong(micros - previousMicros);
+        encoder.writeVarLong(id - previousId);
+        encoder.writeVarLong(createdAt == null ? 0 : Segment.toMicros(createdAt) - micros);
+        previousMicros = micros;
+        previousId = id;
+        blockMinMicros = Math.min(blockMinMicros, micros);
+        blockMaxMicros = Math.max(blockMaxMicros, micros);
+    }
+
+    private void endRow() {
+        blockRowCount++;
+        rows++;
+    }
+
+    private void flushBlock() {
+        if (blockRowCount == 0) {
+            return;
+        }
+        deflater.reset();
+        deflater.setInput(encoder.bytes(), 0, encoder.length());
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        try {
+            out.write(compressed, 0, compressedLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index.computeIfAbsent(blockName, name -> new ArrayList<>()).add(new Segment.Block(position, compressedLength,
+                encoder.length(), blockRowCount, blockMinMicros, blockMaxMicros));
+        position += compressedLength;
+        encoder.reset();
+        blockRowCount = 0;
+    }
+
+    private void writeUtf8(String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+}
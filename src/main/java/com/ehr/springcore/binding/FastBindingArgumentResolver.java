@@ -0,0 +1,233 @@
+package com.ehr.springcore.binding;
+
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.model.MetricRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Conventions;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resolves {@code @RequestBody} ingestion requests through {@link IngestionRequestBinder}
+ * and hands everything it cannot bind to the standard {@code @RequestBody} processor, with
+ * the body replayed. Validation failures are reported through the same exception the
+ * standard path raises, so clients see identical responses either way.
+ */
+public class FastBindingArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final IngestionRequestBinder binder;
+    private final HandlerMethodArgumentResolver standardResolver;
+    private final int maxBodySize;
+    private final Counter eventFallbacks;
+    private final Counter metricFallbacks;
+
+    public FastBindingArgumentResolver(IngestionRequestBinder binder, HandlerMethodArgumentResolver standardResolver,
+                                       int maxBodySize, MeterRegistry meterRegistry) {
+        this.binder = binder;
+        this.standardResolver = standardResolver;
+        this.maxBodySize = maxBodySize;
+        this.eventFallbacks = Counter.builder("ehr.ingest.binding.fallbacks")
+                .description("Ingestion requests the fast binder handed to standard binding")
+                .tag("type", "event")
+                .register(meterRegistry);
+        this.metricFallbacks = Counter.builder("ehr.ingest.binding.fallbacks")
+                .description("Ingestion requests the fast binder handed to standard binding")
+                .tag("type", "metric")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return (type == EventRequest.class || type == MetricRequest.class)
+                && parameter.hasParameterAnnotation(RequestBody.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        boolean isEvent = parameter.getParameterType() == EventRequest.class;
+        if (request == null || !isUtf8Json(request.getContentType())) {
+            return fallback(isEvent, parameter, mavContainer, webRequest, binderFactory);
+        }
+
+        byte[] body = readBody(request);
+        if (body.length == 0 || body.length > maxBodySize) {
+            return fallback(isEvent, parameter, mavContainer, replay(webRequest, request, body), binderFactory);
+        }
+
+        Optional<?> bound = isEvent ? binder.readEvent(body) : binder.readMetric(body);
+        if (bound.isEmpty()) {
+            return fallback(isEvent, parameter, mavContainer, replay(webRequest, request, body), binderFactory);
+        }
+        Object value = bound.get();
+        List<IngestionRequestBinder.Violation> violations = isEvent
+                ? binder.validate((EventRequest) value)
+                : binder.validate((MetricRequest) value);
+        if (!violations.isEmpty()) {
+            throw new MethodArgumentNotValidException(parameter, toBindingResult(value, parameter, violations));
+        }
+        return value;
+    }
+
+    private Object fallback(boolean isEvent, MethodParameter parameter, ModelAndViewContainer mavContainer,
+                            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        (isEvent ? eventFallbacks : metricFallbacks).increment();
+        return standardResolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+    }
+
+    private static boolean isUtf8Json(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        boolean json = MediaType.APPLICATION_JSON.includes(mediaType)
+                || ("application".equals(mediaType.getType()) && mediaType.getSubtype().endsWith("+json"));
+        return json && (mediaType.getCharset() == null || StandardCharsets.UTF_8.equals(mediaType.getCharset()));
+    }
+
+    /**
+     * Reads at most one byte more than the limit, so that an oversized body is detected
+     * without buffering all of it; the rest is left in the stream for the fallback.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        try {
+            return request.getInputStream().readNBytes(maxBodySize + 1);
+        } catch (IOException e) {
+            // Same failure the standard message converter reports
+            throw new HttpMessageNotReadableException("I/O error while reading input message", e,
+                    new ServletServerHttpRequest(request));
+        }
+    }
+
+    private static NativeWebRequest replay(NativeWebRequest webRequest, HttpServletRequest request, byte[] consumed)
+            throws IOException {
+        ServletInputStream remaining = request.getInputStream();
+        HttpServletRequest replayed = new HttpServletRequestWrapper(request) {
+            private final ServletInputStream stream = new ReplayInputStream(consumed, remaining);
+
+            @Override
+            public ServletInputStream getInputStream() {
+                return stream;
+            }
+        };
+        return new ServletWebRequest(replayed, webRequest.getNativeResponse(HttpServletResponse.class));
+    }
+
+    private static BindingResult toBindingResult(Object target, MethodParameter parameter,
+                                                 List<IngestionRequestBinder.Violation> violations) {
+        String objectName = Conventions.getVariableNameForParameter(parameter);
+        BindingResult bindingResult = new BeanPropertyBindingResult(target, objectName);
+        for (IngestionRequestBinder.Violation violation : violations) {
+            bindingResult.addError(new FieldError(objectName, violation.field(), violation.rejectedValue(), false,
+                    null, null, violation.message()));
+        }
+        return bindingResult;
+    }
+
+    /**
+     * The bytes already consumed, followed by the rest of the request's own stream. Readiness
+     * and read listeners are delegated to that stream, with the consumed bytes served first.
+     */
+    private static final class ReplayInputStream extends ServletInputStream {
+
+        private final byte[] consumed;
+        private final ServletInputStream remaining;
+        private int position;
+        private boolean finished;
+
+        ReplayInputStream(byte[] consumed, ServletInputStream remaining) {
+            this.consumed = consumed;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position < consumed.length) {
+                return consumed[position++] & 0xFF;
+            }
+            int b = remaining.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position < consumed.length) {
+                int count = Math.min(length, consumed.length - position);
+                System.arraycopy(consumed, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+            int read = remaining.read(buffer, offset, length);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished || (position == consumed.length && remaining.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < consumed.length || remaining.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            remaining.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    readListener.onDataAvailable();
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    // The whole body may have been consumed before the listener was set
+                    if (position < consumed.length) {
+                        readListener.onDataAvailable();
+                    }
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.ehr.springcore.binding;
+
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.model.MetricRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Hand-written JSON binding and validation for the ingestion requests, built on the
+ * streaming parser instead of reflective data binding and Bean Validation.
+ * <p>
+ * It produces the same objects Jackson would for the common shapes of these requests.
+ * Anything else (a number where a string is expected, a non-UTC timestamp, malformed
+ * JSON, ...) yields an empty result, and the caller falls back to the standard binding,
+ * which then produces exactly the response it always has. The validation rules mirror
+ * the constraint annotations on the request classes and must be kept in sync with them.
+ */
+public class IngestionRequestBinder {
+
+    public record Violation(String field, Object rejectedValue, String message) {
+    }
+
+    /**
+     * Signals input the fast path does not handle; never escapes this class.
+     */
+    private static final class Unsupported extends Exception {
+        private static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final JsonFactory jsonFactory;
+    private final boolean failOnUnknownProperties;
+    private final boolean failOnTrailingTokens;
+
+    public IngestionRequestBinder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.failOnUnknownProperties = objectMapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.failOnTrailingTokens = objectMapper.isEnabled(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    }
+
+    /**
+     * Returns whether the untyped property values this binder builds match what the
+     * given mapper would build.
+     */
+    public static boolean supports(ObjectMapper objectMapper) {
+        return !objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                && !objectMapper.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)
+                && !objectMapper.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS)
+                && !objectMapper.isEnabled(DeserializationFeature.USE_JAVA_ARRAY_FOR_JSON_ARRAY);
+    }
+
+    public Optional<EventRequest> readEvent(byte[] body) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            startObject(parser);
+            String eventName = null;
+            Instant timestamp = null;
+            Map<String, Object> properties = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "eventName" -> eventName = readString(token, parser);
+                    case "timestamp" -> timestamp = readInstant(token, parser);
+                    case "properties" -> properties = readProperties(token, parser);
+                    default -> skipUnknown(parser);
+                }
+            }
+            endDocument(parser);
+            return Optional.of(new EventRequest(eventName, timestamp, properties));
+        } catch (IOException | Unsupported e) {
+            return Optional.empty();
+        }
+    }
+
+    public Optional<MetricRequest> readMetric(byte[] body) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            startObject(parser);
+            String metricName = null;
+            Double value = null;
+            Instant timestamp = null;
+            String unit = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "metricName" -> metricName = readString(token, parser);
+                    case "value" -> value = readDouble(token, parser);
+                    case "timestamp" -> timestamp = readInstant(token, parser);
+                    case "unit" -> unit = readString(token, parser);
+                    default -> skipUnknown(parser);
+                }
+            }
+            endDocument(parser);
+            return Optional.of(new MetricRequest(metricName, value, timestamp, unit));
+        } catch (IOException | Unsupported e) {
+            return Optional.empty();
+        }
+    }
+
+    public List<Violation> validate(EventRequest event) {
+        List<Violation> violations = new ArrayList<>(2);
+        if (isBlank(event.getEventName())) {
+            violations.add(new Violation("eventName", event.getEventName(), "Event name is required"));
+        }
+        if (event.getTimestamp() == null) {
+            violations.add(new Violation("timestamp", null, "Timestamp is required"));
+        }
+        return violations;
+    }
+
+    public List<Violation> validate(MetricRequest metric) {
+        List<Violation> violations = new ArrayList<>(3);
+        if (isBlank(metric.getMetricName())) {
+            violations.add(new Violation("metricName", metric.getMetricName(), "Metric name is required"));
+        }
+        if (metric.getValue() == null) {
+            violations.add(new Violation("value", null, "Value is required"));
+        }
+        if (metric.getTimestamp() == null) {
+            violations.add(new Violation("timestamp", null, "Timestamp is required"));
+        }
+        return violations;
+    }
+
+    // Same rule as Hibernate Validator's @NotBlank
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static void startObject(JsonParser parser) throws IOException, Unsupported {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private void endDocument(JsonParser parser) throws IOException, Unsupported {
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw Unsupported.INSTANCE;
+        }
+        if (failOnTrailingTokens && parser.nextToken() != null) {
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private void skipUnknown(JsonParser parser) throws IOException, Unsupported {
+        if (failOnUnknownProperties) {
+            throw Unsupported.INSTANCE;
+        }
+        parser.skipChildren();
+    }
+
+    private static String readString(JsonToken token, JsonParser parser) throws IOException, Unsupported {
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        // Jackson would coerce scalars to strings; leave that to it
+        throw Unsupported.INSTANCE;
+    }
+
+    private static Double readDouble(JsonToken token, JsonParser parser) throws IOException, Unsupported {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        throw Unsupported.INSTANCE;
+    }
+
+    private static Instant readInstant(JsonToken token, JsonParser parser) throws IOException, Unsupported {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        // Only plain UTC ISO-8601 strings; offsets, padding and epoch numbers go through Jackson
+        if (token != JsonToken.VALUE_STRING) {
+            throw Unsupported.INSTANCE;
+        }
+        String text = parser.getText();
+        if (text.isEmpty() || text.charAt(text.length() - 1) != 'Z') {
+            throw Unsupported.INSTANCE;
+        }
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeException e) {
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private static Map<String, Object> readProperties(JsonToken token, JsonParser parser) throws IOException, Unsupported {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw Unsupported.INSTANCE;
+        }
+        return readObject(parser);
+    }
+
+    // Builds the same containers and number types as Jackson's untyped deserializer
+    private static Object readValue(JsonToken token, JsonParser parser) throws IOException, Unsupported {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            case START_OBJECT -> readObject(parser);
+            case START_ARRAY -> readArray(parser);
+            default -> throw Unsupported.INSTANCE;
+        };
+    }
+
+    private static Map<String, Object> readObject(JsonParser parser) throws IOException, Unsupported {
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            map.put(key, readValue(parser.nextToken(), parser));
+        }
+        return map;
+    }
+
+    private static List<Object> readArray(JsonParser parser) throws IOException, Unsupported {
+        List<Object> list = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw Unsupported.INSTANCE;
+            }
+            list.add(readValue(token, parser));
+        }
+        return list;
+    }
+}
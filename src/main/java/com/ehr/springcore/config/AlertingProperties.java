@@ -0,0 +1,178 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alert rules evaluated on every ingested metric value. Each rule turns the values of
+ * one metric into a signal (the value itself, its rate of change, or a z-score) and fires
+ * while the signal is above {@code above} or below {@code below}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "alerting")
+public class AlertingProperties {
+
+    public enum RuleType {
+        /** The value itself. */
+        THRESHOLD,
+        /** Change per second since the oldest value within {@code window}. */
+        RATE_OF_CHANGE,
+        /** Standard deviations from the mean of the previous {@code window-size} values. */
+        Z_SCORE,
+        /** Standard deviations from an exponentially weighted mean with weight {@code alpha}. */
+        EWMA
+    }
+
+    private boolean enabled = false;
+    /**
+     * Alerts waiting for the notifiers; further alerts are dropped.
+     */
+    private int notifyQueueCapacity = 1000;
+    private List<Rule> rules = new ArrayList<>();
+    private final LogNotifier logNotifier = new LogNotifier();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getNotifyQueueCapacity() {
+        return notifyQueueCapacity;
+    }
+
+    public void setNotifyQueueCapacity(int notifyQueueCapacity) {
+        this.notifyQueueCapacity = notifyQueueCapacity;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public LogNotifier getLogNotifier() {
+        return logNotifier;
+    }
+
+    /**
+     * The built-in notifier that logs alerts.
+     */
+    public static class LogNotifier {
+
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Rule {
+
+        private String name;
+        private String metric;
+        private RuleType type = RuleType.THRESHOLD;
+        private Double above;
+        private Double below;
+        /**
+         * Time span a rate of change is measured over.
+         */
+        private Duration window = Duration.ofMinutes(5);
+        /**
+         * Values kept per rule: the z-score window, and the most a rate-of-change window holds.
+         */
+        private int windowSize = 300;
+        /**
+         * Weight of the newest value in an EWMA rule.
+         */
+        private double alpha = 0.1;
+        /**
+         * Values a z-score or EWMA rule needs before it can fire.
+         */
+        private int minSamples = 10;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        public void setMetric(String metric) {
+            this.metric = metric;
+        }
+
+        public RuleType getType() {
+            return type;
+        }
+
+        public void setType(RuleType type) {
+            this.type = type;
+        }
+
+        public Double getAbove() {
+            return above;
+        }
+
+        public void setAbove(Double above) {
+            this.above = above;
+        }
+
+        public Double getBelow() {
+            return below;
+        }
+
+        public void setBelow(Double below) {
+            this.below = below;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public double getAlpha() {
+            return alpha;
+        }
+
+        public void setAlpha(double alpha) {
+            this.alpha = alpha;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "storage.cold-tier")
+public class ColdTierProperties {
+
+    private boolean enabled = false;
+    private Path directory = Path.of("archive");
+    /**
+     * Rows whose timestamp is older than this (rounded down to a UTC day) are archived.
+     */
+    private Duration archiveAfter = Duration.ofDays(30);
+    /**
+     * Segments whose time range ended longer ago than this are deleted.
+     */
+    private Duration retention = Duration.ofDays(365);
+    private Duration archiveInterval = Duration.ofHours(1);
+    /**
+     * How often segment files written by other instances are picked up.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+    private int blockRows = 4096;
+    private DataSize maxSegmentSize = DataSize.ofMegabytes(512);
+    private int deleteBatchSize = 1000;
+    private int fetchSize = 1000;
+    /**
+     * Socket timeout for the scan of a day's rows, replacing the pool's shorter driver setting.
+     */
+    private Duration socketTimeout = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public Duration getArchiveAfter() {
+        return archiveAfter;
+    }
+
+    public void setArchiveAfter(Duration archiveAfter) {
+        this.archiveAfter = archiveAfter;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getArchiveInterval() {
+        return archiveInterval;
+    }
+
+    public void setArchiveInterval(Duration archiveInterval) {
+        this.archiveInterval = archiveInterval;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    public void setBlockRows(int blockRows) {
+        this.blockRows = blockRows;
+    }
+
+    public DataSize getMaxSegmentSize() {
+        return maxSegmentSize;
+    }
+
+    public void setMaxSegmentSize(DataSize maxSegmentSize) {
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    public int getDeleteBatchSize() {
+        return deleteBatchSize;
+    }
+
+    public void setDeleteBatchSize(int deleteBatchSize) {
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(Duration socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+}
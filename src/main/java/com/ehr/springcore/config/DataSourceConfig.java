@@ -0,0 +1,124 @@
+package com.ehr.springcore.config;
+
+import com.ehr.springcore.datasource.DataSourcePools;
+import com.ehr.springcore.datasource.ReadWriteRoutingDataSource;
+import com.ehr.springcore.datasource.ReplicaLagMonitor;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource. {@code spring.datasource} is the primary pool:
+ * the writer with {@code datasource.routing}, the primary shard with
+ * {@code datasource.sharding}, or the only pool otherwise.
+ * <p>
+ * The mode is read from the properties when the context starts rather than through bean
+ * conditions. Spring AOT fixes conditions at build time, so this keeps routing and sharding
+ * switchable in the AOT-processed image; the beans for the mode not in use stay empty.
+ * <p>
+ * Without routing there is no reader to send exports to, so each shard (or the single
+ * database) gets a small {@code export-<shard>} pool of its own, sized to
+ * {@code export.max-concurrent-exports} and keeping no idle connections. A long export then
+ * never holds a connection that ingestion is waiting for.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(@Qualifier("primaryDataSourceProperties") DataSourceProperties properties,
+                                              ShardingProperties shardingProperties,
+                                              DataSourceRoutingProperties routingProperties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (shardingProperties.isEnabled()) {
+            dataSource.setPoolName("shard-" + ShardRouter.PRIMARY);
+        } else if (routingProperties.isEnabled()) {
+            dataSource.setPoolName("writer");
+        } else if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ShardingProperties shardingProperties, DataSourceRoutingProperties routingProperties,
+                                 @Qualifier("shardDataSources") DataSourcePools shardDataSources,
+                                 @Qualifier("readerDataSources") DataSourcePools readerDataSources,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        if (shardingProperties.isEnabled() && routingProperties.isEnabled()) {
+            throw new IllegalStateException("datasource.sharding cannot be combined with datasource.routing");
+        }
+        if (shardingProperties.isEnabled()) {
+            Map<String, DataSource> shards = new LinkedHashMap<>();
+            shards.put(ShardRouter.PRIMARY, primaryDataSource);
+            shards.putAll(shardDataSources.asMap());
+            ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shards);
+            routingDataSource.afterPropertiesSet();
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+        if (routingProperties.isEnabled()) {
+            ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primaryDataSource,
+                    readerDataSources.get(DataSourceRoutingConfig.READER), replicaLagMonitor);
+            routingDataSource.afterPropertiesSet();
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+        return new LazyConnectionDataSourceProxy(primaryDataSource);
+    }
+
+    @Bean
+    public DataSourcePools exportDataSources(@Qualifier("primaryDataSourceProperties") DataSourceProperties primaryProperties,
+                                             ShardingProperties shardingProperties,
+                                             DataSourceRoutingProperties routingProperties,
+                                             ExportProperties exportProperties, Environment environment) {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        if (routingProperties.isEnabled()) {
+            return new DataSourcePools(pools);
+        }
+        Binder binder = Binder.get(environment);
+        pools.put(ShardRouter.PRIMARY, exportPool(primaryProperties, ShardRouter.PRIMARY,
+                "spring.datasource.hikari", binder, exportProperties));
+        if (shardingProperties.isEnabled()) {
+            for (DataSourceProperties shard : shardingProperties.getShards()) {
+                pools.put(shard.getName(), exportPool(shard, shard.getName(),
+                        "datasource.sharding.hikari", binder, exportProperties));
+            }
+        }
+        return new DataSourcePools(pools);
+    }
+
+    private static HikariDataSource exportPool(DataSourceProperties properties, String shard, String hikariPrefix,
+                                               Binder binder, ExportProperties exportProperties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // Driver settings as for the shard's main pool, sizing of its own
+        binder.bind(hikariPrefix, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("export-" + shard);
+        dataSource.setMaximumPoolSize(exportProperties.getMaxConcurrentExports());
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
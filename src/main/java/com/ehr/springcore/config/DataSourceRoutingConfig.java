@@ -0,0 +1,65 @@
+package com.ehr.springcore.config;
+
+import com.ehr.springcore.datasource.DataSourcePools;
+import com.ehr.springcore.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+/**
+ * Reader pool ({@code datasource.routing.reader}, with its own Hikari settings) and replica
+ * lag monitoring for read/write routing, which {@link DataSourceConfig} switches on when
+ * {@code datasource.routing.enabled} is set. {@code @Transactional(readOnly = true)} work
+ * goes to the reader; ingestion keeps the writer. With routing disabled the reader pool is
+ * not created.
+ */
+@Configuration
+public class DataSourceRoutingConfig {
+
+    static final String READER = "reader";
+
+    @Bean
+    @ConfigurationProperties("datasource.routing.reader")
+    public DataSourceProperties readerDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    public DataSourcePools readerDataSources(DataSourceRoutingProperties properties,
+                                             @Qualifier("readerDataSourceProperties") DataSourceProperties readerProperties,
+                                             Environment environment) {
+        if (!properties.isEnabled()) {
+            return new DataSourcePools(Map.of());
+        }
+        HikariDataSource dataSource = readerProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(READER);
+        dataSource.setReadOnly(true);
+        Binder.get(environment).bind("datasource.routing.reader.hikari", Bindable.ofInstance(dataSource));
+        return new DataSourcePools(Map.of(READER, dataSource));
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceRoutingProperties properties,
+                                               @Qualifier("readerDataSources") DataSourcePools readerDataSources,
+                                               MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            return ReplicaLagMonitor.disabled(properties);
+        }
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(properties, readerDataSources.get(READER));
+        Gauge.builder("ehr.datasource.replica.lag", monitor, ReplicaLagMonitor::getLastLagMillis)
+                .baseUnit("milliseconds")
+                .description("Last measured replica lag of the reader pool")
+                .register(meterRegistry);
+        return monitor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Switches for reader/writer routing. Connection settings of the reader pool live under
+ * {@code datasource.routing.reader} and use the same keys as {@code spring.datasource}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+    private Duration maxReplicaLag;
+    private String lagQuery = "SELECT replica_lag_in_msec FROM aurora_replica_status() "
+            + "WHERE server_id = aurora_db_instance_identifier()";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMaxReplicaLag() {
+        return maxReplicaLag;
+    }
+
+    public void setMaxReplicaLag(Duration maxReplicaLag) {
+        this.maxReplicaLag = maxReplicaLag;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+}
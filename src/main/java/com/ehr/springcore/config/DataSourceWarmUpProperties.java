@@ -0,0 +1,36 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "datasource.warm-up")
+public class DataSourceWarmUpProperties {
+
+    /**
+     * On by default: new tasks would otherwise open their connections on the first requests.
+     */
+    private boolean enabled = true;
+    /**
+     * Per pool; a pool that cannot be filled in time starts with what it has.
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
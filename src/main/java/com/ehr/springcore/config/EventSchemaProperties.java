@@ -0,0 +1,58 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog of promoted event properties: per event name, the property keys that are also
+ * written to typed, indexed columns at ingest. Event names containing dots must be
+ * bracketed in YAML, e.g. {@code "[checkout.completed]"}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "events.schema")
+public class EventSchemaProperties {
+
+    public enum PropertyType {
+        LONG,
+        DOUBLE,
+        BOOLEAN,
+        STRING,
+        TIMESTAMP
+    }
+
+    private Map<String, List<PromotedProperty>> promoted = new HashMap<>();
+
+    public Map<String, List<PromotedProperty>> getPromoted() {
+        return promoted;
+    }
+
+    public void setPromoted(Map<String, List<PromotedProperty>> promoted) {
+        this.promoted = promoted;
+    }
+
+    public static class PromotedProperty {
+
+        private String key;
+        private PropertyType type = PropertyType.STRING;
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public PropertyType getType() {
+            return type;
+        }
+
+        public void setType(PropertyType type) {
+            this.type = type;
+        }
+    }
+}
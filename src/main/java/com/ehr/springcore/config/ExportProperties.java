@@ -0,0 +1,90 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "export")
+public class ExportProperties {
+
+    /**
+     * Supported Arrow IPC buffer compression codecs.
+     */
+    public enum Compression {
+        NONE,
+        LZ4_FRAME,
+        ZSTD
+    }
+
+    private int batchSize = 10_000;
+    private int fetchSize = 1_000;
+    private Compression compression = Compression.LZ4_FRAME;
+    private DataSize maxMemory = DataSize.ofMegabytes(256);
+    private int maxConcurrentExports = 2;
+    private List<String> eventPropertyColumns = new ArrayList<>();
+    /**
+     * Socket timeout for the export's read, replacing the pool's shorter driver setting.
+     */
+    private Duration socketTimeout = Duration.ofMinutes(30);
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    public DataSize getMaxMemory() {
+        return maxMemory;
+    }
+
+    public void setMaxMemory(DataSize maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    public int getMaxConcurrentExports() {
+        return maxConcurrentExports;
+    }
+
+    public void setMaxConcurrentExports(int maxConcurrentExports) {
+        this.maxConcurrentExports = maxConcurrentExports;
+    }
+
+    public List<String> getEventPropertyColumns() {
+        return eventPropertyColumns;
+    }
+
+    public void setEventPropertyColumns(List<String> eventPropertyColumns) {
+        this.eventPropertyColumns = eventPropertyColumns;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(Duration socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+}
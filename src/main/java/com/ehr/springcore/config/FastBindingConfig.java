@@ -0,0 +1,65 @@
+package com.ehr.springcore.config;
+
+import com.ehr.springcore.binding.FastBindingArgumentResolver;
+import com.ehr.springcore.binding.IngestionRequestBinder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts the {@link FastBindingArgumentResolver} in front of the standard argument resolvers.
+ * Custom resolvers registered through {@code WebMvcConfigurer} are consulted after the
+ * built-in {@code @RequestBody} one and would never be reached, so the list is rewritten
+ * once the handler adapter is initialized.
+ * <p>
+ * {@code ingestion.fast-binding.enabled} is read at that point rather than through a bean
+ * condition, which Spring AOT would fix at build time.
+ */
+@Configuration
+public class FastBindingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastBindingConfig.class);
+
+    @Bean
+    public IngestionRequestBinder ingestionRequestBinder(ObjectMapper objectMapper) {
+        return new IngestionRequestBinder(objectMapper);
+    }
+
+    @Bean
+    public SmartInitializingSingleton fastBindingInstaller(RequestMappingHandlerAdapter handlerAdapter,
+                                                           IngestionRequestBinder binder, ObjectMapper objectMapper,
+                                                           FastBindingProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        return () -> {
+            if (!properties.isEnabled()) {
+                return;
+            }
+            if (!IngestionRequestBinder.supports(objectMapper)) {
+                logger.warn("Fast ingestion binding disabled: the ObjectMapper's number or array handling "
+                        + "differs from what the fast binder produces");
+                return;
+            }
+            List<HandlerMethodArgumentResolver> resolvers = handlerAdapter.getArgumentResolvers();
+            HandlerMethodArgumentResolver standardResolver = resolvers.stream()
+                    .filter(RequestResponseBodyMethodProcessor.class::isInstance)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No @RequestBody argument resolver registered"));
+            List<HandlerMethodArgumentResolver> updated = new ArrayList<>(resolvers.size() + 1);
+            updated.add(new FastBindingArgumentResolver(binder, standardResolver,
+                    (int) properties.getMaxBodySize().toBytes(), meterRegistry));
+            updated.addAll(resolvers);
+            handlerAdapter.setArgumentResolvers(updated);
+            logger.info("Fast ingestion binding enabled");
+        };
+    }
+}
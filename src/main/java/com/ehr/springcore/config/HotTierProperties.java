@@ -0,0 +1,61 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "storage.hot-tier")
+public class HotTierProperties {
+
+    private boolean enabled = false;
+    private Duration window = Duration.ofHours(1);
+    private int chunkSize = 240;
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+    /**
+     * Answer queries from the tier. Only safe when every write for a metric reaches this instance.
+     */
+    private boolean serveQueries = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public DataSize getMaxMemory() {
+        return maxMemory;
+    }
+
+    public void setMaxMemory(DataSize maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    public boolean isServeQueries() {
+        return serveQueries;
+    }
+
+    public void setServeQueries(boolean serveQueries) {
+        this.serveQueries = serveQueries;
+    }
+}
@@ -3,12 +3,20 @@ package com.ehr.springcore.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "logging.payloads")
 public class LoggingProperties {
 
     private boolean enabled = true;
     private int maxSize = 1000;
+    /**
+     * Overwritten payloads whose type and name are remembered, so that filtered reads
+     * count only the matching ones they missed.
+     */
+    private int missedHistory = 10_000;
+    private final Tail tail = new Tail();
 
     public boolean isEnabled() {
         return enabled;
@@ -25,4 +33,59 @@ public class LoggingProperties {
     public void setMaxSize(int maxSize) {
         this.maxSize = maxSize;
     }
+
+    public int getMissedHistory() {
+        return missedHistory;
+    }
+
+    public void setMissedHistory(int missedHistory) {
+        this.missedHistory = missedHistory;
+    }
+
+    public Tail getTail() {
+        return tail;
+    }
+
+    /**
+     * Live tail of stored payloads over Server-Sent Events.
+     */
+    public static class Tail {
+
+        private int maxSubscribers = 10;
+        private int bufferSize = 256;
+        private Duration timeout = Duration.ofMinutes(30);
+        private Duration heartbeat = Duration.ofSeconds(15);
+
+        public int getMaxSubscribers() {
+            return maxSubscribers;
+        }
+
+        public void setMaxSubscribers(int maxSubscribers) {
+            this.maxSubscribers = maxSubscribers;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Duration getHeartbeat() {
+            return heartbeat;
+        }
+
+        public void setHeartbeat(Duration heartbeat) {
+            this.heartbeat = heartbeat;
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "metrics.aggregation")
+public class MetricAggregationProperties {
+
+    /**
+     * Aggregation interval per metric name. Metrics not listed are stored raw.
+     */
+    private Map<String, Duration> intervals = new LinkedHashMap<>();
+    private int stripes = 8;
+    private Duration flushInterval = Duration.ofSeconds(5);
+    /**
+     * How far a metric's watermark trails the latest event time seen for it.
+     */
+    private Duration gracePeriod = Duration.ofSeconds(5);
+    /**
+     * How far behind the watermark a value may be and still correct its interval.
+     */
+    private Duration allowedLateness = Duration.ofHours(24);
+    /**
+     * After this long without data, a metric's watermark follows the wall clock instead.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(1);
+
+    public Map<String, Duration> getIntervals() {
+        return intervals;
+    }
+
+    public void setIntervals(Map<String, Duration> intervals) {
+        this.intervals = intervals;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getGracePeriod() {
+        return gracePeriod;
+    }
+
+    public void setGracePeriod(Duration gracePeriod) {
+        this.gracePeriod = gracePeriod;
+    }
+
+    public Duration getAllowedLateness() {
+        return allowedLateness;
+    }
+
+    public void setAllowedLateness(Duration allowedLateness) {
+        this.allowedLateness = allowedLateness;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "storage.query-cache")
+public class QueryCacheProperties {
+
+    private boolean enabled = true;
+    private Duration bucketSize = Duration.ofHours(1);
+    private Duration closedBucketTtl = Duration.ofHours(1);
+    private Duration openBucketTtl = Duration.ofSeconds(10);
+    private long maxPoints = 1_000_000;
+    private int maxBucketsPerQuery = 168;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getBucketSize() {
+        return bucketSize;
+    }
+
+    public void setBucketSize(Duration bucketSize) {
+        this.bucketSize = bucketSize;
+    }
+
+    public Duration getClosedBucketTtl() {
+        return closedBucketTtl;
+    }
+
+    public void setClosedBucketTtl(Duration closedBucketTtl) {
+        this.closedBucketTtl = closedBucketTtl;
+    }
+
+    public Duration getOpenBucketTtl() {
+        return openBucketTtl;
+    }
+
+    public void setOpenBucketTtl(Duration openBucketTtl) {
+        this.openBucketTtl = openBucketTtl;
+    }
+
+    public long getMaxPoints() {
+        return maxPoints;
+    }
+
+    public void setMaxPoints(long maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    public int getMaxBucketsPerQuery() {
+        return maxBucketsPerQuery;
+    }
+
+    public void setMaxBucketsPerQuery(int maxBucketsPerQuery) {
+        this.maxBucketsPerQuery = maxBucketsPerQuery;
+    }
+}
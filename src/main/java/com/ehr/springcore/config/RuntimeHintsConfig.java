@@ -0,0 +1,54 @@
+package com.ehr.springcore.config;
+
+import com.ehr.springcore.diagnostics.JfrEndpoint;
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.entity.EventSketch;
+import com.ehr.springcore.entity.Metric;
+import com.ehr.springcore.entity.NameDictionaryEntry;
+import com.ehr.springcore.entity.NameDictionaryListener;
+import com.ehr.springcore.entity.PromotedPropertyValue;
+import com.ehr.springcore.model.DistinctCountResult;
+import com.ehr.springcore.model.EventRecord;
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.model.IngestResponse;
+import com.ehr.springcore.model.MetricDataPoint;
+import com.ehr.springcore.model.MetricRequest;
+import com.ehr.springcore.model.PayloadEntry;
+import com.ehr.springcore.model.PayloadPage;
+import com.ehr.springcore.model.TopValuesResult;
+import com.ehr.springcore.sink.SinkRecord;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the native image. Jackson binds the request and response models by
+ * reflection, and Hibernate instantiates the entities and their listener reflectively.
+ */
+@Configuration
+@RegisterReflectionForBinding({EventRequest.class, MetricRequest.class, IngestResponse.class, MetricDataPoint.class,
+        DistinctCountResult.class, TopValuesResult.class, PayloadEntry.class, PayloadPage.class, EventRecord.class,
+        JfrEndpoint.RecordingDescriptor.class, SinkRecord.class})
+@ImportRuntimeHints(RuntimeHintsConfig.EntityHints.class)
+public class RuntimeHintsConfig {
+
+    static class EntityHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> type : new Class<?>[]{Event.class, Metric.class, NameDictionaryEntry.class, EventSketch.class,
+                    PromotedPropertyValue.class}) {
+                hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+            hints.reflection().registerType(NameDictionaryListener.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
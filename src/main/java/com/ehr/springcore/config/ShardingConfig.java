@@ -0,0 +1,54 @@
+package com.ehr.springcore.config;
+
+import com.ehr.springcore.datasource.DataSourcePools;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.datasource.ShardRoutingDataSource;
+import com.ehr.springcore.datasource.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pools of the non-primary shards ({@code datasource.sharding.shards}) and their schema
+ * set-up. {@link DataSourceConfig} puts them behind a {@link ShardRoutingDataSource} when
+ * {@code datasource.sharding.enabled} is set; {@code spring.datasource} is the primary
+ * shard, which also holds the unsharded tables. The pools are held by the
+ * {@code shardDataSources} bean, built by a plain factory method so that the shard list
+ * is read at startup, also in an AOT-processed build. With sharding disabled it is empty.
+ */
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public DataSourcePools shardDataSources(ShardingProperties properties, Environment environment) {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        if (!properties.isEnabled()) {
+            return new DataSourcePools(pools);
+        }
+        Binder binder = Binder.get(environment);
+        for (DataSourceProperties shard : properties.getShards()) {
+            HikariDataSource dataSource = shard.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("datasource.sharding.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("shard-" + shard.getName());
+            pools.put(shard.getName(), dataSource);
+        }
+        return new DataSourcePools(pools);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardingProperties properties, ShardRouter shardRouter,
+                                                         EntityManagerFactory entityManagerFactory,
+                                                         @Qualifier("shardDataSources") DataSourcePools shardDataSources) {
+        return new ShardSchemaInitializer(properties, shardRouter, entityManagerFactory,
+                new LinkedHashMap<>(shardDataSources.asMap()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Switches for hash-sharded persistence. {@code spring.datasource} is always the
+ * {@code primary} shard; additional shards are listed under {@code datasource.sharding.shards}
+ * with the same keys as {@code spring.datasource} (including a unique {@code name}), and
+ * share the pool settings under {@code datasource.sharding.hikari}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "datasource.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+    private int virtualNodes = 128;
+    private boolean initializeSchema = true;
+    private List<DataSourceProperties> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+
+    public List<DataSourceProperties> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<DataSourceProperties> shards) {
+        this.shards = shards;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "analytics.sketches")
+public class SketchProperties {
+
+    private boolean enabled = false;
+    private Duration bucketSize = Duration.ofHours(1);
+    private List<String> distinctProperties = new ArrayList<>();
+    private List<String> topKProperties = new ArrayList<>();
+    private int hllPrecision = 12;
+    private int topKCapacity = 100;
+    private Duration flushInterval = Duration.ofSeconds(10);
+    private int maxBucketsPerQuery = 744;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getBucketSize() {
+        return bucketSize;
+    }
+
+    public void setBucketSize(Duration bucketSize) {
+        this.bucketSize = bucketSize;
+    }
+
+    public List<String> getDistinctProperties() {
+        return distinctProperties;
+    }
+
+    public void setDistinctProperties(List<String> distinctProperties) {
+        this.distinctProperties = distinctProperties;
+    }
+
+    public List<String> getTopKProperties() {
+        return topKProperties;
+    }
+
+    public void setTopKProperties(List<String> topKProperties) {
+        this.topKProperties = topKProperties;
+    }
+
+    public int getHllPrecision() {
+        return hllPrecision;
+    }
+
+    public void setHllPrecision(int hllPrecision) {
+        this.hllPrecision = hllPrecision;
+    }
+
+    public int getTopKCapacity() {
+        return topKCapacity;
+    }
+
+    public void setTopKCapacity(int topKCapacity) {
+        this.topKCapacity = topKCapacity;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getMaxBucketsPerQuery() {
+        return maxBucketsPerQuery;
+    }
+
+    public void setMaxBucketsPerQuery(int maxBucketsPerQuery) {
+        this.maxBucketsPerQuery = maxBucketsPerQuery;
+    }
+}
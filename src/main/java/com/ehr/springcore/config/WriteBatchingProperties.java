@@ -0,0 +1,93 @@
+package com.ehr.springcore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "persistence.batching")
+public class WriteBatchingProperties {
+
+    private boolean enabled = false;
+    /**
+     * Ingest-to-commit latency the batch size and linger time are tuned for (p99).
+     */
+    private Duration targetLatency = Duration.ofMillis(50);
+    private int initialBatchSize = 16;
+    private int maxBatchSize = 500;
+    /**
+     * Upper bound on how long a partial batch waits for more writes.
+     */
+    private Duration maxLinger = Duration.ofMillis(10);
+    private int queueCapacity = 10_000;
+    private Duration adjustInterval = Duration.ofSeconds(1);
+    /**
+     * How long a write may stay queued before it is withdrawn and its caller gets 503.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTargetLatency() {
+        return targetLatency;
+    }
+
+    public void setTargetLatency(Duration targetLatency) {
+        this.targetLatency = targetLatency;
+    }
+
+    public int getInitialBatchSize() {
+        return initialBatchSize;
+    }
+
+    public void setInitialBatchSize(int initialBatchSize) {
+        this.initialBatchSize = initialBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getMaxLinger() {
+        return maxLinger;
+    }
+
+    public void setMaxLinger(Duration maxLinger) {
+        this.maxLinger = maxLinger;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getAdjustInterval() {
+        return adjustInterval;
+    }
+
+    public void setAdjustInterval(Duration adjustInterval) {
+        this.adjustInterval = adjustInterval;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ehr.springcore.controller;
+
+import com.ehr.springcore.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/v1/export")
+@Tag(name = "Export", description = "Bulk export endpoints")
+@SecurityRequirement(name = "X-API-Key")
+public class ExportController {
+
+    public static final MediaType ARROW_STREAM = MediaType.parseMediaType("application/vnd.apache.arrow.stream");
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/events")
+    @Operation(
+        summary = "Export events",
+        description = "Streams events in [start, end) as an Arrow IPC stream",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Arrow IPC stream"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "429", description = "Too many concurrent exports")
+        }
+    )
+    @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        return stream("events", start, end, out -> exportService.exportEvents(start, end, out));
+    }
+
+    @GetMapping("/metrics")
+    @Operation(
+        summary = "Export metrics",
+        description = "Streams metrics in [start, end) as an Arrow IPC stream",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Arrow IPC stream"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "429", description = "Too many concurrent exports")
+        }
+    )
+    @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
+    public ResponseEntity<StreamingResponseBody> exportMetrics(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        return stream("metrics", start, end, out -> exportService.exportMetrics(start, end, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String type, Instant start, Instant end,
+                                                         StreamingResponseBody body) {
+        if (!end.isAfter(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must be after start");
+        }
+        if (!exportService.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many concurrent exports");
+        }
+        StreamingResponseBody releasing = (OutputStream out) -> {
+            try {
+                body.writeTo(out);
+            } finally {
+                exportService.release();
+            }
+        };
+        String filename = String.format("%s-%d-%d.arrows", type, start.getEpochSecond(), end.getEpochSecond());
+        return ResponseEntity.ok()
+                .contentType(ARROW_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(releasing);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ehr.springcore.controller;
 
+import com.ehr.springcore.diagnostics.IngestRequestEvent;
 import com.ehr.springcore.model.EventRequest;
 import com.ehr.springcore.model.IngestResponse;
 import com.ehr.springcore.model.MetricRequest;
@@ -45,7 +46,15 @@ public class IngestionController {
     )
     @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
     public ResponseEntity<IngestResponse> ingestEvent(@Valid @RequestBody EventRequest event) {
-        ingestionService.ingestEvent(event);
+        IngestRequestEvent jfrEvent = new IngestRequestEvent();
+        jfrEvent.begin();
+        boolean succeeded = false;
+        try {
+            ingestionService.ingestEvent(event);
+            succeeded = true;
+        } finally {
+            jfrEvent.finish("event", event.getEventName(), succeeded);
+        }
         return ResponseEntity.ok(new IngestResponse("success", "Event ingested successfully"));
     }
 
@@ -62,7 +71,15 @@ public class IngestionController {
     )
     @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
     public ResponseEntity<IngestResponse> ingestMetric(@Valid @RequestBody MetricRequest metric) {
-        ingestionService.ingestMetric(metric);
+        IngestRequestEvent jfrEvent = new IngestRequestEvent();
+        jfrEvent.begin();
+        boolean succeeded = false;
+        try {
+            ingestionService.ingestMetric(metric);
+            succeeded = true;
+        } finally {
+            jfrEvent.finish("metric", metric.getMetricName(), succeeded);
+        }
         return ResponseEntity.ok(new IngestResponse("success", "Metric ingested successfully"));
     }
 }
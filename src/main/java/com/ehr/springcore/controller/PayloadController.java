@@ -0,0 +1,85 @@
+package com.ehr.springcore.controller;
+
+import com.ehr.springcore.model.PayloadPage;
+import com.ehr.springcore.service.PayloadStorageService;
+import com.ehr.springcore.service.PayloadTailService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/payloads")
+@Tag(name = "Payloads", description = "Recently ingested payloads for debugging")
+@SecurityRequirement(name = "X-API-Key")
+public class PayloadController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final PayloadStorageService storageService;
+    private final PayloadTailService tailService;
+
+    public PayloadController(PayloadStorageService storageService, PayloadTailService tailService) {
+        this.storageService = storageService;
+        this.tailService = tailService;
+    }
+
+    @GetMapping
+    @Operation(
+        summary = "Read stored payloads",
+        description = "Returns stored payloads from the cursor onwards; pass nextCursor to read the following page",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Payload page returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+        }
+    )
+    @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
+    public ResponseEntity<PayloadPage> readPayloads(
+            @RequestParam(value = "cursor", defaultValue = "0") long cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "name", required = false) String name) {
+        if (cursor < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor must not be negative");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(storageService.read(cursor, limit, type, name));
+    }
+
+    @GetMapping(value = "/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Tail stored payloads",
+        description = "Streams new payloads as Server-Sent Events ('payload', and 'dropped' with the number of "
+                + "entries lost by a slow client). Resumes after Last-Event-ID or from the given cursor",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "429", description = "Too many tail subscribers")
+        }
+    )
+    @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
+    public SseEmitter tailPayloads(
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Long start = lastEventId != null ? Long.valueOf(lastEventId + 1) : cursor;
+        return tailService.subscribe(type, name, start)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many tail subscribers"));
+    }
+}
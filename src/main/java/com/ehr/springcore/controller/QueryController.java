@@ -0,0 +1,148 @@
+package com.ehr.springcore.controller;
+
+import com.ehr.springcore.model.DistinctCountResult;
+import com.ehr.springcore.model.EventRecord;
+import com.ehr.springcore.model.MetricDataPoint;
+import com.ehr.springcore.model.TopValuesResult;
+import com.ehr.springcore.service.EventQueryService;
+import com.ehr.springcore.service.EventSketchService;
+import com.ehr.springcore.service.MetricQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/query")
+@Tag(name = "Query", description = "Analytics query endpoints")
+@SecurityRequirement(name = "X-API-Key")
+public class QueryController {
+
+    private static final int MAX_EVENT_LIMIT = 1000;
+
+    private final MetricQueryService metricQueryService;
+    private final EventSketchService eventSketchService;
+    private final EventQueryService eventQueryService;
+
+    public QueryController(MetricQueryService metricQueryService, EventSketchService eventSketchService,
+                           EventQueryService eventQueryService) {
+        this.metricQueryService = metricQueryService;
+        this.eventSketchService = eventSketchService;
+        this.eventQueryService = eventQueryService;
+    }
+
+    @GetMapping("/metrics")
+    @Operation(
+        summary = "Query metric points",
+        description = "Returns the points of a metric within a time range, ordered by timestamp",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Metric points returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+        }
+    )
+    @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
+    public ResponseEntity<List<MetricDataPoint>> queryMetrics(
+            @RequestParam("name") String metricName,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        if (end.isBefore(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must not be before start");
+        }
+        return ResponseEntity.ok(metricQueryService.findMetrics(metricName, start, end));
+    }
+
+    @GetMapping("/events")
+    @Operation(
+        summary = "Query events by a promoted property",
+        description = "Returns events of one name within a time range whose promoted property matches the filter "
+                + "(op: eq, ne, gt, gte, lt, lte), ordered by timestamp",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Events returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid request or property not promoted"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+        }
+    )
+    @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
+    public ResponseEntity<List<EventRecord>> queryEvents(
+            @RequestParam("name") String eventName,
+            @RequestParam("property") String property,
+            @RequestParam("op") String comparison,
+            @RequestParam("value") String value,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (end.isBefore(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must not be before start");
+        }
+        if (limit < 1 || limit > MAX_EVENT_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_EVENT_LIMIT);
+        }
+        return ResponseEntity.ok(eventQueryService.findEvents(eventName, property, comparison, value, start, end, limit));
+    }
+
+    @GetMapping("/events/distinct")
+    @Operation(
+        summary = "Approximate distinct count of an event property",
+        description = "Estimates the number of distinct values of a sketched property over the time buckets overlapping the range",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Distinct count returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+        }
+    )
+    @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
+    public ResponseEntity<DistinctCountResult> queryDistinct(
+            @RequestParam("name") String eventName,
+            @RequestParam("property") String property,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        if (end.isBefore(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must not be before start");
+        }
+        long count = eventSketchService.countDistinct(eventName, property, start, end);
+        return ResponseEntity.ok(new DistinctCountResult(eventName, property, start, end, count));
+    }
+
+    @GetMapping("/events/top")
+    @Operation(
+        summary = "Approximate most frequent values of an event property",
+        description = "Returns the most frequent values of a sketched property over the time buckets overlapping the range",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Top values returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+        }
+    )
+    @Parameter(name = "X-API-Key", description = "API Key for authentication", required = true, in = ParameterIn.HEADER)
+    public ResponseEntity<TopValuesResult> queryTopValues(
+            @RequestParam("name") String eventName,
+            @RequestParam("property") String property,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (end.isBefore(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must not be before start");
+        }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+        List<TopValuesResult.ValueCount> values = eventSketchService.topValues(eventName, property, start, end, limit).stream()
+                .map(entry -> new TopValuesResult.ValueCount(entry.value(), entry.count(), entry.error()))
+                .toList();
+        return ResponseEntity.ok(new TopValuesResult(eventName, property, start, end, values));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ehr.springcore.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Publishes pool saturation (active / maximum connections) for every Hikari pool, next to
+ * the {@code hikaricp.connections.*} meters Hikari already reports (including acquire time
+ * and pending threads).
+ */
+@Component
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final ObjectProvider<DataSourcePools> pools;
+
+    public ConnectionPoolMetrics(ObjectProvider<HikariDataSource> dataSources, ObjectProvider<DataSourcePools> pools) {
+        this.dataSources = dataSources;
+        this.pools = pools;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Stream.concat(dataSources.orderedStream(), pools.orderedStream().flatMap(group -> group.all().stream()))
+                .forEach(dataSource ->
+                Gauge.builder("ehr.datasource.pool.saturation", dataSource, ConnectionPoolMetrics::saturation)
+                        .tag("pool", String.valueOf(dataSource.getPoolName()))
+                        .description("Fraction of the pool's maximum connections in use")
+                        .register(registry));
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null || dataSource.getMaximumPoolSize() <= 0) {
+            return 0;
+        }
+        return (double) pool.getActiveConnections() / dataSource.getMaximumPoolSize();
+    }
+}
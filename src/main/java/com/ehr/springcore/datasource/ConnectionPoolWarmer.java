@@ -0,0 +1,78 @@
+package com.ehr.springcore.datasource;
+
+import com.ehr.springcore.config.DataSourceWarmUpProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Fills every Hikari pool up to its {@code minimum-idle} size before the application
+ * reports ready, so the first requests after a scale-out do not pay for connection setup.
+ * <p>
+ * Connections are opened one at a time, which keeps a fleet of new tasks from
+ * stampeding a cluster that is still scaling up.
+ */
+@Component
+public class ConnectionPoolWarmer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolWarmer.class);
+
+    private final DataSourceWarmUpProperties properties;
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final ObjectProvider<DataSourcePools> pools;
+
+    public ConnectionPoolWarmer(DataSourceWarmUpProperties properties, ObjectProvider<HikariDataSource> dataSources,
+                                ObjectProvider<DataSourcePools> pools) {
+        this.properties = properties;
+        this.dataSources = dataSources;
+        this.pools = pools;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Stream.concat(dataSources.orderedStream(), pools.orderedStream().flatMap(group -> group.all().stream()))
+                .forEach(this::warmUp);
+    }
+
+    private void warmUp(HikariDataSource dataSource) {
+        long deadline = System.currentTimeMillis() + properties.getTimeout().toMillis();
+        List<Connection> connections = new ArrayList<>();
+        try {
+            // The first connection starts the pool, which resolves unset sizes to their defaults
+            Connection first = dataSource.getConnection();
+            connections.add(first);
+            first.isValid(2);
+            int target = dataSource.getMinimumIdle();
+            while (connections.size() < target && System.currentTimeMillis() < deadline) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                connection.isValid(2);
+            }
+            logger.info("Warmed up pool '{}' with {} connections", dataSource.getPoolName(), connections.size());
+        } catch (SQLException e) {
+            logger.warn("Pool '{}' warm-up stopped after {} connections: {}",
+                    dataSource.getPoolName(), connections.size(), e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.debug("Failed to return warm-up connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ehr.springcore.datasource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring mapping shard keys to shard names. Each shard owns
+ * {@code virtualNodes} points on the ring, so adding a shard takes over roughly
+ * {@code 1/N} of the keys, evenly from all existing shards, and moves no other key.
+ * <p>
+ * Positions are derived from {@link String#hashCode()}, whose value is fixed by the
+ * language specification, so every instance computes the same ring.
+ */
+public final class ConsistentHashShardMap {
+
+    private final List<String> shards;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashShardMap(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public String shardFor(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    public List<String> getShards() {
+        return shards;
+    }
+
+    private static long hash(String value) {
+        // MurmurHash3 finalizer spreads the 32-bit hash code over the whole ring
+        long hash = value.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
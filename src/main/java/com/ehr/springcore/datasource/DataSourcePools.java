@@ -0,0 +1,44 @@
+package com.ehr.springcore.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named Hikari pools built from a configuration list, such as the shards. They are held by
+ * one regular bean instead of one bean each, so the bean definitions stay the same whatever
+ * the list contains, including in an AOT-processed build. Pool warm-up and pool metrics
+ * cover them like the pooled DataSource beans, and they are closed with the context.
+ */
+public class DataSourcePools implements AutoCloseable {
+
+    private final Map<String, HikariDataSource> pools;
+
+    public DataSourcePools(Map<String, HikariDataSource> pools) {
+        this.pools = Collections.unmodifiableMap(new LinkedHashMap<>(pools));
+    }
+
+    public HikariDataSource get(String name) {
+        HikariDataSource dataSource = pools.get(name);
+        if (dataSource == null) {
+            throw new IllegalStateException("No pool named '" + name + "'");
+        }
+        return dataSource;
+    }
+
+    public Map<String, HikariDataSource> asMap() {
+        return pools;
+    }
+
+    public Collection<HikariDataSource> all() {
+        return pools.values();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ehr.springcore.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+
+/**
+ * Statements for streamed reads that may legitimately run for a long time (exports,
+ * archival). The pool's {@code socketTimeout} driver property is sized for ingest and
+ * query statements and would cut such reads off, so the connection's network timeout is
+ * raised before the statement runs. Hikari restores the pool's timeout when the
+ * connection is returned.
+ */
+public final class LongRunningQuery {
+
+    private static final Logger logger = LoggerFactory.getLogger(LongRunningQuery.class);
+
+    private LongRunningQuery() {
+    }
+
+    public static PreparedStatementCreator statement(String sql, Duration socketTimeout, Object... args) {
+        return connection -> {
+            try {
+                connection.setNetworkTimeout(Runnable::run, Math.toIntExact(socketTimeout.toMillis()));
+            } catch (SQLFeatureNotSupportedException e) {
+                logger.debug("Driver does not support network timeouts, keeping the pool's: {}", e.getMessage());
+            }
+            PreparedStatement statement = connection.prepareStatement(sql);
+            new ArgumentPreparedStatementSetter(args).setValues(statement);
+            return statement;
+        };
+    }
+}
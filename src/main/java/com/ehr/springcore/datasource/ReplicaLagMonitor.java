@@ -0,0 +1,69 @@
+package com.ehr.springcore.datasource;
+
+import com.ehr.springcore.config.DataSourceRoutingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures replica lag on the reader pool. While the lag is above
+ * {@code datasource.routing.max-replica-lag}, or cannot be measured, read-only
+ * transactions are sent to the writer instead.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSourceRoutingProperties properties;
+    private final JdbcTemplate readerJdbcTemplate;
+    private volatile boolean lagging;
+    private volatile long lastLagMillis;
+
+    public ReplicaLagMonitor(DataSourceRoutingProperties properties, DataSource reader) {
+        this(properties, new JdbcTemplate(reader));
+    }
+
+    private ReplicaLagMonitor(DataSourceRoutingProperties properties, JdbcTemplate readerJdbcTemplate) {
+        this.properties = properties;
+        this.readerJdbcTemplate = readerJdbcTemplate;
+    }
+
+    /**
+     * Monitor for when routing is disabled: there is no reader, so it never measures anything.
+     */
+    public static ReplicaLagMonitor disabled(DataSourceRoutingProperties properties) {
+        return new ReplicaLagMonitor(properties, (JdbcTemplate) null);
+    }
+
+    public boolean isLagging() {
+        return lagging;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public void checkLag() {
+        if (readerJdbcTemplate == null || properties.getMaxReplicaLag() == null) {
+            return;
+        }
+        boolean wasLagging = lagging;
+        try {
+            Number lag = readerJdbcTemplate.queryForObject(properties.getLagQuery(), Number.class);
+            lastLagMillis = lag != null ? lag.longValue() : 0;
+            lagging = lastLagMillis > properties.getMaxReplicaLag().toMillis();
+        } catch (Exception e) {
+            logger.warn("Failed to measure replica lag, routing reads to writer: {}", e.getMessage());
+            lagging = true;
+        }
+        if (lagging != wasLagging) {
+            logger.info("Replica lag is {} ms, read-only transactions now use the {}",
+                    lastLagMillis, lagging ? "writer" : "reader");
+        }
+    }
+}
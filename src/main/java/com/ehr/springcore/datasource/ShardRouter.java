@@ -0,0 +1,165 @@
+package com.ehr.springcore.datasource;
+
+import com.ehr.springcore.config.ShardingProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a write goes to and runs work against a given shard.
+ * <p>
+ * The shard is bound to the calling thread for the duration of the action, so a
+ * transaction has to start and finish inside {@link #onShard}. Because a key may have
+ * lived on another shard before the ring changed, reads always {@link #fanOut} to every
+ * shard. With sharding disabled every method runs its action inline on the single
+ * database, joining any surrounding transaction.
+ */
+@Component
+public class ShardRouter {
+
+    public static final String PRIMARY = "primary";
+    /**
+     * Bits of a {@link #globalId} taken by the row ID within its shard.
+     */
+    public static final int LOCAL_ID_BITS = 48;
+
+    private final boolean enabled;
+    private final ConsistentHashShardMap shardMap;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.enabled = properties.isEnabled();
+        List<String> shards = new ArrayList<>();
+        shards.add(PRIMARY);
+        for (DataSourceProperties shard : properties.getShards()) {
+            shards.add(shard.getName());
+        }
+        if (shards.contains(null) || new HashSet<>(shards).size() != shards.size()) {
+            throw new IllegalStateException("Every shard needs a unique name other than '" + PRIMARY + "'");
+        }
+        this.shardMap = new ConsistentHashShardMap(shards, properties.getVirtualNodes());
+        if (enabled) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.fanOutExecutor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+                Thread thread = new Thread(runnable, "shard-fan-out-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.fanOutExecutor = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> getShards() {
+        return enabled ? shardMap.getShards() : List.of(PRIMARY);
+    }
+
+    public String shardFor(String key) {
+        return enabled ? shardMap.shardFor(key) : PRIMARY;
+    }
+
+    /**
+     * Returns a row ID that is unique across shards. Row IDs are generated per shard, so
+     * the shard's position in the configured list (primary first) goes in the top bits.
+     * The primary shard is position 0, which leaves IDs unchanged without sharding.
+     */
+    public long globalId(String shard, long localId) {
+        int position = shardMap.getShards().indexOf(shard);
+        if (position < 0) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        if (localId >>> LOCAL_ID_BITS != 0) {
+            throw new IllegalStateException("Row ID " + localId + " on shard '" + shard + "' does not fit in "
+                    + LOCAL_ID_BITS + " bits");
+        }
+        return ((long) position << LOCAL_ID_BITS) | localId;
+    }
+
+    public <T> T onShard(String shard, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        String previous = ShardRoutingDataSource.bind(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardRoutingDataSource.restore(previous);
+        }
+    }
+
+    public void runOnShard(String shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs shared, unsharded work (the name dictionary, sketches) on the primary shard,
+     * regardless of the shard the calling thread is bound to.
+     */
+    public <T> T onPrimary(Supplier<T> action) {
+        return onShard(PRIMARY, action);
+    }
+
+    /**
+     * Whether connections taken by the calling thread go to the primary shard.
+     */
+    public boolean isOnPrimary() {
+        String shard = ShardRoutingDataSource.current();
+        return !enabled || shard == null || PRIMARY.equals(shard);
+    }
+
+    /**
+     * Runs the query on every shard in parallel and concatenates the results in shard
+     * order. Fails if any shard fails, since a partial answer would look complete.
+     */
+    public <T> List<T> fanOut(Function<String, List<T>> query) {
+        if (!enabled) {
+            return new ArrayList<>(query.apply(PRIMARY));
+        }
+        List<Future<List<T>>> futures = new ArrayList<>();
+        for (String shard : shardMap.getShards()) {
+            futures.add(fanOutExecutor.submit(() -> onShard(shard, () -> query.apply(shard))));
+        }
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<List<T>> future : futures) {
+                results.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ehr.springcore.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections to the shard bound to the current thread by {@link ShardRouter},
+ * or to the primary shard when none is bound.
+ * <p>
+ * Like {@link ReadWriteRoutingDataSource}, it must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the shard
+ * is chosen at the first statement of a transaction rather than when it begins.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<String> currentShard = new ThreadLocal<>();
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards) {
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(ShardRouter.PRIMARY));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentShard.get();
+    }
+
+    static String current() {
+        return currentShard.get();
+    }
+
+    static String bind(String shard) {
+        String previous = currentShard.get();
+        currentShard.set(shard);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            currentShard.remove();
+        } else {
+            currentShard.set(previous);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ehr.springcore.datasource;
+
+import com.ehr.springcore.config.ShardingProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Creates the mapped tables on shards that do not have them yet. Hibernate's
+ * {@code ddl-auto} only manages the primary shard, so without this a newly added shard
+ * would fail its first write. Shards that already have an {@code events} table are left
+ * alone; schema changes on existing shards are migrated like on the primary.
+ * <p>
+ * Runs before the web server starts accepting requests.
+ */
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private final ShardingProperties properties;
+    private final ShardRouter shardRouter;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<String, DataSource> shards;
+
+    public ShardSchemaInitializer(ShardingProperties properties, ShardRouter shardRouter,
+                                  EntityManagerFactory entityManagerFactory, Map<String, DataSource> shards) {
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.entityManagerFactory = entityManagerFactory;
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isInitializeSchema()) {
+            return;
+        }
+        shards.forEach((shard, dataSource) -> {
+            if (!hasEventsTable(shard, dataSource)) {
+                shardRouter.runOnShard(shard, () ->
+                        entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true));
+                logger.info("Created schema on shard '{}'", shard);
+            }
+        });
+    }
+
+    private static boolean hasEventsTable(String shard, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet tables = connection.getMetaData().getTables(null, null, "%", new String[]{"TABLE"})) {
+            while (tables.next()) {
+                if ("events".equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to inspect schema of shard '" + shard + "'", e);
+        }
+    }
+}
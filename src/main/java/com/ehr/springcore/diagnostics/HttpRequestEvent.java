@@ -0,0 +1,44 @@
+package com.ehr.springcore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning a request through the API key filter and everything after it. For
+ * streamed responses it ends when the response is handed off to an async thread.
+ */
+@Name("com.ehr.HttpRequest")
+@Label("HTTP Request")
+@Category({"EHR", "HTTP"})
+@Description("Request handled behind the API key filter")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Path")
+    private String path;
+
+    @Label("Status")
+    private int status;
+
+    @Label("Authenticated")
+    @Description("Whether a valid API key was required and presented")
+    private boolean authenticated;
+
+    public void finish(String method, String path, int status, boolean authenticated) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.path = path;
+            this.status = status;
+            this.authenticated = authenticated;
+            commit();
+        }
+    }
+}
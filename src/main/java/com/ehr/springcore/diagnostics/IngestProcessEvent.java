@@ -0,0 +1,40 @@
+package com.ehr.springcore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning {@code IngestionService} processing of one event or metric: payload
+ * logging, persistence, sketches, aggregation and the hot tier.
+ */
+@Name("com.ehr.IngestProcess")
+@Label("Ingest Processing")
+@Category({"EHR", "Ingestion"})
+@Description("Ingestion service processing of one event or metric")
+@StackTrace(false)
+public class IngestProcessEvent extends Event {
+
+    @Label("Type")
+    private String type;
+
+    @Label("Name")
+    private String name;
+
+    @Label("Aggregated")
+    @Description("Metric folded into an in-memory aggregate instead of written")
+    private boolean aggregated;
+
+    public void finish(String type, String name, boolean aggregated) {
+        end();
+        if (shouldCommit()) {
+            this.type = type;
+            this.name = name;
+            this.aggregated = aggregated;
+            commit();
+        }
+    }
+}
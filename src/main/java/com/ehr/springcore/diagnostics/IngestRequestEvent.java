@@ -0,0 +1,39 @@
+package com.ehr.springcore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning an ingestion controller method, after the request body was bound
+ * and validated.
+ */
+@Name("com.ehr.IngestRequest")
+@Label("Ingest Request")
+@Category({"EHR", "Ingestion"})
+@Description("Ingestion endpoint handler, excluding body binding")
+@StackTrace(false)
+public class IngestRequestEvent extends Event {
+
+    @Label("Type")
+    private String type;
+
+    @Label("Name")
+    private String name;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    public void finish(String type, String name, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.type = type;
+            this.name = name;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.ehr.springcore.diagnostics;
+
+import com.ehr.springcore.config.JfrProperties;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Flight Recorder control at {@code /actuator/jfr}, protected by the API key.
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} lists the recordings</li>
+ *   <li>{@code POST /actuator/jfr/{name}} starts one, optionally with {@code profile} and
+ *       {@code duration} in the JSON body</li>
+ *   <li>{@code GET /actuator/jfr/{name}} downloads a dump of it as a {@code .jfr} file</li>
+ *   <li>{@code DELETE /actuator/jfr/{name}} stops and discards it</li>
+ * </ul>
+ * Recordings keep at most {@code max-age} and {@code max-size} of data on disk. With
+ * {@code diagnostics.jfr.continuous}, a recording named {@value #CONTINUOUS} runs from
+ * startup, so the data around a latency spike can be dumped after the fact.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@ConditionalOnAvailableEndpoint(endpoint = JfrEndpoint.class)
+public class JfrEndpoint implements ApplicationRunner {
+
+    public static final String CONTINUOUS = "continuous";
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrEndpoint.class);
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final JfrProperties properties;
+    private final Map<String, ManagedRecording> recordings = new LinkedHashMap<>();
+
+    public JfrEndpoint(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isContinuous()) {
+            start(CONTINUOUS, null, null);
+        }
+    }
+
+    @ReadOperation
+    public synchronized Map<String, RecordingDescriptor> recordings() {
+        Map<String, RecordingDescriptor> descriptors = new LinkedHashMap<>();
+        recordings.forEach((name, managed) -> descriptors.put(name, managed.describe()));
+        return descriptors;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingDescriptor> start(@Selector String name,
+                                                                       @Nullable String profile,
+                                                                       @Nullable Duration duration) {
+        if (!NAME.matcher(name).matches() || (duration != null && (duration.isNegative() || duration.isZero()))) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (recordings.containsKey(name) || recordings.size() >= properties.getMaxRecordings()) {
+            return new WebEndpointResponse<>(409);
+        }
+        String preset = profile != null ? profile : properties.getProfile();
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(preset);
+        } catch (IOException | ParseException e) {
+            logger.warn("Unknown JFR profile '{}': {}", preset, e.getMessage());
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName("ehr-" + name);
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        if (duration != null) {
+            recording.setDuration(duration);
+        }
+        recording.start();
+        ManagedRecording managed = new ManagedRecording(recording, preset);
+        recordings.put(name, managed);
+        logger.info("Started JFR recording '{}' with profile '{}'", name, preset);
+        return new WebEndpointResponse<>(managed.describe());
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector String name) throws IOException {
+        Recording recording;
+        synchronized (this) {
+            ManagedRecording managed = recordings.get(name);
+            if (managed == null) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            recording = managed.recording;
+        }
+        Path file = Files.createTempFile("ehr-" + name + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | IllegalStateException e) {
+            Files.deleteIfExists(file);
+            // Stopped and closed concurrently
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file));
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<RecordingDescriptor> stop(@Selector String name) {
+        ManagedRecording managed = recordings.remove(name);
+        if (managed == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        RecordingDescriptor descriptor = managed.describe();
+        managed.recording.close();
+        logger.info("Stopped JFR recording '{}'", name);
+        return new WebEndpointResponse<>(descriptor);
+    }
+
+    @PreDestroy
+    public synchronized void closeAll() {
+        recordings.values().forEach(managed -> managed.recording.close());
+        recordings.clear();
+    }
+
+    public record RecordingDescriptor(String state, String profile, Instant startTime, Duration duration,
+                                      Duration maxAge, long sizeBytes) {
+    }
+
+    private record ManagedRecording(Recording recording, String profile) {
+
+        RecordingDescriptor describe() {
+            return new RecordingDescriptor(recording.getState().name(), profile, recording.getStartTime(),
+                    recording.getDuration(), recording.getMaxAge(), recording.getSize());
+        }
+    }
+
+    /**
+     * Dump file that is deleted once it has been streamed to the client.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ehr.springcore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning a {@code DatabaseService} write until it has committed. With write
+ * batching this includes the time spent waiting in the shard's queue.
+ */
+@Name("com.ehr.Persist")
+@Label("Persist")
+@Category({"EHR", "Persistence"})
+@Description("Event or metric write, until committed")
+@StackTrace(false)
+public class PersistEvent extends Event {
+
+    @Label("Type")
+    private String type;
+
+    @Label("Name")
+    private String name;
+
+    @Label("Shard")
+    private String shard;
+
+    @Label("Batched")
+    @Description("Committed as part of a write batch")
+    private boolean batched;
+
+    public void finish(String type, String name, String shard, boolean batched) {
+        end();
+        if (shouldCommit()) {
+            this.type = type;
+            this.name = name;
+            this.shard = shard;
+            this.batched = batched;
+            commit();
+        }
+    }
+}
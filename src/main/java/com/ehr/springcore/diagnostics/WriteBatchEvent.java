@@ -0,0 +1,48 @@
+package com.ehr.springcore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the transaction of one write batch on the batcher's writer thread.
+ */
+@Name("com.ehr.WriteBatch")
+@Label("Write Batch")
+@Category({"EHR", "Persistence"})
+@Description("Group commit of queued writes")
+@StackTrace(false)
+public class WriteBatchEvent extends Event {
+
+    @Label("Shard")
+    private String shard;
+
+    @Label("Rows")
+    private int rows;
+
+    @Label("Batch Size Limit")
+    private int batchSizeLimit;
+
+    @Label("Queue Depth")
+    @Description("Writes still queued after the batch committed")
+    private int queueDepth;
+
+    @Label("Succeeded")
+    @Description("False if the batch was rolled back and its writes retried individually")
+    private boolean succeeded;
+
+    public void finish(String shard, int rows, int batchSizeLimit, int queueDepth, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.shard = shard;
+            this.rows = rows;
+            this.batchSizeLimit = batchSizeLimit;
+            this.queueDepth = queueDepth;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
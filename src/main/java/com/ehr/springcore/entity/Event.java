@@ -6,7 +6,11 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_event_name_id", columnList = "event_name_id"),
+        @Index(name = "idx_events_timestamp", columnList = "timestamp, id")
+})
+@EntityListeners(NameDictionaryListener.class)
 public class Event {
 
     @Id
@@ -14,7 +18,13 @@ public class Event {
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "event_name", nullable = false)
+    /**
+     * Event name, stored as an ID into the shared name dictionary.
+     */
+    @Column(name = "event_name_id", nullable = false)
+    private Integer eventNameId;
+
+    @Transient
     private String eventName;
 
     @Column(name = "timestamp", nullable = false)
@@ -59,6 +69,14 @@ public class Event {
         this.id = id;
     }
 
+    public Integer getEventNameId() {
+        return eventNameId;
+    }
+
+    public void setEventNameId(Integer eventNameId) {
+        this.eventNameId = eventNameId;
+    }
+
     public String getEventName() {
         return eventName;
     }
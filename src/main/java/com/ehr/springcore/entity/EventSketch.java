@@ -0,0 +1,119 @@
+package com.ehr.springcore.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A serialized sketch summarising one event property for one event name and time bucket.
+ * Rows are merged in place as new data is flushed, so each key holds exactly one sketch.
+ */
+@Entity
+@Table(name = "event_sketches",
+       uniqueConstraints = @UniqueConstraint(name = "uk_event_sketches_key",
+               columnNames = {"event_name_id", "property_key", "kind", "bucket_start"}))
+public class EventSketch {
+
+    public enum Kind {
+        DISTINCT,
+        TOP_K
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "event_name_id", nullable = false)
+    private Integer eventNameId;
+
+    @Column(name = "property_key", nullable = false)
+    private String propertyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "sketch", nullable = false, length = 1_048_576)
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    // Constructors
+    public EventSketch() {
+    }
+
+    public EventSketch(Integer eventNameId, String propertyKey, Kind kind, Instant bucketStart, byte[] sketch) {
+        this.eventNameId = eventNameId;
+        this.propertyKey = propertyKey;
+        this.kind = kind;
+        this.bucketStart = bucketStart;
+        this.sketch = sketch;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getEventNameId() {
+        return eventNameId;
+    }
+
+    public void setEventNameId(Integer eventNameId) {
+        this.eventNameId = eventNameId;
+    }
+
+    public String getPropertyKey() {
+        return propertyKey;
+    }
+
+    public void setPropertyKey(String propertyKey) {
+        this.propertyKey = propertyKey;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
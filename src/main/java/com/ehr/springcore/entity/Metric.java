@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "metrics")
+@Table(name = "metrics", indexes = {
+        @Index(name = "idx_metrics_metric_name_id_timestamp", columnList = "metric_name_id, timestamp"),
+        @Index(name = "idx_metrics_timestamp", columnList = "timestamp, id")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_metrics_aggregate_key", columnNames = "aggregate_key"))
+@EntityListeners(NameDictionaryListener.class)
 public class Metric {
 
     @Id
@@ -12,7 +16,13 @@ public class Metric {
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "metric_name", nullable = false)
+    /**
+     * Metric name, stored as an ID into the shared name dictionary.
+     */
+    @Column(name = "metric_name_id", nullable = false)
+    private Integer metricNameId;
+
+    @Transient
     private String metricName;
 
     @Column(name = "metric_value", nullable = false)
@@ -24,6 +34,30 @@ public class Metric {
     @Column(name = "unit")
     private String unit;
 
+    /**
+     * Set only on rows written by server-side aggregation, where one row summarizes all
+     * values of an interval and {@code value} holds their mean. Null on raw rows.
+     */
+    @Column(name = "sample_count")
+    private Long sampleCount;
+
+    @Column(name = "sum_value")
+    private Double sumValue;
+
+    @Column(name = "min_value")
+    private Double minValue;
+
+    @Column(name = "max_value")
+    private Double maxValue;
+
+    /**
+     * Metric name ID, interval start and unit of an aggregate row, see {@link #aggregateKey}.
+     * Unique, so that instances flushing the same interval at once cannot create two rows
+     * for it. Null on raw rows.
+     */
+    @Column(name = "aggregate_key")
+    private String aggregateKey;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -52,6 +86,14 @@ public class Metric {
         this.id = id;
     }
 
+    public Integer getMetricNameId() {
+        return metricNameId;
+    }
+
+    public void setMetricNameId(Integer metricNameId) {
+        this.metricNameId = metricNameId;
+    }
+
     public String getMetricName() {
         return metricName;
     }
@@ -84,6 +126,54 @@ public class Metric {
         this.unit = unit;
     }
 
+    public Long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(Long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public Double getSumValue() {
+        return sumValue;
+    }
+
+    public void setSumValue(Double sumValue) {
+        this.sumValue = sumValue;
+    }
+
+    public Double getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(Double minValue) {
+        this.minValue = minValue;
+    }
+
+    public Double getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(Double maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    public String getAggregateKey() {
+        return aggregateKey;
+    }
+
+    public void setAggregateKey(String aggregateKey) {
+        this.aggregateKey = aggregateKey;
+    }
+
+    /**
+     * Key of the aggregate row of a metric interval.
+     */
+    public static String aggregateKey(int metricNameId, Instant intervalStart, String unit) {
+        String key = metricNameId + ":" + intervalStart.toEpochMilli();
+        return unit == null ? key : key + ":" + unit;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
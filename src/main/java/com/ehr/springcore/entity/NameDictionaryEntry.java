@@ -0,0 +1,63 @@
+package com.ehr.springcore.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A single entry in the shared name dictionary. Event and metric rows store the
+ * small integer ID of their name instead of repeating the full string.
+ */
+@Entity
+@Table(name = "name_dictionary",
+       uniqueConstraints = @UniqueConstraint(name = "uk_name_dictionary_name", columnNames = "name"))
+public class NameDictionaryEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+
+    // Constructors
+    public NameDictionaryEntry() {
+    }
+
+    public NameDictionaryEntry(String name) {
+        this.name = name;
+    }
+
+    // Getters and setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
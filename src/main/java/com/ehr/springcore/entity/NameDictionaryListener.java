@@ -0,0 +1,32 @@
+package com.ehr.springcore.entity;
+
+import com.ehr.springcore.service.NameDictionaryService;
+import jakarta.persistence.PostLoad;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Fills in the transient name of loaded {@link Event} and {@link Metric} rows from the
+ * dictionary ID that is actually stored in the row. Writers resolve the ID themselves
+ * before persisting, outside the write transaction.
+ * <p>
+ * Instantiated by Hibernate through Spring's bean container. The dictionary is looked
+ * up lazily because the listener is created while the entity manager factory is still
+ * being built.
+ */
+public class NameDictionaryListener {
+
+    private final ObjectProvider<NameDictionaryService> nameDictionary;
+
+    public NameDictionaryListener(ObjectProvider<NameDictionaryService> nameDictionary) {
+        this.nameDictionary = nameDictionary;
+    }
+
+    @PostLoad
+    public void resolveName(Object entity) {
+        if (entity instanceof Event event) {
+            event.setEventName(nameDictionary.getObject().nameFor(event.getEventNameId()));
+        } else if (entity instanceof Metric metric) {
+            metric.setMetricName(nameDictionary.getObject().nameFor(metric.getMetricNameId()));
+        }
+    }
+}
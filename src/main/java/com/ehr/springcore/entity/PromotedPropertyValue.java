@@ -0,0 +1,171 @@
+package com.ehr.springcore.entity;
+
+import com.ehr.springcore.config.EventSchemaProperties.PropertyType;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Typed copy of a promoted event property. Exactly one of the value columns is set,
+ * according to the type declared in the catalog; each value column is indexed together
+ * with the event name and key, so filters on it can use an index range scan.
+ */
+@Entity
+@Table(name = "event_promoted_properties", indexes = {
+        @Index(name = "idx_promoted_long", columnList = "event_name_id, property_key, long_value"),
+        @Index(name = "idx_promoted_double", columnList = "event_name_id, property_key, double_value"),
+        @Index(name = "idx_promoted_string", columnList = "event_name_id, property_key, string_value"),
+        @Index(name = "idx_promoted_timestamp", columnList = "event_name_id, property_key, timestamp_value"),
+        @Index(name = "idx_promoted_event_id", columnList = "event_id")
+})
+public class PromotedPropertyValue {
+
+    public static final int MAX_STRING_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "event_name_id", nullable = false)
+    private Integer eventNameId;
+
+    @Column(name = "property_key", nullable = false)
+    private String propertyKey;
+
+    /**
+     * Event timestamp, so that time-bounded filters do not need to visit the events table.
+     */
+    @Column(name = "timestamp", nullable = false)
+    private Instant timestamp;
+
+    @Column(name = "long_value")
+    private Long longValue;
+
+    @Column(name = "double_value")
+    private Double doubleValue;
+
+    @Column(name = "boolean_value")
+    private Boolean booleanValue;
+
+    @Column(name = "string_value", length = MAX_STRING_LENGTH)
+    private String stringValue;
+
+    @Column(name = "timestamp_value")
+    private Instant timestampValue;
+
+    // Constructors
+    public PromotedPropertyValue() {
+    }
+
+    public PromotedPropertyValue(Long eventId, Integer eventNameId, String propertyKey, Instant timestamp,
+                                 PropertyType type, Object value) {
+        this.eventId = eventId;
+        this.eventNameId = eventNameId;
+        this.propertyKey = propertyKey;
+        this.timestamp = timestamp;
+        switch (type) {
+            case LONG -> this.longValue = (Long) value;
+            case DOUBLE -> this.doubleValue = (Double) value;
+            case BOOLEAN -> this.booleanValue = (Boolean) value;
+            case STRING -> this.stringValue = (String) value;
+            case TIMESTAMP -> this.timestampValue = (Instant) value;
+        }
+    }
+
+    /**
+     * Name of the entity attribute holding values of the given type.
+     */
+    public static String valueAttribute(PropertyType type) {
+        return switch (type) {
+            case LONG -> "longValue";
+            case DOUBLE -> "doubleValue";
+            case BOOLEAN -> "booleanValue";
+            case STRING -> "stringValue";
+            case TIMESTAMP -> "timestampValue";
+        };
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Integer getEventNameId() {
+        return eventNameId;
+    }
+
+    public void setEventNameId(Integer eventNameId) {
+        this.eventNameId = eventNameId;
+    }
+
+    public String getPropertyKey() {
+        return propertyKey;
+    }
+
+    public void setPropertyKey(String propertyKey) {
+        this.propertyKey = propertyKey;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Long getLongValue() {
+        return longValue;
+    }
+
+    public void setLongValue(Long longValue) {
+        this.longValue = longValue;
+    }
+
+    public Double getDoubleValue() {
+        return doubleValue;
+    }
+
+    public void setDoubleValue(Double doubleValue) {
+        this.doubleValue = doubleValue;
+    }
+
+    public Boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    public void setBooleanValue(Boolean booleanValue) {
+        this.booleanValue = booleanValue;
+    }
+
+    public String getStringValue() {
+        return stringValue;
+    }
+
+    public void setStringValue(String stringValue) {
+        this.stringValue = stringValue;
+    }
+
+    public Instant getTimestampValue() {
+        return timestampValue;
+    }
+
+    public void setTimestampValue(Instant timestampValue) {
+        this.timestampValue = timestampValue;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ehr.springcore.model;
+
+import java.time.Instant;
+
+public class DistinctCountResult {
+
+    private String eventName;
+    private String property;
+    private Instant start;
+    private Instant end;
+    private long distinctCount;
+
+    public DistinctCountResult() {
+    }
+
+    public DistinctCountResult(String eventName, String property, Instant start, Instant end, long distinctCount) {
+        this.eventName = eventName;
+        this.property = property;
+        this.start = start;
+        this.end = end;
+        this.distinctCount = distinctCount;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public void setEventName(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public void setProperty(String property) {
+        this.property = property;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public Instant getEnd() {
+        return end;
+    }
+
+    public void setEnd(Instant end) {
+        this.end = end;
+    }
+
+    public long getDistinctCount() {
+        return distinctCount;
+    }
+
+    public void setDistinctCount(long distinctCount) {
+        this.distinctCount = distinctCount;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ehr.springcore.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class EventRecord {
+
+    private Long id;
+    private String eventName;
+    private Instant timestamp;
+    private Map<String, String> properties;
+
+    public EventRecord() {
+    }
+
+    public EventRecord(Long id, String eventName, Instant timestamp, Map<String, String> properties) {
+        this.id = id;
+        this.eventName = eventName;
+        this.timestamp = timestamp;
+        this.properties = properties;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public void setEventName(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Map<String, String> properties) {
+        this.properties = properties;
+    }
+}
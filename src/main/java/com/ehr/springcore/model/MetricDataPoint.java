@@ -0,0 +1,97 @@
+package com.ehr.springcore.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+public class MetricDataPoint {
+
+    private String metricName;
+    private Double value;
+    private Instant timestamp;
+    private String unit;
+
+    // Only present on points written by server-side aggregation
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long count;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double sum;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double min;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double max;
+
+    public MetricDataPoint() {
+    }
+
+    public MetricDataPoint(String metricName, Double value, Instant timestamp, String unit) {
+        this.metricName = metricName;
+        this.value = value;
+        this.timestamp = timestamp;
+        this.unit = unit;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public void setMetricName(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public Double getValue() {
+        return value;
+    }
+
+    public void setValue(Double value) {
+        this.value = value;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Double getSum() {
+        return sum;
+    }
+
+    public void setSum(Double sum) {
+        this.sum = sum;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public void setMin(Double min) {
+        this.min = min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public void setMax(Double max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ehr.springcore.model;
+
+import java.time.Instant;
+
+public class PayloadEntry {
+
+    private long sequence;
+    private String type;
+    private String name;
+    private Instant storedAt;
+    private String payload;
+
+    public PayloadEntry() {
+    }
+
+    public PayloadEntry(long sequence, String type, String name, Instant storedAt, String payload) {
+        this.sequence = sequence;
+        this.type = type;
+        this.name = name;
+        this.storedAt = storedAt;
+        this.payload = payload;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getStoredAt() {
+        return storedAt;
+    }
+
+    public void setStoredAt(Instant storedAt) {
+        this.storedAt = storedAt;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ehr.springcore.model;
+
+import java.util.List;
+
+public class PayloadPage {
+
+    private List<PayloadEntry> entries;
+    private long nextCursor;
+    private long missed;
+
+    public PayloadPage() {
+    }
+
+    public PayloadPage(List<PayloadEntry> entries, long nextCursor, long missed) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+        this.missed = missed;
+    }
+
+    public List<PayloadEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<PayloadEntry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Cursor to pass to the next read; entries before it have been seen or skipped.
+     */
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Entries that were overwritten in the ring buffer before this read reached them.
+     */
+    public long getMissed() {
+        return missed;
+    }
+
+    public void setMissed(long missed) {
+        this.missed = missed;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ehr.springcore.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public class TopValuesResult {
+
+    private String eventName;
+    private String property;
+    private Instant start;
+    private Instant end;
+    private List<ValueCount> values;
+
+    public TopValuesResult() {
+    }
+
+    public TopValuesResult(String eventName, String property, Instant start, Instant end, List<ValueCount> values) {
+        this.eventName = eventName;
+        this.property = property;
+        this.start = start;
+        this.end = end;
+        this.values = values;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public void setEventName(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public void setProperty(String property) {
+        this.property = property;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public Instant getEnd() {
+        return end;
+    }
+
+    public void setEnd(Instant end) {
+        this.end = end;
+    }
+
+    public List<ValueCount> getValues() {
+        return values;
+    }
+
+    public void setValues(List<ValueCount> values) {
+        this.values = values;
+    }
+
+    /**
+     * An estimated count; the true count lies in {@code [count - maxError, count]}.
+     */
+    public static class ValueCount {
+
+        private String value;
+        private long count;
+        private long maxError;
+
+        public ValueCount() {
+        }
+
+        public ValueCount(String value, long count, long maxError) {
+            this.value = value;
+            this.count = count;
+            this.maxError = maxError;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public long getMaxError() {
+            return maxError;
+        }
+
+        public void setMaxError(long maxError) {
+            this.maxError = maxError;
+        }
+    }
+}
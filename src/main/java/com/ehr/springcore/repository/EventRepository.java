@@ -8,9 +8,9 @@ import java.time.Instant;
 import java.util.List;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
     
-    List<Event> findByEventName(String eventName);
+    List<Event> findByEventNameId(Integer eventNameId);
     
     List<Event> findByTimestampBetween(Instant start, Instant end);
 }
@@ -0,0 +1,60 @@
+package com.ehr.springcore.repository;
+
+import com.ehr.springcore.config.EventSchemaProperties.PropertyType;
+import com.ehr.springcore.entity.Event;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Name-based queries that resolve the name through the name dictionary before
+ * hitting the database.
+ */
+public interface EventRepositoryCustom {
+
+    /**
+     * Comparison applied to a promoted property's typed column.
+     */
+    enum Comparison {
+        EQ("="),
+        NE("<>"),
+        GT(">"),
+        GTE(">="),
+        LT("<"),
+        LTE("<=");
+
+        private final String operator;
+
+        Comparison(String operator) {
+            this.operator = operator;
+        }
+
+        public String getOperator() {
+            return operator;
+        }
+
+        public static Comparison parse(String value) {
+            for (Comparison comparison : values()) {
+                if (comparison.name().equalsIgnoreCase(value)) {
+                    return comparison;
+                }
+            }
+            throw new IllegalArgumentException("Unknown comparison '" + value + "', expected one of eq, ne, gt, gte, lt, lte");
+        }
+    }
+
+    List<Event> findByEventName(String eventName);
+
+    /**
+     * Rows with the given name and {@code fromInclusive <= timestamp < toExclusive}, ordered by timestamp.
+     */
+    List<Event> findByEventNameInRange(String eventName, Instant fromInclusive, Instant toExclusive);
+
+    /**
+     * Up to {@code limit} rows with the given name and {@code fromInclusive <= timestamp < toExclusive}
+     * whose promoted property compares to {@code value}, ordered by timestamp. The filter runs on
+     * the property's typed column.
+     */
+    List<Event> findByPromotedProperty(String eventName, String key, PropertyType type, Comparison comparison,
+                                       Object value, Instant fromInclusive, Instant toExclusive, int limit);
+}
@@ -0,0 +1,67 @@
+package com.ehr.springcore.repository;
+
+import com.ehr.springcore.config.EventSchemaProperties.PropertyType;
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.entity.PromotedPropertyValue;
+import com.ehr.springcore.service.NameDictionaryService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NameDictionaryService nameDictionary;
+
+    public EventRepositoryCustomImpl(NameDictionaryService nameDictionary) {
+        this.nameDictionary = nameDictionary;
+    }
+
+    @Override
+    public List<Event> findByEventName(String eventName) {
+        return nameDictionary.findId(eventName)
+                .map(id -> entityManager
+                        .createQuery("SELECT x FROM Event x WHERE x.eventNameId = :id", Event.class)
+                        .setParameter("id", id)
+                        .getResultList())
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public List<Event> findByEventNameInRange(String eventName, Instant fromInclusive, Instant toExclusive) {
+        return nameDictionary.findId(eventName)
+                .map(id -> entityManager
+                        .createQuery("SELECT x FROM Event x WHERE x.eventNameId = :id"
+                                + " AND x.timestamp >= :from AND x.timestamp < :to ORDER BY x.timestamp", Event.class)
+                        .setParameter("id", id)
+                        .setParameter("from", fromInclusive)
+                        .setParameter("to", toExclusive)
+                        .getResultList())
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public List<Event> findByPromotedProperty(String eventName, String key, PropertyType type, Comparison comparison,
+                                              Object value, Instant fromInclusive, Instant toExclusive, int limit) {
+        // Attribute and operator come from enums, never from user input
+        String predicate = "p." + PromotedPropertyValue.valueAttribute(type) + " " + comparison.getOperator() + " :value";
+        return nameDictionary.findId(eventName)
+                .map(id -> entityManager
+                        .createQuery("SELECT e FROM PromotedPropertyValue p JOIN Event e ON e.id = p.eventId"
+                                + " WHERE p.eventNameId = :id AND p.propertyKey = :key AND " + predicate
+                                + " AND p.timestamp >= :from AND p.timestamp < :to ORDER BY p.timestamp", Event.class)
+                        .setParameter("id", id)
+                        .setParameter("key", key)
+                        .setParameter("value", value)
+                        .setParameter("from", fromInclusive)
+                        .setParameter("to", toExclusive)
+                        .setMaxResults(limit)
+                        .getResultList())
+                .orElse(Collections.emptyList());
+    }
+}
@@ -0,0 +1,22 @@
+package com.ehr.springcore.repository;
+
+import com.ehr.springcore.entity.EventSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventSketchRepository extends JpaRepository<EventSketch, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<EventSketch> findByEventNameIdAndPropertyKeyAndKindAndBucketStart(
+            Integer eventNameId, String propertyKey, EventSketch.Kind kind, Instant bucketStart);
+
+    List<EventSketch> findByEventNameIdAndPropertyKeyAndKindAndBucketStartBetween(
+            Integer eventNameId, String propertyKey, EventSketch.Kind kind, Instant from, Instant to);
+}
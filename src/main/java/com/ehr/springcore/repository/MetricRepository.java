@@ -1,16 +1,26 @@
 package com.ehr.springcore.repository;
 
 import com.ehr.springcore.entity.Metric;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
 
 @Repository
-public interface MetricRepository extends JpaRepository<Metric, Long> {
+public interface MetricRepository extends JpaRepository<Metric, Long>, MetricRepositoryCustom {
     
-    List<Metric> findByMetricName(String metricName);
+    List<Metric> findByMetricNameId(Integer metricNameId);
     
     List<Metric> findByTimestampBetween(Instant start, Instant end);
+
+    /**
+     * Aggregate rows of one metric interval, locked for merging. A null unit matches rows
+     * without a unit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Metric> findByMetricNameIdAndUnitAndTimestampAndSampleCountIsNotNullOrderById(
+            Integer metricNameId, String unit, Instant timestamp);
 }
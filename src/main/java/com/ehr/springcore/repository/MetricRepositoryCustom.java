@@ -0,0 +1,20 @@
+package com.ehr.springcore.repository;
+
+import com.ehr.springcore.entity.Metric;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Name-based queries that resolve the name through the name dictionary before
+ * hitting the database.
+ */
+public interface MetricRepositoryCustom {
+
+    List<Metric> findByMetricName(String metricName);
+
+    /**
+     * Rows with the given name and {@code fromInclusive <= timestamp < toExclusive}, ordered by timestamp.
+     */
+    List<Metric> findByMetricNameInRange(String metricName, Instant fromInclusive, Instant toExclusive);
+}
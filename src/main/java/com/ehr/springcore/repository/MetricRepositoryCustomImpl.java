@@ -0,0 +1,45 @@
+package com.ehr.springcore.repository;
+
+import com.ehr.springcore.entity.Metric;
+import com.ehr.springcore.service.NameDictionaryService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+public class MetricRepositoryCustomImpl implements MetricRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NameDictionaryService nameDictionary;
+
+    public MetricRepositoryCustomImpl(NameDictionaryService nameDictionary) {
+        this.nameDictionary = nameDictionary;
+    }
+
+    @Override
+    public List<Metric> findByMetricName(String metricName) {
+        return nameDictionary.findId(metricName)
+                .map(id -> entityManager
+                        .createQuery("SELECT x FROM Metric x WHERE x.metricNameId = :id", Metric.class)
+                        .setParameter("id", id)
+                        .getResultList())
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public List<Metric> findByMetricNameInRange(String metricName, Instant fromInclusive, Instant toExclusive) {
+        return nameDictionary.findId(metricName)
+                .map(id -> entityManager
+                        .createQuery("SELECT x FROM Metric x WHERE x.metricNameId = :id"
+                                + " AND x.timestamp >= :from AND x.timestamp < :to ORDER BY x.timestamp", Metric.class)
+                        .setParameter("id", id)
+                        .setParameter("from", fromInclusive)
+                        .setParameter("to", toExclusive)
+                        .getResultList())
+                .orElse(Collections.emptyList());
+    }
+}
@@ -0,0 +1,13 @@
+package com.ehr.springcore.repository;
+
+import com.ehr.springcore.entity.NameDictionaryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface NameDictionaryRepository extends JpaRepository<NameDictionaryEntry, Integer> {
+
+    Optional<NameDictionaryEntry> findByName(String name);
+}
@@ -0,0 +1,13 @@
+package com.ehr.springcore.repository;
+
+import com.ehr.springcore.entity.PromotedPropertyValue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PromotedPropertyValueRepository extends JpaRepository<PromotedPropertyValue, Long> {
+
+    List<PromotedPropertyValue> findByEventId(Long eventId);
+}
@@ -1,19 +1,33 @@
 package com.ehr.springcore.security;
 
 import com.ehr.springcore.config.SecurityProperties;
+import com.ehr.springcore.diagnostics.HttpRequestEvent;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class ApiKeyFilter extends OncePerRequestFilter {
 
     private static final String API_KEY_HEADER = "X-API-Key";
+    private static final String ACTUATOR_PATH = "/actuator";
+    // Actuator endpoints need a key unless listed here; recordings (/actuator/jfr) expose request details
+    private static final List<String> PUBLIC_ACTUATOR_PATHS = List.of("/actuator/health", "/actuator/metrics");
+    // Match on the path Spring routes by: decoded, without ";" parameters
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    static {
+        PATH_HELPER.setUrlDecode(true);
+        PATH_HELPER.setRemoveSemicolonContent(true);
+    }
+
     private final SecurityProperties securityProperties;
 
     public ApiKeyFilter(SecurityProperties securityProperties) {
@@ -25,26 +39,46 @@ public class ApiKeyFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         
         String path = request.getRequestURI();
-        
-        // Skip authentication for actuator and swagger endpoints
-        if (path.startsWith("/actuator") || path.startsWith("/swagger-ui") || 
-            path.startsWith("/api-docs") || path.startsWith("/v3/api-docs")) {
+        String routedPath = routedPath(request);
+        HttpRequestEvent jfrEvent = new HttpRequestEvent();
+        jfrEvent.begin();
+        boolean authenticated = false;
+        try {
+            // Check API key for /api/* and non-public actuator endpoints; swagger endpoints are open
+            if (requiresApiKey(routedPath)) {
+                String apiKey = request.getHeader(API_KEY_HEADER);
+                
+                if (apiKey == null || !apiKey.equals(securityProperties.getApiKey())) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.setContentType("application/json");
+                    response.getWriter().write("{\"error\":\"Invalid or missing API key\"}");
+                    return;
+                }
+                authenticated = true;
+            }
+
             filterChain.doFilter(request, response);
-            return;
+        } finally {
+            jfrEvent.finish(request.getMethod(), path, response.getStatus(), authenticated);
         }
+    }
 
-        // Check API key for /api/* endpoints
-        if (path.startsWith("/api/")) {
-            String apiKey = request.getHeader(API_KEY_HEADER);
-            
-            if (apiKey == null || !apiKey.equals(securityProperties.getApiKey())) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\":\"Invalid or missing API key\"}");
-                return;
-            }
+    static boolean requiresApiKey(String routedPath) {
+        if (routedPath.startsWith("/api/")) {
+            return true;
+        }
+        if (!isUnder(routedPath, ACTUATOR_PATH) || routedPath.equals(ACTUATOR_PATH)) {
+            return false;
         }
+        return PUBLIC_ACTUATOR_PATHS.stream().noneMatch(publicPath -> isUnder(routedPath, publicPath));
+    }
+
+    private static String routedPath(HttpServletRequest request) {
+        String path = PATH_HELPER.getPathWithinApplication(request).replaceAll("/{2,}", "/");
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
 
-        filterChain.doFilter(request, response);
+    private static boolean isUnder(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix + "/");
     }
 }
@@ -0,0 +1,338 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.WriteBatchingProperties;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.diagnostics.WriteBatchEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for {@link DatabaseService} writes. With {@code persistence.batching.enabled},
+ * each shard gets a queue and a writer thread that executes queued writes together in one
+ * transaction, so concurrent ingests share a commit. Callers block until their write has
+ * committed and get its result or exception, as with a direct write.
+ * <p>
+ * Each queue's {@link BatchSizeController} sizes batches and the time a partial batch
+ * waits for more writes, aiming at the configured p99 ingest-to-commit latency: under
+ * light load writes commit almost alone, under heavy load batches grow. If a batch fails,
+ * its writes are retried one per transaction so that one bad write does not fail the rest;
+ * a write may therefore run more than once and must create its entities inside the supplier.
+ * <p>
+ * Every queued write is completed one way or another: writes still queued when a writer
+ * thread stops are failed, and a write that has not been taken into a batch within
+ * {@code write-timeout} is withdrawn from its queue and fails with 503. A 503 therefore
+ * always means the write was not stored, so clients can retry it. A write already in a
+ * running batch cannot be withdrawn; its caller waits for the batch's outcome instead.
+ */
+@Service
+public class AdaptiveWriteBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveWriteBatcher.class);
+
+    private final WriteBatchingProperties properties;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate batchTransaction;
+    private final Map<String, ShardQueue> queues = new LinkedHashMap<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public AdaptiveWriteBatcher(WriteBatchingProperties properties, ShardRouter shardRouter,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.getMaxBatchSize() < 1 || properties.getQueueCapacity() < 1) {
+            throw new IllegalArgumentException("persistence.batching max-batch-size and queue-capacity must be positive");
+        }
+        for (String shard : shardRouter.getShards()) {
+            ShardQueue queue = new ShardQueue(shard, meterRegistry);
+            queues.put(shard, queue);
+            Thread writer = new Thread(queue::run, "write-batcher-" + shard);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+        logger.info("Adaptive write batching enabled for shards {}", queues.keySet());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues a write for the given shard and waits until the batch containing it has
+     * committed. The write runs inside the batch's transaction on the writer thread.
+     */
+    public <T> T submit(String shard, Supplier<T> write) {
+        PendingWrite<T> pending = new PendingWrite<>(write);
+        ShardQueue queue = queues.get(shard);
+        try {
+            if (!running || !queue.queue.offer(pending, properties.getTargetLatency().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write queue is full");
+            }
+            try {
+                return pending.future.get(properties.getWriteTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (pending.cancel()) {
+                    queue.queue.remove(pending);
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Write did not start within " + properties.getWriteTimeout());
+                }
+                // Its batch is running and may commit, so a 503 now could mean the write was stored
+                return pending.future.get();
+            }
+        } catch (InterruptedException e) {
+            if (pending.cancel()) {
+                queue.queue.remove(pending);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for write to commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getBatchSize(String shard) {
+        return queues.get(shard).controller.getBatchSize();
+    }
+
+    /**
+     * Stops accepting writes and waits for the queued ones to commit.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Writers that did not finish in time leave their queues to be failed here
+        queues.values().forEach(queue -> queue.failQueued(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Shutting down")));
+    }
+
+    private enum State {
+        QUEUED,
+        CLAIMED,
+        CANCELLED
+    }
+
+    private static final class PendingWrite<T> {
+
+        private final Supplier<T> write;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+        private final long enqueuedAt = System.nanoTime();
+        private T result;
+
+        PendingWrite(Supplier<T> write) {
+            this.write = write;
+        }
+
+        /**
+         * Takes the write into a batch, unless its caller has already given up on it.
+         */
+        boolean claim() {
+            return state.compareAndSet(State.QUEUED, State.CLAIMED);
+        }
+
+        /**
+         * Withdraws the write, unless a batch has already taken it.
+         */
+        boolean cancel() {
+            return state.compareAndSet(State.QUEUED, State.CANCELLED);
+        }
+
+        void execute() {
+            result = write.get();
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+
+        void fail(Throwable cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    private final class ShardQueue {
+
+        private final String shard;
+        private final BlockingQueue<PendingWrite<?>> queue;
+        private final BatchSizeController controller;
+        private final DistributionSummary batchRows;
+        private final Timer writeLatency;
+
+        ShardQueue(String shard, MeterRegistry meterRegistry) {
+            this.shard = shard;
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            this.controller = new BatchSizeController(properties.getTargetLatency().toNanos(),
+                    properties.getInitialBatchSize(), properties.getMaxBatchSize(), properties.getMaxLinger().toNanos());
+            Gauge.builder("ehr.persistence.batch.size", controller, BatchSizeController::getBatchSize)
+                    .description("Current maximum number of writes committed together")
+                    .tag("shard", shard)
+                    .register(meterRegistry);
+            Gauge.builder("ehr.persistence.batch.linger", controller, c -> c.getLingerNanos() / 1_000_000.0)
+                    .description("Current time in milliseconds a partial batch waits for more writes")
+                    .tag("shard", shard)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("ehr.persistence.queue.depth", queue, BlockingQueue::size)
+                    .description("Writes waiting for a batch")
+                    .tag("shard", shard)
+                    .register(meterRegistry);
+            this.batchRows = DistributionSummary.builder("ehr.persistence.batch.rows")
+                    .description("Writes per committed batch")
+                    .tag("shard", shard)
+                    .register(meterRegistry);
+            this.writeLatency = Timer.builder("ehr.persistence.write.latency")
+                    .description("Time from queueing a write to its commit")
+                    .tag("shard", shard)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+        }
+
+        void run() {
+            long adjustIntervalNanos = properties.getAdjustInterval().toNanos();
+            long nextAdjust = System.nanoTime() + adjustIntervalNanos;
+            List<PendingWrite<?>> batch = new ArrayList<>();
+            Throwable stoppedBy = null;
+            try {
+                while (running || !queue.isEmpty()) {
+                    collect(batch);
+                    batch.removeIf(write -> !write.claim());
+                    if (!batch.isEmpty()) {
+                        execute(batch);
+                        batch.clear();
+                    }
+                    if (System.nanoTime() >= nextAdjust) {
+                        controller.adjust();
+                        nextAdjust = System.nanoTime() + adjustIntervalNanos;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stoppedBy = e;
+            } catch (Throwable e) {
+                logger.error("Write batcher for shard '{}' stopped", shard, e);
+                stoppedBy = e;
+            } finally {
+                if (stoppedBy != null || !batch.isEmpty() || !queue.isEmpty()) {
+                    ResponseStatusException failure = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Write batcher for shard '" + shard + "' stopped", stoppedBy);
+                    batch.forEach(write -> write.fail(failure));
+                    failQueued(failure);
+                }
+            }
+        }
+
+        void failQueued(Throwable cause) {
+            List<PendingWrite<?>> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            remaining.forEach(write -> write.fail(cause));
+        }
+
+        private void collect(List<PendingWrite<?>> batch) throws InterruptedException {
+            PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            int limit = controller.getBatchSize();
+            queue.drainTo(batch, limit - batch.size());
+            long deadline = System.nanoTime() + controller.getLingerNanos();
+            while (batch.size() < limit) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                PendingWrite<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+                queue.drainTo(batch, limit - batch.size());
+            }
+        }
+
+        private void execute(List<PendingWrite<?>> batch) {
+            WriteBatchEvent jfrEvent = new WriteBatchEvent();
+            jfrEvent.begin();
+            long start = System.nanoTime();
+            try {
+                shardRouter.runOnShard(shard, () -> batchTransaction.executeWithoutResult(status ->
+                        batch.forEach(PendingWrite::execute)));
+            } catch (Throwable e) {
+                jfrEvent.finish(shard, batch.size(), controller.getBatchSize(), queue.size(), false);
+                if (batch.size() > 1) {
+                    logger.debug("Batch of {} writes failed on shard '{}', retrying individually: {}",
+                            batch.size(), shard, e.getMessage());
+                }
+                executeIndividually(batch);
+                return;
+            }
+            long committed = System.nanoTime();
+            jfrEvent.finish(shard, batch.size(), controller.getBatchSize(), queue.size(), true);
+            batch.forEach(PendingWrite::complete);
+            record(batch, committed - start, committed);
+        }
+
+        private void executeIndividually(List<PendingWrite<?>> batch) {
+            for (PendingWrite<?> write : batch) {
+                long start = System.nanoTime();
+                try {
+                    shardRouter.runOnShard(shard, () -> batchTransaction.executeWithoutResult(status -> write.execute()));
+                    write.complete();
+                } catch (Throwable e) {
+                    write.fail(e);
+                }
+                long finished = System.nanoTime();
+                record(List.of(write), finished - start, finished);
+            }
+        }
+
+        private void record(List<PendingWrite<?>> batch, long commitNanos, long committedAt) {
+            batchRows.record(batch.size());
+            controller.onBatch(commitNanos, queue.size());
+            for (PendingWrite<?> write : batch) {
+                long latency = committedAt - write.enqueuedAt;
+                controller.onWrite(latency);
+                writeLatency.record(latency, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.alerting.Alert;
+import com.ehr.springcore.alerting.AlertNotifier;
+import com.ehr.springcore.alerting.AlertRule;
+import com.ehr.springcore.config.AlertingProperties;
+import com.ehr.springcore.model.MetricRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates the {@code alerting.rules} on every ingested metric value, as it arrives.
+ * Rules are indexed by metric name, so a value costs one map lookup plus the work of the
+ * rules on its metric; metrics without rules cost only the lookup.
+ * <p>
+ * Alerts are handed to every enabled {@link AlertNotifier} bean on a single notification
+ * thread, through a bounded queue, so a slow notifier never delays ingestion. Alerts that
+ * find the queue full are dropped and counted.
+ */
+@Service
+public class AlertEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertEngine.class);
+
+    private final List<AlertRule> rules = new ArrayList<>();
+    private final Map<String, List<AlertRule>> rulesByMetric = new HashMap<>();
+    private final List<AlertNotifier> notifiers;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor notifier;
+    private final Counter droppedAlerts;
+    private final Counter notifyFailures;
+
+    public AlertEngine(AlertingProperties properties, List<AlertNotifier> notifiers, MeterRegistry meterRegistry) {
+        this.notifiers = notifiers.stream().filter(AlertNotifier::isEnabled).toList();
+        this.meterRegistry = meterRegistry;
+        this.droppedAlerts = Counter.builder("ehr.alerts.dropped")
+                .description("Alerts dropped because the notification queue was full")
+                .register(meterRegistry);
+        this.notifyFailures = Counter.builder("ehr.alerts.notify.failures")
+                .description("Alerts a notifier failed to deliver")
+                .register(meterRegistry);
+        if (!properties.isEnabled() || properties.getRules().isEmpty()) {
+            this.notifier = null;
+            return;
+        }
+        Set<String> names = new HashSet<>();
+        for (AlertingProperties.Rule definition : properties.getRules()) {
+            AlertRule rule = AlertRule.of(definition);
+            if (!names.add(rule.getName())) {
+                throw new IllegalArgumentException("Duplicate alert rule name '" + rule.getName() + "'");
+            }
+            rulesByMetric.computeIfAbsent(rule.getMetricName(), name -> new ArrayList<>()).add(rule);
+            rules.add(rule);
+        }
+        Gauge.builder("ehr.alerts.firing", rules, list -> list.stream().filter(AlertRule::isFiring).count())
+                .description("Rules currently firing")
+                .register(meterRegistry);
+        this.notifier = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getNotifyQueueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "alert-notifier");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> droppedAlerts.increment());
+        logger.info("Evaluating {} alert rules on metrics {}", rules.size(), rulesByMetric.keySet());
+    }
+
+    /**
+     * Feeds an ingested value to the rules on its metric.
+     */
+    public void evaluate(MetricRequest metric) {
+        if (rulesByMetric.isEmpty()) {
+            return;
+        }
+        List<AlertRule> rulesOfMetric = rulesByMetric.get(metric.getMetricName());
+        if (rulesOfMetric == null) {
+            return;
+        }
+        for (AlertRule rule : rulesOfMetric) {
+            Alert alert = rule.evaluate(metric.getTimestamp(), metric.getValue());
+            if (alert != null) {
+                meterRegistry.counter("ehr.alerts.transitions", "rule", alert.rule(),
+                        "state", alert.state().name().toLowerCase()).increment();
+                notifier.execute(() -> deliver(alert));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (notifier != null) {
+            notifier.shutdown();
+            notifier.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void deliver(Alert alert) {
+        for (AlertNotifier target : notifiers) {
+            try {
+                target.notify(alert);
+            } catch (Exception e) {
+                notifyFailures.increment();
+                logger.warn("Notifier {} failed for alert '{}': {}", target.getClass().getSimpleName(), alert.rule(),
+                        e.getMessage());
+            }
+        }
+    }
+}
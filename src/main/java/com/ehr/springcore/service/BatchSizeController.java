@@ -0,0 +1,100 @@
+package com.ehr.springcore.service;
+
+import java.util.Arrays;
+
+/**
+ * Tunes the batch size and linger time of one write queue towards a p99 ingest-to-commit
+ * latency target, from the latencies, commit times and queue depths it observes.
+ * <p>
+ * Latency has two parts: waiting in the queue and the batch's commit. When commits alone
+ * take more than half the target, batches are too large and shrink. When writes queue up
+ * behind the current batch size, batches grow so that each commit drains more of the
+ * backlog. Lingering for a fuller batch only happens while there is headroom, and stops
+ * as soon as the target is missed. Not thread-safe; each queue's writer owns one.
+ */
+public class BatchSizeController {
+
+    private static final int WINDOW = 1024;
+    private static final double ALPHA = 0.2;
+
+    private final long targetNanos;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final long[] latencies = new long[WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+    private double commitNanos;
+    private double queueDepth;
+    private volatile int batchSize;
+    private volatile long lingerNanos;
+
+    public BatchSizeController(long targetNanos, int initialBatchSize, int maxBatchSize, long maxLingerNanos) {
+        this.targetNanos = targetNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLingerNanos;
+        this.batchSize = Math.max(1, Math.min(initialBatchSize, maxBatchSize));
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getLingerNanos() {
+        return lingerNanos;
+    }
+
+    /**
+     * Records one committed batch.
+     *
+     * @param commitNanos time spent executing and committing the batch
+     * @param queueDepth  writes left waiting when the batch finished
+     */
+    public void onBatch(long commitNanos, int queueDepth) {
+        this.commitNanos = this.commitNanos == 0 ? commitNanos : ALPHA * commitNanos + (1 - ALPHA) * this.commitNanos;
+        this.queueDepth = ALPHA * queueDepth + (1 - ALPHA) * this.queueDepth;
+    }
+
+    /**
+     * Records the ingest-to-commit latency of one write.
+     */
+    public void onWrite(long latencyNanos) {
+        latencies[latencyNext] = latencyNanos;
+        latencyNext = (latencyNext + 1) % WINDOW;
+        latencyCount = Math.min(latencyCount + 1, WINDOW);
+    }
+
+    /**
+     * Applies one adjustment step from the writes recorded since the previous one.
+     */
+    public void adjust() {
+        if (latencyCount == 0) {
+            return;
+        }
+        long p99 = p99();
+        latencyCount = 0;
+        latencyNext = 0;
+        boolean backlog = queueDepth > batchSize;
+        if (p99 > targetNanos) {
+            lingerNanos = lingerNanos / 2 < 100_000 ? 0 : lingerNanos / 2;
+            if (commitNanos > targetNanos / 2.0) {
+                batchSize = Math.max(1, batchSize * 3 / 4);
+            } else if (backlog) {
+                batchSize = Math.min(maxBatchSize, batchSize * 2);
+            }
+        } else if (p99 < targetNanos / 2) {
+            if (backlog) {
+                batchSize = Math.min(maxBatchSize, batchSize + batchSize / 2 + 1);
+            } else {
+                // Spend part of the headroom waiting for fuller batches
+                long headroom = (long) Math.max(0, (targetNanos - commitNanos) / 4);
+                lingerNanos = Math.min(Math.min(maxLingerNanos, headroom), lingerNanos + maxLingerNanos / 8 + 1);
+            }
+        }
+    }
+
+    private long p99() {
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.99) - 1)];
+    }
+}
@@ -0,0 +1,339 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.archive.Segment;
+import com.ehr.springcore.archive.SegmentKind;
+import com.ehr.springcore.archive.SegmentWriter;
+import com.ehr.springcore.config.ColdTierProperties;
+import com.ehr.springcore.config.MetricAggregationProperties;
+import com.ehr.springcore.datasource.LongRunningQuery;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.entity.Metric;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Moves events and metrics older than {@code storage.cold-tier.archive-after} out of the
+ * database into segment files, one UTC day at a time, so the database only holds the
+ * recent, frequently queried data.
+ * <p>
+ * For each day and shard the rows are streamed into one or more segments (rolled at
+ * {@code max-segment-size}). Each finished segment is published to {@link ColdTierStore}
+ * first, then its rows are deleted in small batches, and finally it is marked clean. If a
+ * run dies in between, the next run finishes the deletes of every segment that is not
+ * clean before archiving anything else, so no row ends up archived twice. Rows that
+ * arrive later for an archived day simply go into another segment for that day.
+ * <p>
+ * A lock file in the directory keeps instances sharing the volume from archiving at the
+ * same time. Rows are read from the writer, not a replica, since a lagging replica could
+ * still return rows that were already archived and deleted.
+ */
+@Service
+public class ColdTierArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdTierArchiver.class);
+    private static final String LOCK_FILE = ".archiver.lock";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private static final String METRICS_SQL = "SELECT id, metric_name_id, metric_value, timestamp, unit, sample_count,"
+            + " sum_value, min_value, max_value, created_at FROM metrics"
+            + " WHERE timestamp >= ? AND timestamp < ? ORDER BY metric_name_id, timestamp, id";
+    private static final String EVENTS_SQL = "SELECT e.id, e.event_name_id, e.timestamp, e.created_at,"
+            + " p.property_key, p.property_value FROM events e LEFT JOIN event_properties p ON p.event_id = e.id"
+            + " WHERE e.timestamp >= ? AND e.timestamp < ? ORDER BY e.event_name_id, e.timestamp, e.id";
+
+    private final ColdTierProperties properties;
+    private final ColdTierStore store;
+    private final NameDictionaryService nameDictionary;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final Map<SegmentKind, Counter> archivedRows = new HashMap<>();
+    private final Counter failures;
+
+    public ColdTierArchiver(ColdTierProperties properties, MetricAggregationProperties aggregationProperties,
+                            ColdTierStore store, NameDictionaryService nameDictionary, ShardRouter shardRouter,
+                            DataSource dataSource, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        if (properties.isEnabled()) {
+            Duration correctable = aggregationProperties.getAllowedLateness().plus(aggregationProperties.getGracePeriod());
+            if (properties.getArchiveAfter().compareTo(correctable) <= 0) {
+                throw new IllegalArgumentException("storage.cold-tier.archive-after must be longer than "
+                        + "metrics.aggregation.allowed-lateness plus grace-period, or late values could correct "
+                        + "aggregates that are already archived");
+            }
+            if (properties.getBlockRows() < 1 || properties.getDeleteBatchSize() < 1
+                    || properties.getMaxSegmentSize().toBytes() >= Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("storage.cold-tier block-rows and delete-batch-size must be "
+                        + "positive and max-segment-size below 2GB");
+            }
+        }
+        this.properties = properties;
+        this.store = store;
+        this.nameDictionary = nameDictionary;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (SegmentKind kind : SegmentKind.values()) {
+            archivedRows.put(kind, Counter.builder("ehr.cold.tier.archived")
+                    .description("Rows moved from the database to the cold tier")
+                    .tag("table", kind.getPrefix())
+                    .register(meterRegistry));
+        }
+        this.failures = Counter.builder("ehr.cold.tier.archive.failures")
+                .description("Archive runs that failed and will be resumed by the next run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "#{@coldTierProperties.archiveInterval.toMillis()}",
+            fixedDelayString = "#{@coldTierProperties.archiveInterval.toMillis()}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(properties.getArchiveAfter()).truncatedTo(ChronoUnit.DAYS);
+        try {
+            archiveBefore(cutoff);
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.warn("Cold tier archive run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archives every event and metric with a timestamp before the cutoff and deletes
+     * segments past their retention. Does nothing if another instance is archiving.
+     *
+     * @return the number of rows archived
+     */
+    public synchronized long archiveBefore(Instant cutoff) {
+        Path directory = properties.getDirectory();
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.tryLock()) {
+            if (lock == null) {
+                logger.debug("Another instance is archiving, skipping this run");
+                return 0;
+            }
+            store.refresh();
+            deleteTemporaryFiles(directory);
+            long archived = 0;
+            for (String shard : shardRouter.getShards()) {
+                for (SegmentKind kind : SegmentKind.values()) {
+                    for (Segment segment : store.segments(kind, shard)) {
+                        if (!store.isClean(segment)) {
+                            logger.info("Finishing interrupted archival of {}", segment);
+                            deleteRows(kind, shard, segment.ids());
+                            store.markClean(segment);
+                        }
+                    }
+                    archived += archive(kind, shard, cutoff);
+                }
+            }
+            expire(Instant.now().minus(properties.getRetention()));
+            return archived;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long archive(SegmentKind kind, String shard, Instant cutoff) {
+        long archived = 0;
+        while (true) {
+            OffsetDateTime oldest = shardRouter.onShard(shard, () -> transaction.execute(status ->
+                    jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + kind.getPrefix() + " WHERE timestamp < ?",
+                            OffsetDateTime.class, cutoff.atOffset(ZoneOffset.UTC))));
+            if (oldest == null) {
+                return archived;
+            }
+            Instant dayStart = oldest.toInstant().truncatedTo(ChronoUnit.DAYS);
+            Instant dayEnd = Collections.min(List.of(dayStart.plus(Duration.ofDays(1)), cutoff));
+            List<Path> files = writeSegments(kind, shard, dayStart, dayEnd);
+            if (files.isEmpty()) {
+                return archived;
+            }
+            for (Path file : files) {
+                Segment segment;
+                try {
+                    segment = Segment.open(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                store.add(segment);
+                deleteRows(kind, shard, segment.ids());
+                store.markClean(segment);
+                archived += segment.getRowCount();
+                archivedRows.get(kind).increment(segment.getRowCount());
+                logger.info("Archived {} {} of {} on shard '{}' to {}", segment.getRowCount(), kind.getPrefix(),
+                        DAY_FORMAT.format(dayStart), shard, file.getFileName());
+            }
+        }
+    }
+
+    /**
+     * Streams the rows of one day into segment files and returns the finished files.
+     */
+    private List<Path> writeSegments(SegmentKind kind, String shard, Instant dayStart, Instant dayEnd) {
+        List<Path> finished = new ArrayList<>();
+        SegmentWriter[] writer = {null};
+        try {
+            shardRouter.runOnShard(shard, () -> transaction.executeWithoutResult(status -> {
+                if (kind == SegmentKind.METRICS) {
+                    jdbcTemplate.query(dayScan(METRICS_SQL, dayStart, dayEnd), rs -> {
+                        roll(writer, finished, kind, shard, dayStart, dayEnd).append(toMetric(rs));
+                    });
+                } else {
+                    Event[] current = {null};
+                    jdbcTemplate.query(dayScan(EVENTS_SQL, dayStart, dayEnd), rs -> {
+                        long id = rs.getLong(1);
+                        if (current[0] == null || current[0].getId() != id) {
+                            if (current[0] != null) {
+                                roll(writer, finished, kind, shard, dayStart, dayEnd).append(current[0]);
+                            }
+                            current[0] = new Event(nameDictionary.nameFor(rs.getInt(2)), instant(rs, 3), new HashMap<>());
+                            current[0].setId(id);
+                            current[0].setCreatedAt(instant(rs, 4));
+                        }
+                        String key = rs.getString(5);
+                        if (key != null) {
+                            current[0].getProperties().put(key, rs.getString(6));
+                        }
+                    });
+                    if (current[0] != null) {
+                        roll(writer, finished, kind, shard, dayStart, dayEnd).append(current[0]);
+                    }
+                }
+            }));
+            if (writer[0] != null) {
+                finished.add(writer[0].finish());
+            }
+        } finally {
+            if (writer[0] != null) {
+                writer[0].close();
+            }
+        }
+        return finished;
+    }
+
+    private PreparedStatementCreator dayScan(String sql, Instant dayStart, Instant dayEnd) {
+        return LongRunningQuery.statement(sql, properties.getSocketTimeout(),
+                dayStart.atOffset(ZoneOffset.UTC), dayEnd.atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Returns the open writer, finishing it and starting a new segment once it has reached
+     * the maximum segment size.
+     */
+    private SegmentWriter roll(SegmentWriter[] writer, List<Path> finished, SegmentKind kind, String shard,
+                               Instant dayStart, Instant dayEnd) {
+        if (writer[0] != null && writer[0].size() >= properties.getMaxSegmentSize().toBytes()) {
+            finished.add(writer[0].finish());
+            writer[0].close();
+            writer[0] = null;
+        }
+        if (writer[0] == null) {
+            writer[0] = new SegmentWriter(nextFile(kind, shard, dayStart), kind, shard, dayStart, dayEnd,
+                    properties.getBlockRows());
+        }
+        return writer[0];
+    }
+
+    private Metric toMetric(ResultSet rs) throws SQLException {
+        Metric metric = new Metric(nameDictionary.nameFor(rs.getInt(2)), rs.getDouble(3), instant(rs, 4), rs.getString(5));
+        metric.setId(rs.getLong(1));
+        long sampleCount = rs.getLong(6);
+        if (!rs.wasNull()) {
+            metric.setSampleCount(sampleCount);
+            metric.setSumValue(rs.getDouble(7));
+            metric.setMinValue(rs.getDouble(8));
+            metric.setMaxValue(rs.getDouble(9));
+        }
+        metric.setCreatedAt(instant(rs, 10));
+        return metric;
+    }
+
+    private void deleteRows(SegmentKind kind, String shard, long[] ids) {
+        List<String> statements = kind == SegmentKind.METRICS
+                ? List.of("DELETE FROM metrics WHERE id IN (%s)")
+                : List.of("DELETE FROM event_promoted_properties WHERE event_id IN (%s)",
+                        "DELETE FROM event_properties WHERE event_id IN (%s)",
+                        "DELETE FROM events WHERE id IN (%s)");
+        int batchSize = properties.getDeleteBatchSize();
+        for (int from = 0; from < ids.length; from += batchSize) {
+            Object[] batch = Arrays.stream(ids, from, Math.min(from + batchSize, ids.length)).boxed().toArray();
+            String placeholders = String.join(", ", Collections.nCopies(batch.length, "?"));
+            shardRouter.runOnShard(shard, () -> transaction.executeWithoutResult(status ->
+                    statements.forEach(statement -> jdbcTemplate.update(statement.formatted(placeholders), batch))));
+        }
+    }
+
+    private void expire(Instant before) {
+        for (String shard : shardRouter.getShards()) {
+            for (SegmentKind kind : SegmentKind.values()) {
+                for (Segment segment : store.segments(kind, shard)) {
+                    if (!segment.getRangeEnd().isAfter(before) && store.isClean(segment)) {
+                        store.delete(segment);
+                        logger.info("Deleted expired segment {}", segment);
+                    }
+                }
+            }
+        }
+    }
+
+    private Path nextFile(SegmentKind kind, String shard, Instant day) {
+        String prefix = kind.getPrefix() + "-" + shard + "-" + DAY_FORMAT.format(day) + "-";
+        int sequence = 0;
+        while (Files.exists(properties.getDirectory().resolve(prefix + String.format("%03d", sequence) + Segment.FILE_SUFFIX))) {
+            sequence++;
+        }
+        return properties.getDirectory().resolve(prefix + String.format("%03d", sequence) + Segment.FILE_SUFFIX);
+    }
+
+    private static void deleteTemporaryFiles(Path directory) throws IOException {
+        // Left behind by a run that died while writing; the rows are still in the database
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static Instant instant(ResultSet rs, int column) throws SQLException {
+        return rs.getObject(column, OffsetDateTime.class).toInstant();
+    }
+}
@@ -0,0 +1,224 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.archive.Segment;
+import com.ehr.springcore.archive.SegmentKind;
+import com.ehr.springcore.config.ColdTierProperties;
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.entity.Metric;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Catalog of the cold tier: the segment files in {@code storage.cold-tier.directory},
+ * memory-mapped, and the queries that read archived rows back.
+ * <p>
+ * Rows are moved by {@link ColdTierArchiver}, which publishes a segment before it deletes
+ * the rows from the database and marks the segment clean afterwards. Until then a row can
+ * be in both places, so readers that merge the two tiers drop archived rows whose ID the
+ * database still returned (IDs are unique per shard). The directory is rescanned
+ * periodically to pick up segments archived by other instances sharing the volume.
+ */
+@Service
+public class ColdTierStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdTierStore.class);
+    static final String CLEAN_SUFFIX = ".clean";
+
+    private final ColdTierProperties properties;
+    private volatile Map<Path, Segment> segments = Map.of();
+    private volatile Set<Path> clean = Set.of();
+
+    public ColdTierStore(ColdTierProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("ehr.cold.tier.segments", this, store -> store.segments.size())
+                .description("Segment files in the cold tier")
+                .register(meterRegistry);
+        Gauge.builder("ehr.cold.tier.size", this,
+                        store -> store.segments.values().stream().mapToLong(Segment::getSizeInBytes).sum())
+                .baseUnit("bytes")
+                .description("Compressed size of the cold tier")
+                .register(meterRegistry);
+        Gauge.builder("ehr.cold.tier.rows", this,
+                        store -> store.segments.values().stream().mapToLong(Segment::getRowCount).sum())
+                .description("Rows archived in the cold tier")
+                .register(meterRegistry);
+        if (properties.isEnabled()) {
+            try {
+                Files.createDirectories(properties.getDirectory());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create cold tier directory " + properties.getDirectory(), e);
+            }
+            refresh();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Maps segment files that appeared since the last scan and forgets deleted ones.
+     */
+    @Scheduled(fixedDelayString = "#{@coldTierProperties.refreshInterval.toMillis()}")
+    public synchronized void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<Path, Segment> current = segments;
+        Map<Path, Segment> next = new LinkedHashMap<>();
+        Set<Path> nextClean = new HashSet<>();
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            for (Path file : files.sorted().toList()) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(CLEAN_SUFFIX)) {
+                    nextClean.add(file.resolveSibling(fileName.substring(0, fileName.length() - CLEAN_SUFFIX.length())));
+                    continue;
+                }
+                if (!fileName.endsWith(Segment.FILE_SUFFIX)) {
+                    continue;
+                }
+                Segment segment = current.get(file);
+                if (segment == null) {
+                    try {
+                        segment = Segment.open(file);
+                    } catch (IOException | RuntimeException e) {
+                        logger.warn("Skipping unreadable segment {}: {}", file, e.getMessage());
+                        continue;
+                    }
+                }
+                next.put(file, segment);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to scan cold tier directory {}: {}", properties.getDirectory(), e.getMessage());
+            return;
+        }
+        segments = sorted(next);
+        clean = Set.copyOf(nextClean);
+    }
+
+    /**
+     * Segments of one table and shard whose time range overlaps {@code [fromInclusive, toExclusive)},
+     * oldest first.
+     */
+    public List<Segment> segments(SegmentKind kind, String shard, Instant fromInclusive, Instant toExclusive) {
+        if (!properties.isEnabled()) {
+            return List.of();
+        }
+        return segments.values().stream()
+                .filter(segment -> segment.getKind() == kind && segment.getShard().equals(shard)
+                        && segment.overlaps(fromInclusive, toExclusive))
+                .toList();
+    }
+
+    public List<Segment> segments(SegmentKind kind, String shard) {
+        return segments(kind, shard, Instant.MIN, Instant.MAX);
+    }
+
+    public boolean isClean(Segment segment) {
+        return clean.contains(segment.getFile());
+    }
+
+    /**
+     * Archived metrics of one name on one shard with {@code fromInclusive <= timestamp < toExclusive},
+     * ordered by timestamp.
+     */
+    public List<Metric> findMetrics(String shard, String metricName, Instant fromInclusive, Instant toExclusive) {
+        List<Metric> metrics = new ArrayList<>();
+        for (Segment segment : segments(SegmentKind.METRICS, shard, fromInclusive, toExclusive)) {
+            segment.forEachMetric(metricName, fromInclusive, toExclusive, metrics::add);
+        }
+        metrics.sort(Comparator.comparing(Metric::getTimestamp));
+        return metrics;
+    }
+
+    /**
+     * Up to {@code limit} archived events of one name on one shard with
+     * {@code fromInclusive <= timestamp < toExclusive} that match the filter, ordered by timestamp.
+     */
+    public List<Event> findEvents(String shard, String eventName, Instant fromInclusive, Instant toExclusive,
+                                  Predicate<Event> filter, int limit) {
+        List<Event> events = new ArrayList<>();
+        for (Segment segment : segments(SegmentKind.EVENTS, shard, fromInclusive, toExclusive)) {
+            segment.forEachEvent(eventName, fromInclusive, toExclusive, event -> {
+                if (filter.test(event)) {
+                    events.add(event);
+                }
+            });
+        }
+        events.sort(Comparator.comparing(Event::getTimestamp));
+        return events.size() > limit ? new ArrayList<>(events.subList(0, limit)) : events;
+    }
+
+    /**
+     * Matches IDs of rows in the given segments that may still be in the database because
+     * their segment has not been marked clean yet.
+     */
+    public LongPredicate pendingDeletion(List<Segment> candidates) {
+        long[][] ids = candidates.stream()
+                .filter(segment -> !isClean(segment))
+                .map(Segment::ids)
+                .toArray(long[][]::new);
+        if (ids.length == 0) {
+            return id -> false;
+        }
+        return id -> Arrays.stream(ids).anyMatch(segmentIds -> Arrays.binarySearch(segmentIds, id) >= 0);
+    }
+
+    synchronized void add(Segment segment) {
+        Map<Path, Segment> next = new LinkedHashMap<>(segments);
+        next.put(segment.getFile(), segment);
+        segments = sorted(next);
+    }
+
+    synchronized void markClean(Segment segment) {
+        try {
+            Files.write(segment.getFile().resolveSibling(segment.getFile().getFileName() + CLEAN_SUFFIX), new byte[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Set<Path> next = new HashSet<>(clean);
+        next.add(segment.getFile());
+        clean = Set.copyOf(next);
+    }
+
+    synchronized void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.getFile());
+            Files.deleteIfExists(segment.getFile().resolveSibling(segment.getFile().getFileName() + CLEAN_SUFFIX));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<Path, Segment> next = new LinkedHashMap<>(segments);
+        next.remove(segment.getFile());
+        segments = next;
+    }
+
+    private static Map<Path, Segment> sorted(Map<Path, Segment> segments) {
+        Map<Path, Segment> sorted = new LinkedHashMap<>();
+        segments.values().stream()
+                .sorted(Comparator.comparing(Segment::getRangeStart).thenComparing(Segment::getFile))
+                .forEach(segment -> sorted.put(segment.getFile(), segment));
+        return sorted;
+    }
+}
@@ -1,37 +1,80 @@
 package com.ehr.springcore.service;
 
+import com.ehr.springcore.config.EventSchemaProperties;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.diagnostics.PersistEvent;
 import com.ehr.springcore.entity.Event;
 import com.ehr.springcore.entity.Metric;
+import com.ehr.springcore.entity.PromotedPropertyValue;
 import com.ehr.springcore.model.EventRequest;
 import com.ehr.springcore.model.MetricRequest;
 import com.ehr.springcore.repository.EventRepository;
 import com.ehr.springcore.repository.MetricRepository;
+import com.ehr.springcore.repository.PromotedPropertyValueRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * Persists events and metrics. With sharding enabled, each row is written in its own
+ * transaction on the shard that owns its name; otherwise writes join the caller's
+ * transaction as usual. With write batching enabled, event and metric writes are instead
+ * group-committed by {@link AdaptiveWriteBatcher} and never join the caller's transaction.
+ * Promoted event properties additionally get a typed copy in the same transaction.
+ */
 @Service
 public class DatabaseService {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseService.class);
 
+    /**
+     * Attempts at merging an aggregate before a unique key violation is rethrown.
+     */
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+
     private final EventRepository eventRepository;
     private final MetricRepository metricRepository;
     private final ObjectMapper objectMapper;
+    private final NameDictionaryService nameDictionary;
+    private final ShardRouter shardRouter;
+    private final PromotedPropertyCatalog promotedProperties;
+    private final PromotedPropertyValueRepository promotedPropertyRepository;
+    private final AdaptiveWriteBatcher writeBatcher;
+    private final TransactionTemplate writeTransaction;
 
-    public DatabaseService(EventRepository eventRepository, MetricRepository metricRepository, ObjectMapper objectMapper) {
+    public DatabaseService(EventRepository eventRepository, MetricRepository metricRepository, ObjectMapper objectMapper,
+                           NameDictionaryService nameDictionary, ShardRouter shardRouter,
+                           PromotedPropertyCatalog promotedProperties,
+                           PromotedPropertyValueRepository promotedPropertyRepository,
+                           AdaptiveWriteBatcher writeBatcher, PlatformTransactionManager transactionManager) {
         this.eventRepository = eventRepository;
         this.metricRepository = metricRepository;
         this.objectMapper = objectMapper;
+        this.nameDictionary = nameDictionary;
+        this.shardRouter = shardRouter;
+        this.promotedProperties = promotedProperties;
+        this.promotedPropertyRepository = promotedPropertyRepository;
+        this.writeBatcher = writeBatcher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // A surrounding transaction may already hold a connection to a different shard
+        if (shardRouter.isEnabled()) {
+            this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
     }
 
-    @Transactional
     public Event saveEvent(EventRequest eventRequest) {
         logger.info("Persisting event to database: {}", eventRequest.getEventName());
         
@@ -58,32 +101,130 @@ public class DatabaseService {
             });
         }
         
-        Event event = new Event(
-            eventRequest.getEventName(),
-            eventRequest.getTimestamp(),
-            stringProperties
-        );
+        // Resolve the dictionary ID up front rather than during flush
+        int eventNameId = nameDictionary.idFor(eventRequest.getEventName());
         
-        Event savedEvent = eventRepository.save(event);
+        Event savedEvent = write("event", eventRequest.getEventName(), () -> {
+            Event event = new Event(
+                eventRequest.getEventName(),
+                eventRequest.getTimestamp(),
+                stringProperties
+            );
+            event.setEventNameId(eventNameId);
+            Event saved = eventRepository.save(event);
+            savePromotedProperties(saved, eventRequest);
+            return saved;
+        });
         logger.info("Event persisted with ID: {}", savedEvent.getId());
         
         return savedEvent;
     }
 
-    @Transactional
     public Metric saveMetric(MetricRequest metricRequest) {
         logger.info("Persisting metric to database: {}", metricRequest.getMetricName());
         
-        Metric metric = new Metric(
-            metricRequest.getMetricName(),
-            metricRequest.getValue(),
-            metricRequest.getTimestamp(),
-            metricRequest.getUnit()
-        );
+        int metricNameId = nameDictionary.idFor(metricRequest.getMetricName());
         
-        Metric savedMetric = metricRepository.save(metric);
+        Metric savedMetric = write("metric", metricRequest.getMetricName(), () -> {
+            Metric metric = new Metric(
+                metricRequest.getMetricName(),
+                metricRequest.getValue(),
+                metricRequest.getTimestamp(),
+                metricRequest.getUnit()
+            );
+            metric.setMetricNameId(metricNameId);
+            return metricRepository.save(metric);
+        });
         logger.info("Metric persisted with ID: {}", savedMetric.getId());
         
         return savedMetric;
     }
+
+    /**
+     * Merges the values of a pre-aggregated metric interval into the interval's stored
+     * row, creating it if there is none. Late values therefore correct the row in place
+     * instead of the interval being recomputed. The row's value is the mean, its
+     * timestamp the start of the interval. The row's unique aggregate key keeps instances
+     * flushing the same interval at once from both inserting; the one that loses retries and
+     * merges into the other's row.
+     */
+    public Metric mergeMetricAggregate(String metricName, String unit, Instant intervalStart,
+                                       long count, double sum, double min, double max) {
+        int metricNameId = nameDictionary.idFor(metricName);
+        String aggregateKey = Metric.aggregateKey(metricNameId, intervalStart, unit);
+        Metric savedMetric;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                savedMetric = shardRouter.onShard(shardRouter.shardFor(metricName),
+                        () -> writeTransaction.execute(status -> {
+                            List<Metric> existing = metricRepository
+                                    .findByMetricNameIdAndUnitAndTimestampAndSampleCountIsNotNullOrderById(metricNameId, unit, intervalStart);
+                            Metric metric;
+                            if (existing.isEmpty()) {
+                                metric = new Metric(metricName, sum / count, intervalStart, unit);
+                                metric.setMetricNameId(metricNameId);
+                                metric.setSampleCount(count);
+                                metric.setSumValue(sum);
+                                metric.setMinValue(min);
+                                metric.setMaxValue(max);
+                            } else {
+                                metric = existing.get(0);
+                                metric.setSampleCount(metric.getSampleCount() + count);
+                                metric.setSumValue(metric.getSumValue() + sum);
+                                metric.setMinValue(Math.min(metric.getMinValue(), min));
+                                metric.setMaxValue(Math.max(metric.getMaxValue(), max));
+                                metric.setValue(metric.getSumValue() / metric.getSampleCount());
+                            }
+                            // Rows written before the key existed get it on their next merge
+                            metric.setAggregateKey(aggregateKey);
+                            return metricRepository.saveAndFlush(metric);
+                        }));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the interval's row first; merge into it instead
+                if (attempt == MAX_MERGE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+        logger.debug("Metric aggregate for {} at {} merged into row {}", metricName, intervalStart, savedMetric.getId());
+        return savedMetric;
+    }
+
+    /**
+     * Runs a write on the shard that owns the name, either in its own transaction or, with
+     * batching enabled, as part of a group commit. The write may be retried and must create
+     * its entities itself.
+     */
+    private <T> T write(String type, String name, Supplier<T> write) {
+        String shard = shardRouter.shardFor(name);
+        boolean batched = writeBatcher.isEnabled();
+        PersistEvent jfrEvent = new PersistEvent();
+        jfrEvent.begin();
+        try {
+            if (batched) {
+                return writeBatcher.submit(shard, write);
+            }
+            return shardRouter.onShard(shard, () -> writeTransaction.execute(status -> write.get()));
+        } finally {
+            jfrEvent.finish(type, name, shard, batched);
+        }
+    }
+
+    private void savePromotedProperties(Event event, EventRequest eventRequest) {
+        Map<String, EventSchemaProperties.PropertyType> promoted = promotedProperties.forEvent(eventRequest.getEventName());
+        if (promoted.isEmpty() || eventRequest.getProperties() == null) {
+            return;
+        }
+        List<PromotedPropertyValue> values = new ArrayList<>();
+        promoted.forEach((key, type) -> {
+            Object value = eventRequest.getProperties().get(key);
+            if (value != null) {
+                promotedProperties.convert(eventRequest.getEventName(), key, type, value).ifPresent(typed ->
+                        values.add(new PromotedPropertyValue(event.getId(), event.getEventNameId(), key,
+                                event.getTimestamp(), type, typed)));
+            }
+        });
+        promotedPropertyRepository.saveAll(values);
+    }
 }
@@ -0,0 +1,122 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.EventSchemaProperties.PropertyType;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.model.EventRecord;
+import com.ehr.springcore.repository.EventRepository;
+import com.ehr.springcore.repository.EventRepositoryCustom.Comparison;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Event queries filtered on a promoted property. Only promoted properties can be filtered
+ * on, since only they have typed, indexed columns; anything else would be a full scan of
+ * the generic property store. Archived events are filtered on their stored property value,
+ * converted the same way as at ingest.
+ */
+@Service
+public class EventQueryService {
+
+    private final EventRepository eventRepository;
+    private final PromotedPropertyCatalog promotedProperties;
+    private final ShardRouter shardRouter;
+    private final ColdTierStore coldTierStore;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public EventQueryService(EventRepository eventRepository, PromotedPropertyCatalog promotedProperties,
+                             ShardRouter shardRouter, ColdTierStore coldTierStore,
+                             PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.promotedProperties = promotedProperties;
+        this.shardRouter = shardRouter;
+        this.coldTierStore = coldTierStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public List<EventRecord> findEvents(String eventName, String property, String comparison, String value,
+                                        Instant start, Instant end, int limit) {
+        PropertyType type = promotedProperties.typeOf(eventName, property).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Property '" + property + "' is not promoted for event '" + eventName + "'"));
+        Comparison parsedComparison;
+        Object typedValue;
+        try {
+            parsedComparison = Comparison.parse(comparison);
+            typedValue = promotedProperties.parse(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (type == PropertyType.BOOLEAN && parsedComparison != Comparison.EQ && parsedComparison != Comparison.NE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Boolean properties only support eq and ne");
+        }
+
+        Predicate<Event> archivedFilter = event -> matches(event.getProperties().get(property), type,
+                parsedComparison, typedValue);
+        List<EventRecord> events = shardRouter.fanOut(shard -> {
+            // Properties are loaded lazily, so copy them while the shard's transaction is open
+            List<EventRecord> records = readOnlyTransaction.execute(status ->
+                    eventRepository.findByPromotedProperty(eventName, property, type, parsedComparison, typedValue,
+                                    start, end, limit).stream()
+                            .map(event -> toRecord(shard, event))
+                            .toList());
+            List<Event> archived = coldTierStore.findEvents(shard, eventName, start, end, archivedFilter, limit);
+            if (archived.isEmpty()) {
+                return records;
+            }
+            // A row is in both tiers while its segment is being cleaned up
+            Set<Long> ids = records.stream().map(EventRecord::getId).collect(Collectors.toSet());
+            List<EventRecord> merged = new ArrayList<>(records);
+            archived.stream().map(event -> toRecord(shard, event)).filter(record -> !ids.contains(record.getId()))
+                    .forEach(merged::add);
+            merged.sort(Comparator.comparing(EventRecord::getTimestamp));
+            return merged.size() > limit ? merged.subList(0, limit) : merged;
+        });
+        if (shardRouter.isEnabled()) {
+            events.sort(Comparator.comparing(EventRecord::getTimestamp));
+            return events.size() > limit ? events.subList(0, limit) : events;
+        }
+        return events;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean matches(String stored, PropertyType type, Comparison comparison, Object value) {
+        if (stored == null) {
+            return false;
+        }
+        Comparable actual;
+        try {
+            actual = (Comparable) promotedProperties.parse(type, stored);
+        } catch (IllegalArgumentException e) {
+            // Not convertible, so it never had a typed copy either
+            return false;
+        }
+        int result = actual.compareTo(value);
+        return switch (comparison) {
+            case EQ -> result == 0;
+            case NE -> result != 0;
+            case GT -> result > 0;
+            case GTE -> result >= 0;
+            case LT -> result < 0;
+            case LTE -> result <= 0;
+        };
+    }
+
+    private EventRecord toRecord(String shard, Event event) {
+        return new EventRecord(shardRouter.globalId(shard, event.getId()), event.getEventName(), event.getTimestamp(),
+                new HashMap<>(event.getProperties()));
+    }
+}
@@ -0,0 +1,258 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.SketchProperties;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.entity.EventSketch;
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.repository.EventSketchRepository;
+import com.ehr.springcore.sketch.HyperLogLog;
+import com.ehr.springcore.sketch.SpaceSaving;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maintains approximate distinct counts (HyperLogLog) and heavy hitters (Space-Saving)
+ * for configured event properties, per event name and epoch-aligned time bucket.
+ * <p>
+ * Ingestion only updates fixed-size sketches in memory. A scheduled flush hands each
+ * pending sketch to the database, where it is merged into the stored sketch for the same
+ * key under a row lock, so any number of instances can contribute to the same bucket.
+ * Queries merge the stored sketches of every bucket overlapping the range together with
+ * this instance's unflushed sketches; the range is therefore widened to whole buckets.
+ * Sketches are not sharded and always live on the primary shard.
+ */
+@Service
+public class EventSketchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSketchService.class);
+    private static final int SHUTDOWN_FLUSH_ATTEMPTS = 3;
+
+    private final SketchProperties properties;
+    private final EventSketchRepository repository;
+    private final NameDictionaryService nameDictionaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ConcurrentMap<SketchKey, Object> pending = new ConcurrentHashMap<>();
+    private final Counter flushFailures;
+
+    public EventSketchService(SketchProperties properties, EventSketchRepository repository,
+                              NameDictionaryService nameDictionaryService,
+                              PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.repository = repository;
+        this.nameDictionaryService = nameDictionaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        Gauge.builder("ehr.sketches.pending", pending, ConcurrentMap::size)
+                .description("Sketches updated in memory and not yet flushed to the database")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("ehr.sketches.flush.failures")
+                .description("Sketches that could not be merged into the database and were retried")
+                .register(meterRegistry);
+    }
+
+    public void record(EventRequest event) {
+        if (!properties.isEnabled() || event.getProperties() == null) {
+            return;
+        }
+        Instant bucket = bucketStart(event.getTimestamp());
+        for (String property : properties.getDistinctProperties()) {
+            Object value = event.getProperties().get(property);
+            if (value != null) {
+                update(new SketchKey(event.getEventName(), property, EventSketch.Kind.DISTINCT, bucket), value.toString());
+            }
+        }
+        for (String property : properties.getTopKProperties()) {
+            Object value = event.getProperties().get(property);
+            if (value != null) {
+                update(new SketchKey(event.getEventName(), property, EventSketch.Kind.TOP_K, bucket), value.toString());
+            }
+        }
+    }
+
+    /**
+     * Estimated number of distinct values of a property for an event name in the buckets
+     * overlapping {@code [start, end]}.
+     */
+    public long countDistinct(String eventName, String property, Instant start, Instant end) {
+        HyperLogLog result = new HyperLogLog(properties.getHllPrecision());
+        for (byte[] bytes : collect(eventName, property, EventSketch.Kind.DISTINCT, start, end)) {
+            result.merge(HyperLogLog.fromBytes(bytes));
+        }
+        return result.estimate();
+    }
+
+    /**
+     * Most frequent values of a property for an event name in the buckets overlapping
+     * {@code [start, end]}, highest estimated count first.
+     */
+    public List<SpaceSaving.Entry> topValues(String eventName, String property, Instant start, Instant end, int limit) {
+        SpaceSaving result = new SpaceSaving(properties.getTopKCapacity());
+        for (byte[] bytes : collect(eventName, property, EventSketch.Kind.TOP_K, start, end)) {
+            result.merge(SpaceSaving.fromBytes(bytes));
+        }
+        return result.top(limit);
+    }
+
+    /**
+     * Writes every pending sketch once and returns how many failed. Failed sketches stay
+     * pending for the next flush.
+     */
+    @Scheduled(fixedDelayString = "#{@sketchProperties.flushInterval.toMillis()}")
+    public int flush() {
+        // Iterate over a snapshot: re-adding failed keys to the live map while iterating
+        // it could visit them again within the same flush
+        List<SketchKey> keys = List.copyOf(pending.keySet());
+        Map<SketchKey, Object> failed = new HashMap<>();
+        for (SketchKey key : keys) {
+            Object sketch = pending.remove(key);
+            if (sketch == null) {
+                continue;
+            }
+            try {
+                store(key, sketch);
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                failed.put(key, sketch);
+                logger.warn("Failed to flush sketch {}: {}", key, e.getMessage());
+            }
+        }
+        failed.forEach((key, sketch) -> pending.merge(key, sketch, EventSketchService::mergeSketches));
+        return failed.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        for (int attempt = 0; attempt < SHUTDOWN_FLUSH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            if (flush() == 0) {
+                return;
+            }
+        }
+        if (!pending.isEmpty()) {
+            logger.error("Discarding {} sketches that could not be flushed at shutdown", pending.size());
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void update(SketchKey key, String value) {
+        // All mutation happens inside compute, so a sketch removed by flush is never
+        // modified afterwards; the next update simply starts a fresh one
+        pending.compute(key, (k, sketch) -> {
+            Object target = sketch != null ? sketch : newSketch(k.kind());
+            if (target instanceof HyperLogLog hll) {
+                hll.add(value);
+            } else {
+                ((SpaceSaving) target).add(value);
+            }
+            return target;
+        });
+    }
+
+    private void store(SketchKey key, Object sketch) {
+        int eventNameId = nameDictionaryService.idFor(key.eventName());
+        shardRouter.runOnShard(ShardRouter.PRIMARY, () -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> upsert(eventNameId, key, sketch));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the row first; merge into it instead
+                transactionTemplate.executeWithoutResult(status -> upsert(eventNameId, key, sketch));
+            }
+        });
+    }
+
+    private void upsert(int eventNameId, SketchKey key, Object sketch) {
+        Optional<EventSketch> existing = repository.findByEventNameIdAndPropertyKeyAndKindAndBucketStart(
+                eventNameId, key.property(), key.kind(), key.bucket());
+        if (existing.isPresent()) {
+            Object merged = mergeSketches(deserialize(key.kind(), existing.get().getSketch()), sketch);
+            existing.get().setSketch(serialize(merged));
+        } else {
+            repository.saveAndFlush(new EventSketch(eventNameId, key.property(), key.kind(), key.bucket(), serialize(sketch)));
+        }
+    }
+
+    private List<byte[]> collect(String eventName, String property, EventSketch.Kind kind, Instant start, Instant end) {
+        long bucketSize = properties.getBucketSize().toMillis();
+        Instant firstBucket = bucketStart(start);
+        Instant lastBucket = bucketStart(end);
+        if ((lastBucket.toEpochMilli() - firstBucket.toEpochMilli()) / bucketSize + 1 > properties.getMaxBucketsPerQuery()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Range spans more than " + properties.getMaxBucketsPerQuery() + " buckets");
+        }
+
+        List<byte[]> sketches = new ArrayList<>();
+        nameDictionaryService.findId(eventName).ifPresent(id -> shardRouter.onPrimary(() ->
+                repository.findByEventNameIdAndPropertyKeyAndKindAndBucketStartBetween(id, property, kind, firstBucket, lastBucket))
+                .forEach(row -> sketches.add(row.getSketch())));
+        for (Map.Entry<SketchKey, Object> entry : pending.entrySet()) {
+            SketchKey key = entry.getKey();
+            if (key.eventName().equals(eventName) && key.property().equals(property) && key.kind() == kind
+                    && !key.bucket().isBefore(firstBucket) && !key.bucket().isAfter(lastBucket)) {
+                byte[][] snapshot = new byte[1][];
+                pending.computeIfPresent(key, (k, sketch) -> {
+                    snapshot[0] = serialize(sketch);
+                    return sketch;
+                });
+                if (snapshot[0] != null) {
+                    sketches.add(snapshot[0]);
+                }
+            }
+        }
+        return sketches;
+    }
+
+    private Object newSketch(EventSketch.Kind kind) {
+        return kind == EventSketch.Kind.DISTINCT
+                ? new HyperLogLog(properties.getHllPrecision())
+                : new SpaceSaving(properties.getTopKCapacity());
+    }
+
+    private static Object mergeSketches(Object target, Object source) {
+        if (target instanceof HyperLogLog hll) {
+            hll.merge((HyperLogLog) source);
+        } else {
+            ((SpaceSaving) target).merge((SpaceSaving) source);
+        }
+        return target;
+    }
+
+    private static byte[] serialize(Object sketch) {
+        return sketch instanceof HyperLogLog hll ? hll.toBytes() : ((SpaceSaving) sketch).toBytes();
+    }
+
+    private static Object deserialize(EventSketch.Kind kind, byte[] bytes) {
+        return kind == EventSketch.Kind.DISTINCT ? HyperLogLog.fromBytes(bytes) : SpaceSaving.fromBytes(bytes);
+    }
+
+    private Instant bucketStart(Instant timestamp) {
+        long bucketSize = properties.getBucketSize().toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(timestamp.toEpochMilli(), bucketSize) * bucketSize);
+    }
+
+    private record SketchKey(String eventName, String property, EventSketch.Kind kind, Instant bucket) {
+    }
+}
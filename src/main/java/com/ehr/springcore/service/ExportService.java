@@ -0,0 +1,376 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.archive.Segment;
+import com.ehr.springcore.archive.SegmentKind;
+import com.ehr.springcore.config.ExportProperties;
+import com.ehr.springcore.datasource.DataSourcePools;
+import com.ehr.springcore.datasource.LongRunningQuery;
+import com.ehr.springcore.datasource.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.compression.NoCompressionCodec;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongPredicate;
+
+/**
+ * Streams events and metrics out of the database as Arrow IPC streams.
+ * <p>
+ * Rows are read with a server-side cursor (read-only transaction plus a bounded fetch
+ * size) and written in fixed-size, compressed record batches whose vectors are reused,
+ * so memory stays constant regardless of the exported range. Rows are read in
+ * {@code timestamp, id} order, which the timestamp indexes deliver for the range without
+ * sorting it. Read-only transactions go to the reader pool when routing is enabled;
+ * otherwise each shard is read through its {@code export-<shard>} pool, so in both cases
+ * exports stay away from the connections ingestion uses. With sharding enabled the shards are read one after another into the same stream, and
+ * {@code id} is the shard-prefixed {@link ShardRouter#globalId}. Rows archived to the cold
+ * tier follow the database rows of their shard.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+    private static final String UTC = "UTC";
+
+    private final ExportProperties properties;
+    private final NameDictionaryService nameDictionary;
+    private final ShardRouter shardRouter;
+    private final ColdTierStore coldTierStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<String, ShardReader> exportReaders = new HashMap<>();
+    private final BufferAllocator rootAllocator;
+    private final Semaphore exportPermits;
+
+    public ExportService(ExportProperties properties, NameDictionaryService nameDictionary, ShardRouter shardRouter,
+                         ColdTierStore coldTierStore, DataSource dataSource, PlatformTransactionManager transactionManager,
+                         @Qualifier("exportDataSources") DataSourcePools exportDataSources) {
+        this.properties = properties;
+        this.nameDictionary = nameDictionary;
+        this.shardRouter = shardRouter;
+        this.coldTierStore = coldTierStore;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        exportDataSources.asMap().forEach((shard, pool) -> exportReaders.put(shard, new ShardReader(pool)));
+        this.rootAllocator = new RootAllocator(properties.getMaxMemory().toBytes());
+        this.exportPermits = new Semaphore(properties.getMaxConcurrentExports());
+    }
+
+    /**
+     * Reserves one of the {@code export.max-concurrent-exports} slots. The caller must
+     * {@link #release()} it once the export has finished.
+     */
+    public boolean tryAcquire() {
+        return exportPermits.tryAcquire();
+    }
+
+    public void release() {
+        exportPermits.release();
+    }
+
+    public void exportMetrics(Instant start, Instant end, OutputStream out) {
+        Schema schema = new Schema(List.of(
+                field("id", new ArrowType.Int(64, true), false),
+                field("metric_name", ArrowType.Utf8.INSTANCE, false),
+                field("value", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE), false),
+                field("timestamp", new ArrowType.Timestamp(TimeUnit.MILLISECOND, UTC), false),
+                field("unit", ArrowType.Utf8.INSTANCE, true),
+                field("created_at", new ArrowType.Timestamp(TimeUnit.MILLISECOND, UTC), false)));
+
+        String sql = "SELECT id, metric_name_id, metric_value, timestamp, unit, created_at FROM metrics"
+                + " WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp, id";
+
+        try (BufferAllocator allocator = rootAllocator.newChildAllocator("metrics-export", 0, Long.MAX_VALUE);
+             BatchWriter writer = new BatchWriter(VectorSchemaRoot.create(schema, allocator), out)) {
+            BigIntVector id = (BigIntVector) writer.root.getVector("id");
+            VarCharVector name = (VarCharVector) writer.root.getVector("metric_name");
+            Float8Vector value = (Float8Vector) writer.root.getVector("value");
+            TimeStampMilliTZVector timestamp = (TimeStampMilliTZVector) writer.root.getVector("timestamp");
+            VarCharVector unit = (VarCharVector) writer.root.getVector("unit");
+            TimeStampMilliTZVector createdAt = (TimeStampMilliTZVector) writer.root.getVector("created_at");
+
+            for (String shard : shardRouter.getShards()) {
+                List<Segment> archived = coldTierStore.segments(SegmentKind.METRICS, shard, start, end);
+                LongPredicate alsoArchived = coldTierStore.pendingDeletion(archived);
+                read(shard, LongRunningQuery.statement(sql, properties.getSocketTimeout(),
+                        start.atOffset(ZoneOffset.UTC), end.atOffset(ZoneOffset.UTC)), rs -> {
+                    long metricId = rs.getLong(1);
+                    if (alsoArchived.test(metricId)) {
+                        return;
+                    }
+                    int row = writer.row;
+                    id.setSafe(row, shardRouter.globalId(shard, metricId));
+                    setString(name, row, nameDictionary.nameFor(rs.getInt(2)));
+                    value.setSafe(row, rs.getDouble(3));
+                    timestamp.setSafe(row, epochMilli(rs, 4));
+                    setString(unit, row, rs.getString(5));
+                    createdAt.setSafe(row, epochMilli(rs, 6));
+                    writer.endRow();
+                });
+                for (Segment segment : archived) {
+                    segment.forEachMetric(null, start, end, metric -> {
+                        int row = writer.row;
+                        id.setSafe(row, shardRouter.globalId(shard, metric.getId()));
+                        setString(name, row, metric.getMetricName());
+                        value.setSafe(row, metric.getValue());
+                        timestamp.setSafe(row, metric.getTimestamp().toEpochMilli());
+                        setString(unit, row, metric.getUnit());
+                        createdAt.setSafe(row, metric.getCreatedAt().toEpochMilli());
+                        writer.endRow();
+                    });
+                }
+            }
+            writer.finish();
+            logger.info("Exported {} metrics between {} and {}", writer.total, start, end);
+        }
+    }
+
+    public void exportEvents(Instant start, Instant end, OutputStream out) {
+        List<String> propertyColumns = properties.getEventPropertyColumns();
+        List<Field> fields = new ArrayList<>(List.of(
+                field("id", new ArrowType.Int(64, true), false),
+                field("event_name", ArrowType.Utf8.INSTANCE, false),
+                field("timestamp", new ArrowType.Timestamp(TimeUnit.MILLISECOND, UTC), false),
+                field("created_at", new ArrowType.Timestamp(TimeUnit.MILLISECOND, UTC), false)));
+        for (String key : propertyColumns) {
+            fields.add(field("property_" + key, ArrowType.Utf8.INSTANCE, true));
+        }
+
+        // Properties are joined in and folded per event; the rows of one event share its
+        // timestamp, so they still arrive next to each other
+        String sql = "SELECT e.id, e.event_name_id, e.timestamp, e.created_at"
+                + (propertyColumns.isEmpty() ? ", NULL, NULL FROM events e"
+                        : ", p.property_key, p.property_value FROM events e LEFT JOIN event_properties p"
+                        + " ON p.event_id = e.id AND p.property_key IN ("
+                        + String.join(", ", Collections.nCopies(propertyColumns.size(), "?")) + ")")
+                + " WHERE e.timestamp >= ? AND e.timestamp < ? ORDER BY e.timestamp, e.id";
+        List<Object> args = new ArrayList<>(propertyColumns);
+        args.add(start.atOffset(ZoneOffset.UTC));
+        args.add(end.atOffset(ZoneOffset.UTC));
+
+        try (BufferAllocator allocator = rootAllocator.newChildAllocator("events-export", 0, Long.MAX_VALUE);
+             BatchWriter writer = new BatchWriter(VectorSchemaRoot.create(new Schema(fields), allocator), out)) {
+            BigIntVector id = (BigIntVector) writer.root.getVector("id");
+            VarCharVector name = (VarCharVector) writer.root.getVector("event_name");
+            TimeStampMilliTZVector timestamp = (TimeStampMilliTZVector) writer.root.getVector("timestamp");
+            TimeStampMilliTZVector createdAt = (TimeStampMilliTZVector) writer.root.getVector("created_at");
+            Map<String, VarCharVector> propertyVectors = new HashMap<>();
+            for (String key : propertyColumns) {
+                propertyVectors.put(key, (VarCharVector) writer.root.getVector("property_" + key));
+            }
+
+            for (String shard : shardRouter.getShards()) {
+                List<Segment> archived = coldTierStore.segments(SegmentKind.EVENTS, shard, start, end);
+                LongPredicate alsoArchived = coldTierStore.pendingDeletion(archived);
+                long[] currentId = {Long.MIN_VALUE};
+                boolean[] skipping = {false};
+                read(shard, LongRunningQuery.statement(sql, properties.getSocketTimeout(), args.toArray()), rs -> {
+                    long eventId = rs.getLong(1);
+                    if (eventId != currentId[0]) {
+                        if (currentId[0] != Long.MIN_VALUE && !skipping[0]) {
+                            writer.endRow();
+                        }
+                        currentId[0] = eventId;
+                        // Exported from its segment instead
+                        skipping[0] = alsoArchived.test(eventId);
+                        if (skipping[0]) {
+                            return;
+                        }
+                        int row = writer.row;
+                        id.setSafe(row, shardRouter.globalId(shard, eventId));
+                        setString(name, row, nameDictionary.nameFor(rs.getInt(2)));
+                        timestamp.setSafe(row, epochMilli(rs, 3));
+                        createdAt.setSafe(row, epochMilli(rs, 4));
+                        propertyVectors.values().forEach(vector -> vector.setNull(row));
+                    } else if (skipping[0]) {
+                        return;
+                    }
+                    String key = rs.getString(5);
+                    if (key != null) {
+                        setString(propertyVectors.get(key), writer.row, rs.getString(6));
+                    }
+                });
+                // IDs restart on every shard, so close the last event of each shard here
+                if (currentId[0] != Long.MIN_VALUE && !skipping[0]) {
+                    writer.endRow();
+                }
+                for (Segment segment : archived) {
+                    segment.forEachEvent(null, start, end, event -> {
+                        int row = writer.row;
+                        id.setSafe(row, shardRouter.globalId(shard, event.getId()));
+                        setString(name, row, event.getEventName());
+                        timestamp.setSafe(row, event.getTimestamp().toEpochMilli());
+                        createdAt.setSafe(row, event.getCreatedAt().toEpochMilli());
+                        propertyVectors.forEach((key, vector) -> setString(vector, row, event.getProperties().get(key)));
+                        writer.endRow();
+                    });
+                }
+            }
+            writer.finish();
+            logger.info("Exported {} events between {} and {}", writer.total, start, end);
+        }
+    }
+
+    private void read(String shard, PreparedStatementCreator statement, RowCallbackHandler rows) {
+        ShardReader reader = exportReaders.get(shard);
+        if (reader != null) {
+            reader.transaction.executeWithoutResult(status -> reader.jdbcTemplate.query(statement, rows));
+        } else {
+            shardRouter.runOnShard(shard, () -> readOnlyTransaction.executeWithoutResult(
+                    status -> jdbcTemplate.query(statement, rows)));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        rootAllocator.close();
+    }
+
+    private static Field field(String name, ArrowType type, boolean nullable) {
+        return new Field(name, new FieldType(nullable, type, null), null);
+    }
+
+    private static void setString(VarCharVector vector, int row, String value) {
+        if (value == null) {
+            vector.setNull(row);
+        } else {
+            vector.setSafe(row, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static long epochMilli(ResultSet rs, int column) throws SQLException {
+        return rs.getObject(column, OffsetDateTime.class).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Read-only transactions on one shard's {@code export-<shard>} pool.
+     */
+    private final class ShardReader {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transaction;
+
+        ShardReader(DataSource pool) {
+            this.jdbcTemplate = new JdbcTemplate(pool);
+            this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+            this.transaction = new TransactionTemplate(new DataSourceTransactionManager(pool));
+            this.transaction.setReadOnly(true);
+        }
+    }
+
+    /**
+     * Writes the rows of a reused {@link VectorSchemaRoot} as one record batch every
+     * {@code export.batch-size} rows.
+     */
+    private final class BatchWriter implements AutoCloseable {
+
+        private final VectorSchemaRoot root;
+        private final ArrowStreamWriter writer;
+        private int row;
+        private long total;
+
+        BatchWriter(VectorSchemaRoot root, OutputStream out) {
+            this.root = root;
+            this.writer = createWriter(root, out);
+            try {
+                writer.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void endRow() {
+            row++;
+            total++;
+            if (row == properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void finish() {
+            if (row > 0) {
+                flush();
+            }
+            try {
+                writer.end();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            root.setRowCount(row);
+            try {
+                writer.writeBatch();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            root.getFieldVectors().forEach(FieldVector::reset);
+            row = 0;
+        }
+
+        @Override
+        public void close() {
+            writer.close();
+            root.close();
+        }
+    }
+
+    private ArrowStreamWriter createWriter(VectorSchemaRoot root, OutputStream out) {
+        DictionaryProvider noDictionaries = new DictionaryProvider.MapDictionaryProvider();
+        return switch (properties.getCompression()) {
+            case NONE -> new ArrowStreamWriter(root, noDictionaries, Channels.newChannel(out), IpcOption.DEFAULT,
+                    NoCompressionCodec.Factory.INSTANCE, CompressionUtil.CodecType.NO_COMPRESSION);
+            case LZ4_FRAME -> new ArrowStreamWriter(root, noDictionaries, Channels.newChannel(out), IpcOption.DEFAULT,
+                    CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.LZ4_FRAME);
+            case ZSTD -> new ArrowStreamWriter(root, noDictionaries, Channels.newChannel(out), IpcOption.DEFAULT,
+                    CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.ZSTD);
+        };
+    }
+}
@@ -0,0 +1,225 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.HotTierProperties;
+import com.ehr.springcore.model.MetricDataPoint;
+import com.ehr.springcore.model.MetricRequest;
+import com.ehr.springcore.timeseries.GorillaChunk;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional in-process store for the most recent metric points, kept per metric name as a
+ * list of Gorilla-compressed chunks. Points older than the configured window are evicted,
+ * and total memory is capped by dropping the oldest sealed chunks first.
+ * <p>
+ * The store only sees metrics ingested by this instance, so it can answer queries on its
+ * own only when every write for a metric is routed here (single task, or sticky routing).
+ */
+@Service
+public class HotMetricStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotMetricStore.class);
+
+    private final HotTierProperties properties;
+    private final ConcurrentMap<String, Series> seriesByName = new ConcurrentHashMap<>();
+    private final AtomicLong memoryUsed = new AtomicLong();
+    private final AtomicLong pointCount = new AtomicLong();
+    private final Counter evictedChunks;
+    private final Counter rejectedPoints;
+    private final Instant startedAt = Instant.now();
+
+    public HotMetricStore(HotTierProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("ehr.hot.tier.memory.used", memoryUsed, AtomicLong::get)
+                .baseUnit("bytes")
+                .description("Memory held by compressed hot-tier chunks")
+                .register(meterRegistry);
+        Gauge.builder("ehr.hot.tier.points", pointCount, AtomicLong::get)
+                .description("Metric points held in the hot tier")
+                .register(meterRegistry);
+        Gauge.builder("ehr.hot.tier.series", seriesByName, ConcurrentMap::size)
+                .description("Metric names with data in the hot tier")
+                .register(meterRegistry);
+        this.evictedChunks = Counter.builder("ehr.hot.tier.evicted.chunks")
+                .description("Chunks dropped because they aged out or exceeded the memory cap")
+                .register(meterRegistry);
+        this.rejectedPoints = Counter.builder("ehr.hot.tier.rejected.points")
+                .description("Points older than the hot-tier window at ingest time")
+                .register(meterRegistry);
+    }
+
+    public void record(MetricRequest metric) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long timestamp = metric.getTimestamp().toEpochMilli();
+        if (timestamp < windowStart()) {
+            rejectedPoints.increment();
+            return;
+        }
+
+        // Appending inside compute keeps evictExpired from removing the series in between
+        long[] delta = new long[1];
+        seriesByName.compute(metric.getMetricName(), (name, series) -> {
+            Series target = series != null ? series : new Series();
+            synchronized (target) {
+                delta[0] = target.append(timestamp, metric.getValue(), metric.getUnit(), properties.getChunkSize());
+            }
+            return target;
+        });
+        pointCount.incrementAndGet();
+        if (memoryUsed.addAndGet(delta[0]) > properties.getMaxMemory().toBytes()) {
+            evictToMemoryLimit();
+        }
+    }
+
+    /**
+     * Whether the hot tier holds every point this instance ingested for the given metric
+     * and range, i.e. no chunk at or after {@code start} was evicted for memory.
+     */
+    public boolean covers(String metricName, Instant start) {
+        if (!properties.isEnabled()
+                || !properties.isServeQueries()
+                || start.isBefore(startedAt)
+                || start.toEpochMilli() < windowStart()) {
+            return false;
+        }
+        Series series = seriesByName.get(metricName);
+        if (series == null) {
+            return true;
+        }
+        synchronized (series) {
+            return start.toEpochMilli() > series.evictedThrough;
+        }
+    }
+
+    public List<MetricDataPoint> query(String metricName, Instant start, Instant end) {
+        Series series = seriesByName.get(metricName);
+        if (series == null) {
+            return new ArrayList<>();
+        }
+        List<MetricDataPoint> points = new ArrayList<>();
+        synchronized (series) {
+            for (GorillaChunk chunk : series.chunks) {
+                chunk.forEach(start.toEpochMilli(), end.toEpochMilli(), (timestamp, value) ->
+                        points.add(new MetricDataPoint(metricName, value, Instant.ofEpochMilli(timestamp), chunk.getUnit())));
+            }
+        }
+        points.sort(Comparator.comparing(MetricDataPoint::getTimestamp));
+        return points;
+    }
+
+    public long getMemoryUsed() {
+        return memoryUsed.get();
+    }
+
+    @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.SECONDS)
+    public void evictExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long cutoff = windowStart();
+        for (String name : seriesByName.keySet()) {
+            // Same lock order as record(): map bin first, then the series
+            seriesByName.computeIfPresent(name, (key, series) -> {
+                synchronized (series) {
+                    while (!series.chunks.isEmpty() && series.chunks.peekFirst().getMaxTimestamp() < cutoff) {
+                        series.evict();
+                    }
+                    return series.chunks.isEmpty() ? null : series;
+                }
+            });
+        }
+    }
+
+    private synchronized void evictToMemoryLimit() {
+        long limit = properties.getMaxMemory().toBytes();
+        while (memoryUsed.get() > limit) {
+            Series oldest = null;
+            long oldestTimestamp = Long.MAX_VALUE;
+            for (Series series : seriesByName.values()) {
+                synchronized (series) {
+                    if (series.chunks.size() > 1 && series.chunks.peekFirst().getMinTimestamp() < oldestTimestamp) {
+                        oldest = series;
+                        oldestTimestamp = series.chunks.peekFirst().getMinTimestamp();
+                    }
+                }
+            }
+            if (oldest == null) {
+                logger.warn("Hot tier is over its memory limit but has no sealed chunks left to evict");
+                return;
+            }
+            synchronized (oldest) {
+                if (oldest.chunks.size() > 1) {
+                    oldest.evict();
+                }
+            }
+        }
+    }
+
+    private void release(GorillaChunk chunk) {
+        memoryUsed.addAndGet(-chunk.sizeInBytes());
+        pointCount.addAndGet(-chunk.size());
+        evictedChunks.increment();
+    }
+
+    private long windowStart() {
+        return System.currentTimeMillis() - properties.getWindow().toMillis();
+    }
+
+    /**
+     * Chunks of a single metric, oldest first. The last chunk is the open one.
+     */
+    private final class Series {
+
+        private final Deque<GorillaChunk> chunks = new ArrayDeque<>();
+        /**
+         * Latest timestamp of any evicted chunk; ranges starting at or before it are incomplete.
+         */
+        private long evictedThrough = Long.MIN_VALUE;
+
+        void evict() {
+            GorillaChunk chunk = chunks.pollFirst();
+            evictedThrough = Math.max(evictedThrough, chunk.getMaxTimestamp());
+            release(chunk);
+        }
+
+        /**
+         * Appends a point and returns the change in memory used.
+         */
+        long append(long timestamp, double value, String unit, int chunkSize) {
+            long delta = 0;
+            GorillaChunk open = chunks.peekLast();
+            if (open == null || open.size() >= chunkSize || !Objects.equals(open.getUnit(), unit)) {
+                if (open != null) {
+                    delta -= open.sizeInBytes();
+                    open.seal();
+                    delta += open.sizeInBytes();
+                }
+                open = new GorillaChunk(unit);
+                chunks.addLast(open);
+            } else {
+                delta -= open.sizeInBytes();
+            }
+            open.append(timestamp, value);
+            return delta + open.sizeInBytes();
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.ehr.springcore.service;
 
+import com.ehr.springcore.diagnostics.IngestProcessEvent;
 import com.ehr.springcore.model.EventRequest;
 import com.ehr.springcore.model.MetricRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+
 @Service
 public class IngestionService {
 
@@ -13,21 +19,85 @@ public class IngestionService {
     
     private final PayloadStorageService storageService;
     private final DatabaseService databaseService;
+    private final HotMetricStore hotMetricStore;
+    private final MetricQueryCache metricQueryCache;
+    private final EventSketchService eventSketchService;
+    private final MetricAggregator metricAggregator;
+    private final SinkDispatcher sinkDispatcher;
+    private final AlertEngine alertEngine;
+    private final Timer eventLateness;
+    private final Timer metricLateness;
 
-    public IngestionService(PayloadStorageService storageService, DatabaseService databaseService) {
+    public IngestionService(PayloadStorageService storageService, DatabaseService databaseService,
+                            HotMetricStore hotMetricStore, MetricQueryCache metricQueryCache,
+                            EventSketchService eventSketchService, MetricAggregator metricAggregator,
+                            SinkDispatcher sinkDispatcher, AlertEngine alertEngine, MeterRegistry meterRegistry) {
         this.storageService = storageService;
         this.databaseService = databaseService;
+        this.hotMetricStore = hotMetricStore;
+        this.metricQueryCache = metricQueryCache;
+        this.eventSketchService = eventSketchService;
+        this.metricAggregator = metricAggregator;
+        this.sinkDispatcher = sinkDispatcher;
+        this.alertEngine = alertEngine;
+        this.eventLateness = latenessTimer("event", meterRegistry);
+        this.metricLateness = latenessTimer("metric", meterRegistry);
     }
 
     public void ingestEvent(EventRequest event) {
         logger.info("Ingesting event: {}", event.getEventName());
-        storageService.storePayload("EVENT", event);
-        databaseService.saveEvent(event);
+        IngestProcessEvent jfrEvent = new IngestProcessEvent();
+        jfrEvent.begin();
+        try {
+            recordLateness(eventLateness, event.getTimestamp());
+            storageService.storePayload("EVENT", event.getEventName(), event);
+            databaseService.saveEvent(event);
+            eventSketchService.record(event);
+            sinkDispatcher.publish("EVENT", event.getEventName(), event);
+        } finally {
+            jfrEvent.finish("event", event.getEventName(), false);
+        }
     }
 
     public void ingestMetric(MetricRequest metric) {
         logger.info("Ingesting metric: {}", metric.getMetricName());
-        storageService.storePayload("METRIC", metric);
-        databaseService.saveMetric(metric);
+        IngestProcessEvent jfrEvent = new IngestProcessEvent();
+        jfrEvent.begin();
+        boolean aggregated = false;
+        try {
+            recordLateness(metricLateness, metric.getTimestamp());
+            // Aggregated metrics reach the database (and invalidate cached queries) when their interval is flushed
+            MetricAggregator.Outcome outcome = metricAggregator.record(metric);
+            if (outcome == MetricAggregator.Outcome.DROPPED) {
+                // Too late to correct its interval, so it is not stored and nothing downstream may see it
+                return;
+            }
+            storageService.storePayload("METRIC", metric.getMetricName(), metric);
+            aggregated = outcome == MetricAggregator.Outcome.AGGREGATED;
+            if (!aggregated) {
+                databaseService.saveMetric(metric);
+                metricQueryCache.invalidate(metric.getMetricName(), metric.getTimestamp());
+                // The hot tier holds raw points, which aggregated metrics do not have in the database
+                hotMetricStore.record(metric);
+            }
+            alertEngine.evaluate(metric);
+            sinkDispatcher.publish("METRIC", metric.getMetricName(), metric);
+        } finally {
+            jfrEvent.finish("metric", metric.getMetricName(), aggregated);
+        }
+    }
+
+    private static Timer latenessTimer(String type, MeterRegistry meterRegistry) {
+        return Timer.builder("ehr.ingest.lateness")
+                .description("Time between a client timestamp and its arrival")
+                .tag("type", type)
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static void recordLateness(Timer timer, Instant timestamp) {
+        Duration lateness = Duration.between(timestamp, Instant.now());
+        // Timestamps ahead of the server clock count as on time
+        timer.record(lateness.isNegative() ? Duration.ZERO : lateness);
     }
 }
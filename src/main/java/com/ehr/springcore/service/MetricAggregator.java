@@ -0,0 +1,339 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.MetricAggregationProperties;
+import com.ehr.springcore.model.MetricRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Predicate;
+
+/**
+ * Server-side pre-aggregation for high-frequency metrics. Values of metrics listed under
+ * {@code metrics.aggregation.intervals} are folded into count/sum/min/max accumulators per
+ * name, unit and epoch-aligned interval instead of being written one row each.
+ * <p>
+ * Intervals are windows in event time. Each metric has a watermark that trails the latest
+ * timestamp seen for it by the grace period (never running ahead of the wall clock), and
+ * that follows the wall clock once the metric has been idle for the idle timeout. An
+ * interval is written once the watermark has passed its end. A value for an interval that
+ * is already behind the watermark is late: within the allowed lateness it is accumulated
+ * on its own and merged into the interval's stored row on the next flush, correcting it
+ * without recomputing the interval; beyond that it is dropped and counted.
+ * <p>
+ * Each accumulator is split into stripes picked by thread, so concurrent writers of the
+ * same metric rarely contend on a lock.
+ */
+@Service
+public class MetricAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricAggregator.class);
+    private static final int SHUTDOWN_FLUSH_ATTEMPTS = 3;
+
+    /**
+     * What {@link #record} did with a metric value.
+     */
+    public enum Outcome {
+        /** Not an aggregated metric; the caller stores the value itself. */
+        RAW,
+        /** Folded into its interval, possibly as a late correction. */
+        AGGREGATED,
+        /** Later than the allowed lateness; discarded. */
+        DROPPED
+    }
+
+    private final MetricAggregationProperties properties;
+    private final DatabaseService databaseService;
+    private final MetricQueryCache metricQueryCache;
+    private final ConcurrentMap<AggregateKey, Accumulator> open = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Watermark> watermarks = new ConcurrentHashMap<>();
+    private final Counter samples;
+    private final Counter corrections;
+    private final Counter dropped;
+    private final Counter flushFailures;
+    private final Timer lateness;
+
+    public MetricAggregator(MetricAggregationProperties properties, DatabaseService databaseService,
+                            MetricQueryCache metricQueryCache, MeterRegistry meterRegistry) {
+        if (properties.getStripes() < 1) {
+            throw new IllegalArgumentException("metrics.aggregation.stripes must be at least 1");
+        }
+        properties.getIntervals().forEach((name, interval) -> {
+            if (interval.toMillis() < 1) {
+                throw new IllegalArgumentException("Aggregation interval for metric '" + name + "' must be positive");
+            }
+        });
+        this.properties = properties;
+        this.databaseService = databaseService;
+        this.metricQueryCache = metricQueryCache;
+        Gauge.builder("ehr.metrics.aggregation.open", open, ConcurrentMap::size)
+                .description("Metric aggregation intervals accumulating in memory")
+                .register(meterRegistry);
+        this.samples = Counter.builder("ehr.metrics.aggregation.samples")
+                .description("Metric values folded into aggregates instead of stored raw")
+                .register(meterRegistry);
+        this.corrections = Counter.builder("ehr.metrics.aggregation.late")
+                .description("Late metric values, by whether they corrected their interval or were dropped")
+                .tag("outcome", "corrected")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("ehr.metrics.aggregation.late")
+                .description("Late metric values, by whether they corrected their interval or were dropped")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        this.lateness = Timer.builder("ehr.metrics.aggregation.lateness")
+                .description("How far behind the watermark late metric values arrive")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("ehr.metrics.aggregation.flush.failures")
+                .description("Metric aggregates that could not be written and were retried")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether values of the metric are pre-aggregated rather than stored raw.
+     */
+    public boolean isAggregated(String metricName) {
+        return properties.getIntervals().containsKey(metricName);
+    }
+
+    /**
+     * Folds the metric into its interval's accumulator if the metric is aggregated.
+     *
+     * @return {@link Outcome#RAW} if the metric is stored raw and was not recorded
+     */
+    public Outcome record(MetricRequest metric) {
+        Duration interval = properties.getIntervals().get(metric.getMetricName());
+        if (interval == null) {
+            return Outcome.RAW;
+        }
+        long now = System.currentTimeMillis();
+        Instant start = intervalStart(metric.getTimestamp(), interval);
+        long end = start.toEpochMilli() + interval.toMillis();
+        Watermark watermark = watermarks.computeIfAbsent(metric.getMetricName(), name -> new Watermark());
+        long current = watermark.current();
+        watermark.observe(metric.getTimestamp().toEpochMilli(), now);
+        if (end <= current) {
+            long behind = current - end;
+            lateness.record(behind, TimeUnit.MILLISECONDS);
+            if (behind > properties.getAllowedLateness().toMillis()) {
+                dropped.increment();
+                logger.debug("Dropped metric value for {} at {}: {} ms behind the watermark",
+                        metric.getMetricName(), metric.getTimestamp(), behind);
+                return Outcome.DROPPED;
+            }
+            corrections.increment();
+        }
+
+        AggregateKey key = new AggregateKey(metric.getMetricName(), metric.getUnit(), start, interval);
+        int stripe = stripeIndex();
+        double value = metric.getValue();
+        while (true) {
+            Accumulator accumulator = open.computeIfAbsent(key, k -> new Accumulator(properties.getStripes()));
+            if (accumulator.stripes[stripe].add(value)) {
+                samples.increment();
+                return Outcome.AGGREGATED;
+            }
+            // Drained by a concurrent flush; start over with a fresh accumulator
+            open.remove(key, accumulator);
+        }
+    }
+
+    /**
+     * Writes every interval the metric's watermark has passed, including corrections for
+     * late values.
+     */
+    @Scheduled(fixedDelayString = "#{@metricAggregationProperties.flushInterval.toMillis()}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        watermarks.values().forEach(watermark -> watermark.advance(now));
+        flush(key -> key.start().toEpochMilli() + key.interval().toMillis()
+                <= watermarks.get(key.metricName()).current());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        for (int attempt = 0; attempt < SHUTDOWN_FLUSH_ATTEMPTS && !open.isEmpty(); attempt++) {
+            if (flush(key -> true) == 0) {
+                return;
+            }
+        }
+        if (!open.isEmpty()) {
+            logger.error("Discarding {} metric aggregates that could not be written at shutdown", open.size());
+        }
+    }
+
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    /**
+     * Writes the due intervals once and returns how many failed. Failed intervals are put
+     * back and retried on the next flush.
+     */
+    private int flush(Predicate<AggregateKey> due) {
+        // Iterate over a snapshot: restoring failed intervals into the live map while
+        // iterating it could visit them again within the same flush
+        List<Map.Entry<AggregateKey, Accumulator>> entries = List.copyOf(open.entrySet());
+        Map<AggregateKey, Stripe> failed = new HashMap<>();
+        for (Map.Entry<AggregateKey, Accumulator> entry : entries) {
+            AggregateKey key = entry.getKey();
+            if (!due.test(key)) {
+                continue;
+            }
+            if (!open.remove(key, entry.getValue())) {
+                continue;
+            }
+            Stripe total = entry.getValue().drain();
+            if (total.count == 0) {
+                continue;
+            }
+            try {
+                databaseService.mergeMetricAggregate(key.metricName(), key.unit(), key.start(),
+                        total.count, total.sum, total.min, total.max);
+                metricQueryCache.invalidate(key.metricName(), key.start());
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                failed.put(key, total);
+                logger.warn("Failed to flush metric aggregate {}: {}", key, e.getMessage());
+            }
+        }
+        failed.forEach(this::restore);
+        return failed.size();
+    }
+
+    private void restore(AggregateKey key, Stripe total) {
+        while (true) {
+            Accumulator accumulator = open.computeIfAbsent(key, k -> new Accumulator(properties.getStripes()));
+            if (accumulator.stripes[0].merge(total)) {
+                return;
+            }
+            open.remove(key, accumulator);
+        }
+    }
+
+    private int stripeIndex() {
+        long hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) ((hash >>> 32) % properties.getStripes());
+    }
+
+    private static Instant intervalStart(Instant timestamp, Duration interval) {
+        long millis = interval.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(timestamp.toEpochMilli(), millis) * millis);
+    }
+
+    /**
+     * Event-time watermark of one metric. Writers only feed the striped maximum; the
+     * watermark itself is recomputed by the flush and read by writers without locking.
+     */
+    private final class Watermark {
+
+        private final LongAccumulator maxEventTime = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private volatile long current = Long.MIN_VALUE;
+        private long lastMaxEventTime = Long.MIN_VALUE;
+        private long lastAdvanced = System.currentTimeMillis();
+
+        void observe(long eventTime, long now) {
+            // Clients with fast clocks must not push the watermark into the future
+            maxEventTime.accumulate(Math.min(eventTime, now));
+        }
+
+        long current() {
+            return current;
+        }
+
+        synchronized long advance(long now) {
+            long max = maxEventTime.get();
+            if (max > lastMaxEventTime) {
+                lastMaxEventTime = max;
+                lastAdvanced = now;
+            }
+            long next = max == Long.MIN_VALUE ? Long.MIN_VALUE : max - properties.getGracePeriod().toMillis();
+            long idleTimeout = properties.getIdleTimeout().toMillis();
+            if (now - lastAdvanced >= idleTimeout) {
+                next = Math.max(next, now - idleTimeout);
+            }
+            current = Math.max(current, next);
+            return current;
+        }
+    }
+
+    private record AggregateKey(String metricName, String unit, Instant start, Duration interval) {
+    }
+
+    private static final class Accumulator {
+
+        private final Stripe[] stripes;
+
+        Accumulator(int count) {
+            stripes = new Stripe[count];
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        /**
+         * Closes every stripe and returns their combined totals. Writers that find a
+         * closed stripe retry on a new accumulator, so no value is added after draining.
+         */
+        Stripe drain() {
+            Stripe total = new Stripe();
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.closed = true;
+                    total.mergeUnlocked(stripe);
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final class Stripe {
+
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private boolean closed;
+
+        synchronized boolean add(double value) {
+            if (closed) {
+                return false;
+            }
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            return true;
+        }
+
+        synchronized boolean merge(Stripe other) {
+            if (closed) {
+                return false;
+            }
+            mergeUnlocked(other);
+            return true;
+        }
+
+        private void mergeUnlocked(Stripe other) {
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+}
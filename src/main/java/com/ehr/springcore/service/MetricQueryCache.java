@@ -0,0 +1,133 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.DataSourceRoutingProperties;
+import com.ehr.springcore.config.MetricAggregationProperties;
+import com.ehr.springcore.config.QueryCacheProperties;
+import com.ehr.springcore.model.MetricDataPoint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-through cache of metric points, split into epoch-aligned time buckets.
+ * <p>
+ * Each cached entry holds every point of one metric in one bucket, so any query range
+ * is served by the buckets it overlaps. A bucket gets the long TTL once it has settled:
+ * it ended longer ago than writes can still land in it, that is the allowed lateness and
+ * flush delay of pre-aggregated metrics, plus the replica lag bound when reads go to a
+ * replica. Until then it uses the short TTL. Ingestion invalidates only the bucket a new
+ * point falls into, which is the open bucket for in-order data and the affected closed
+ * bucket for late arrivals. Other instances do not see that invalidation, so a late raw
+ * point written elsewhere into a settled bucket is visible here after the long TTL at most.
+ * <p>
+ * Eviction is Caffeine's W-TinyLFU, bounded by the total number of cached points.
+ */
+@Service
+public class MetricQueryCache {
+
+    private final QueryCacheProperties properties;
+    private final MetricAggregationProperties aggregationProperties;
+    private final long aggregatedSettleMillis;
+    private final long replicaLagMillis;
+    private final Cache<BucketKey, List<MetricDataPoint>> cache;
+
+    public MetricQueryCache(QueryCacheProperties properties, MetricAggregationProperties aggregationProperties,
+                            DataSourceRoutingProperties routingProperties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.aggregationProperties = aggregationProperties;
+        this.aggregatedSettleMillis = aggregationProperties.getAllowedLateness()
+                .plus(aggregationProperties.getGracePeriod())
+                .plus(aggregationProperties.getFlushInterval())
+                .toMillis();
+        // Without a lag bound the replica is read regardless of lag, so there is nothing to wait for
+        Duration maxReplicaLag = routingProperties.isEnabled() ? routingProperties.getMaxReplicaLag() : null;
+        this.replicaLagMillis = maxReplicaLag == null ? 0 : maxReplicaLag.toMillis();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxPoints())
+                .weigher((BucketKey key, List<MetricDataPoint> points) -> points.size() + 1)
+                .expireAfter(new BucketExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "metricQuery");
+    }
+
+    /**
+     * Returns the points of a metric in {@code [start, end]}, loading uncached buckets
+     * through the given loader.
+     */
+    public List<MetricDataPoint> find(String metricName, Instant start, Instant end, BucketLoader loader) {
+        long bucketSize = properties.getBucketSize().toMillis();
+        long firstBucket = bucketStart(start.toEpochMilli());
+        long lastBucket = bucketStart(end.toEpochMilli());
+        if (!properties.isEnabled() || (lastBucket - firstBucket) / bucketSize + 1 > properties.getMaxBucketsPerQuery()) {
+            return loader.load(metricName, start, end.plusNanos(1));
+        }
+
+        List<MetricDataPoint> result = new ArrayList<>();
+        for (long bucket = firstBucket; bucket <= lastBucket; bucket += bucketSize) {
+            long from = bucket;
+            List<MetricDataPoint> points = cache.get(new BucketKey(metricName, bucket), key -> List.copyOf(
+                    loader.load(metricName, Instant.ofEpochMilli(from), Instant.ofEpochMilli(from + bucketSize))));
+            for (MetricDataPoint point : points) {
+                if (!point.getTimestamp().isBefore(start) && !point.getTimestamp().isAfter(end)) {
+                    result.add(point);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the cached bucket that a newly ingested point belongs to.
+     */
+    public void invalidate(String metricName, Instant timestamp) {
+        cache.invalidate(new BucketKey(metricName, bucketStart(timestamp.toEpochMilli())));
+    }
+
+    private long bucketStart(long epochMilli) {
+        return Math.floorDiv(epochMilli, properties.getBucketSize().toMillis()) * properties.getBucketSize().toMillis();
+    }
+
+    /**
+     * Loads the points of a metric in {@code [fromInclusive, toExclusive)}, ordered by timestamp.
+     */
+    @FunctionalInterface
+    public interface BucketLoader {
+        List<MetricDataPoint> load(String metricName, Instant fromInclusive, Instant toExclusive);
+    }
+
+    private record BucketKey(String metricName, long bucketStart) {
+    }
+
+    private final class BucketExpiry implements Expiry<BucketKey, List<MetricDataPoint>> {
+
+        @Override
+        public long expireAfterCreate(BucketKey key, List<MetricDataPoint> points, long currentTime) {
+            long settleMillis = replicaLagMillis
+                    + (aggregationProperties.getIntervals().containsKey(key.metricName()) ? aggregatedSettleMillis : 0);
+            boolean settled = key.bucketStart() + properties.getBucketSize().toMillis() + settleMillis
+                    <= System.currentTimeMillis();
+            return (settled ? properties.getClosedBucketTtl() : properties.getOpenBucketTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(BucketKey key, List<MetricDataPoint> points, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, points, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(BucketKey key, List<MetricDataPoint> points, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.entity.Metric;
+import com.ehr.springcore.model.MetricDataPoint;
+import com.ehr.springcore.repository.MetricRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class MetricQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricQueryService.class);
+
+    private final MetricRepository metricRepository;
+    private final HotMetricStore hotMetricStore;
+    private final MetricQueryCache metricQueryCache;
+    private final ShardRouter shardRouter;
+    private final ColdTierStore coldTierStore;
+    private final MetricAggregator metricAggregator;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MetricQueryService(MetricRepository metricRepository, HotMetricStore hotMetricStore,
+                              MetricQueryCache metricQueryCache, ShardRouter shardRouter,
+                              ColdTierStore coldTierStore, MetricAggregator metricAggregator,
+                              PlatformTransactionManager transactionManager) {
+        this.metricRepository = metricRepository;
+        this.hotMetricStore = hotMetricStore;
+        this.metricQueryCache = metricQueryCache;
+        this.shardRouter = shardRouter;
+        this.coldTierStore = coldTierStore;
+        this.metricAggregator = metricAggregator;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MetricDataPoint> findMetrics(String metricName, Instant start, Instant end) {
+        if (!metricAggregator.isAggregated(metricName) && hotMetricStore.covers(metricName, start)) {
+            logger.debug("Serving metric query for {} from hot tier", metricName);
+            return hotMetricStore.query(metricName, start, end);
+        }
+        return metricQueryCache.find(metricName, start, end, this::loadFromDatabase);
+    }
+
+    private List<MetricDataPoint> loadFromDatabase(String metricName, Instant fromInclusive, Instant toExclusive) {
+        List<MetricDataPoint> points = shardRouter.fanOut(shard -> {
+            List<Metric> metrics = readOnlyTransaction.execute(status ->
+                    metricRepository.findByMetricNameInRange(metricName, fromInclusive, toExclusive));
+            return withArchived(metrics, coldTierStore.findMetrics(shard, metricName, fromInclusive, toExclusive)).stream()
+                    .map(MetricQueryService::toDataPoint)
+                    .toList();
+        });
+        if (shardRouter.isEnabled()) {
+            points.sort(Comparator.comparing(MetricDataPoint::getTimestamp));
+        }
+        return points;
+    }
+
+    /**
+     * Merges a shard's archived rows into its database rows by timestamp, skipping rows
+     * that are in both while their segment is still being cleaned up.
+     */
+    private static List<Metric> withArchived(List<Metric> metrics, List<Metric> archived) {
+        if (archived.isEmpty()) {
+            return metrics;
+        }
+        Set<Long> ids = metrics.stream().map(Metric::getId).collect(Collectors.toSet());
+        List<Metric> merged = new ArrayList<>(metrics);
+        archived.stream().filter(metric -> !ids.contains(metric.getId())).forEach(merged::add);
+        merged.sort(Comparator.comparing(Metric::getTimestamp));
+        return merged;
+    }
+
+    private static MetricDataPoint toDataPoint(Metric metric) {
+        MetricDataPoint point = new MetricDataPoint(metric.getMetricName(), metric.getValue(), metric.getTimestamp(), metric.getUnit());
+        if (metric.getSampleCount() != null) {
+            point.setCount(metric.getSampleCount());
+            point.setSum(metric.getSumValue());
+            point.setMin(metric.getMinValue());
+            point.setMax(metric.getMaxValue());
+        }
+        return point;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.entity.NameDictionaryEntry;
+import com.ehr.springcore.repository.NameDictionaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bidirectional, lazily populated cache over the {@code name_dictionary} table.
+ * <p>
+ * Dictionary rows are looked up and inserted in their own transaction so that an ID,
+ * once cached, always refers to a committed row even if the caller's transaction rolls
+ * back. Concurrent inserts of the same name (from this or another instance) are resolved
+ * by the unique constraint: the loser re-reads the winner's row. Lookups run outside any
+ * map lock, so threads resolving the same new name may each hit the database once.
+ * <p>
+ * Names of IDs that are not cached yet are resolved on the caller's connection when it
+ * already holds one on the primary shard, as while entities are loaded. Borrowing a second
+ * connection from the same pool there could wait forever once every connection is held by
+ * a caller doing the same.
+ * <p>
+ * With sharding enabled the dictionary lives on the primary shard only, and its IDs are
+ * shared by all shards.
+ */
+@Service
+public class NameDictionaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameDictionaryService.class);
+
+    private final NameDictionaryRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    public NameDictionaryService(NameDictionaryRepository repository, PlatformTransactionManager transactionManager,
+                                 ShardRouter shardRouter, DataSource dataSource) {
+        this.repository = repository;
+        this.shardRouter = shardRouter;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the ID for the given name, inserting a new dictionary entry if needed.
+     */
+    public int idFor(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        // Not inside computeIfAbsent: the lookup borrows a pool connection and may block
+        Integer resolved = loadOrInsert(name);
+        Integer existing = idsByName.putIfAbsent(name, resolved);
+        return existing != null ? existing : resolved;
+    }
+
+    /**
+     * Returns the ID for the given name without creating one. Used by query paths,
+     * where an unknown name simply means there are no matching rows.
+     */
+    public Optional<Integer> findId(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<NameDictionaryEntry> entry = shardRouter.onPrimary(
+                () -> transactionTemplate.execute(status -> repository.findByName(name)));
+        entry.ifPresent(found -> cache(found.getId(), found.getName()));
+        return entry.map(NameDictionaryEntry::getId);
+    }
+
+    /**
+     * Returns the canonical name instance for the given ID.
+     */
+    public String nameFor(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String name = namesById.get(id);
+        if (name != null) {
+            return name;
+        }
+        String loaded;
+        if (TransactionSynchronizationManager.hasResource(dataSource) && shardRouter.isOnPrimary()) {
+            List<String> names = jdbcTemplate.queryForList("SELECT name FROM name_dictionary WHERE id = ?",
+                    String.class, id);
+            loaded = names.isEmpty() ? null : names.get(0);
+        } else {
+            // No connection held, or one of another shard's pool, so a new one cannot wait on the caller
+            loaded = shardRouter.onPrimary(() -> transactionTemplate.execute(status ->
+                    repository.findById(id).map(NameDictionaryEntry::getName).orElse(null)));
+        }
+        if (loaded == null) {
+            throw new IllegalStateException("Unknown name dictionary ID: " + id);
+        }
+        cache(id, loaded);
+        return namesById.get(id);
+    }
+
+    public int getCachedCount() {
+        return namesById.size();
+    }
+
+    private Integer loadOrInsert(String name) {
+        NameDictionaryEntry entry;
+        try {
+            entry = shardRouter.onPrimary(() -> transactionTemplate.execute(status ->
+                    repository.findByName(name).orElseGet(() -> repository.saveAndFlush(new NameDictionaryEntry(name)))));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the same name concurrently; use its row
+            entry = shardRouter.onPrimary(
+                    () -> transactionTemplate.execute(status -> repository.findByName(name).orElse(null)));
+        }
+        if (entry == null) {
+            throw new IllegalStateException("Failed to resolve name dictionary entry for: " + name);
+        }
+        namesById.putIfAbsent(entry.getId(), entry.getName());
+        logger.debug("Resolved name '{}' to dictionary ID {}", name, entry.getId());
+        return entry.getId();
+    }
+
+    private void cache(Integer id, String name) {
+        namesById.putIfAbsent(id, name);
+        idsByName.putIfAbsent(namesById.get(id), id);
+    }
+}
@@ -1,45 +1,143 @@
 package com.ehr.springcore.service;
 
 import com.ehr.springcore.config.LoggingProperties;
+import com.ehr.springcore.model.PayloadEntry;
+import com.ehr.springcore.model.PayloadPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
+/**
+ * Keeps the most recent ingested payloads in a fixed-size ring buffer. Every entry gets a
+ * monotonically increasing sequence number, which readers use as a cursor to page through
+ * the buffer without copying it, and listeners are notified of each new entry in
+ * sequence order. The type
+ * and name of the last {@code missed-history} overwritten entries are kept, so that a
+ * filtered read only counts the matching entries it missed.
+ */
 @Service
 public class PayloadStorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(PayloadStorageService.class);
     
     private final LoggingProperties loggingProperties;
-    private final List<String> payloads = Collections.synchronizedList(new ArrayList<>());
+    private final PayloadEntry[] ring;
+    private final String[] overwrittenTypes;
+    private final String[] overwrittenNames;
+    private final List<Consumer<PayloadEntry>> listeners = new CopyOnWriteArrayList<>();
+    private long nextSequence;
 
     public PayloadStorageService(LoggingProperties loggingProperties) {
         this.loggingProperties = loggingProperties;
+        this.ring = new PayloadEntry[Math.max(1, loggingProperties.getMaxSize())];
+        this.overwrittenTypes = new String[Math.max(0, loggingProperties.getMissedHistory())];
+        this.overwrittenNames = new String[overwrittenTypes.length];
     }
 
-    public void storePayload(String type, Object payload) {
+    public void storePayload(String type, String name, Object payload) {
         if (!loggingProperties.isEnabled()) {
             return;
         }
 
-        String logEntry = String.format("[%s] %s", type, payload.toString());
-        logger.info("Storing payload: {}", logEntry);
+        String text = payload.toString();
+        logger.info("Storing payload: [{}] {}", type, text);
 
-        if (payloads.size() >= loggingProperties.getMaxSize()) {
-            payloads.remove(0);
+        synchronized (ring) {
+            PayloadEntry entry = new PayloadEntry(nextSequence, type, name, Instant.now(), text);
+            int slot = (int) (nextSequence % ring.length);
+            PayloadEntry overwritten = ring[slot];
+            if (overwritten != null && overwrittenTypes.length > 0) {
+                int historySlot = (int) (overwritten.getSequence() % overwrittenTypes.length);
+                overwrittenTypes[historySlot] = overwritten.getType();
+                overwrittenNames[historySlot] = overwritten.getName();
+            }
+            ring[slot] = entry;
+            nextSequence++;
+            // Still under the lock, so that listeners see entries in sequence order
+            for (Consumer<PayloadEntry> listener : listeners) {
+                listener.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * Reads up to {@code limit} entries with a sequence number of at least {@code cursor},
+     * optionally filtered by type and name ({@code null} matches everything). Entries
+     * overwritten before the read reached them are counted as missed if they match the
+     * filters; those older than the remembered history are all counted.
+     */
+    public PayloadPage read(long cursor, int limit, String type, String name) {
+        List<PayloadEntry> entries = new ArrayList<>();
+        synchronized (ring) {
+            long oldest = Math.max(0, nextSequence - ring.length);
+            long sequence = Math.max(cursor, oldest);
+            long missed = countMissed(Math.max(0, cursor), sequence, type, name);
+            while (sequence < nextSequence && entries.size() < limit) {
+                PayloadEntry entry = ring[(int) (sequence % ring.length)];
+                if (matches(entry, type, name)) {
+                    entries.add(entry);
+                }
+                sequence++;
+            }
+            return new PayloadPage(entries, sequence, missed);
+        }
+    }
+
+    private long countMissed(long from, long to, String type, String name) {
+        if (type == null && name == null) {
+            return to - from;
+        }
+        long historyStart = Math.max(0, to - overwrittenTypes.length);
+        long missed = Math.max(0, Math.min(to, historyStart) - from);
+        for (long sequence = Math.max(from, historyStart); sequence < to; sequence++) {
+            int slot = (int) (sequence % overwrittenTypes.length);
+            if (matches(overwrittenTypes[slot], overwrittenNames[slot], type, name)) {
+                missed++;
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Registers a listener for new entries. It is called in sequence order while the
+     * buffer is locked, so it must hand the entry off without blocking.
+     */
+    public void addListener(Consumer<PayloadEntry> listener) {
+        listeners.add(listener);
+    }
+
+    public long getNextSequence() {
+        synchronized (ring) {
+            return nextSequence;
         }
-        payloads.add(logEntry);
     }
 
     public List<String> getPayloads() {
-        return new ArrayList<>(payloads);
+        List<String> payloads = new ArrayList<>();
+        for (PayloadEntry entry : read(0, ring.length, null, null).getEntries()) {
+            payloads.add(String.format("[%s] %s", entry.getType(), entry.getPayload()));
+        }
+        return payloads;
     }
 
     public int getPayloadCount() {
-        return payloads.size();
+        synchronized (ring) {
+            return (int) Math.min(nextSequence, ring.length);
+        }
+    }
+
+    static boolean matches(PayloadEntry entry, String type, String name) {
+        return matches(entry.getType(), entry.getName(), type, name);
+    }
+
+    private static boolean matches(String entryType, String entryName, String type, String name) {
+        return (type == null || type.equalsIgnoreCase(entryType))
+                && (name == null || name.equals(entryName));
     }
 }
@@ -0,0 +1,248 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.LoggingProperties;
+import com.ehr.springcore.model.PayloadEntry;
+import com.ehr.springcore.model.PayloadPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams newly stored payloads to Server-Sent Event subscribers.
+ * <p>
+ * Ingestion only appends to each matching subscriber's bounded buffer, dropping the
+ * oldest entry when it is full, and never waits for a client. A small pool of sender
+ * threads drains the buffers to the clients; a subscriber that falls behind receives a
+ * {@code dropped} event with the number of entries it lost. Every subscriber is first
+ * replayed from the ring buffer, from its cursor (or {@code Last-Event-ID}) or from the
+ * sequence at which it subscribed, so entries stored while it registers are not lost.
+ * Entries that reach its buffer as well are sent only once.
+ */
+@Service
+public class PayloadTailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayloadTailService.class);
+
+    private final PayloadStorageService storageService;
+    private final LoggingProperties properties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Semaphore subscriberPermits;
+    private final ExecutorService senders;
+    private final Counter droppedEntries;
+
+    public PayloadTailService(PayloadStorageService storageService, LoggingProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        this.properties = properties;
+        this.subscriberPermits = new Semaphore(properties.getTail().getMaxSubscribers());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "payload-tail-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("ehr.payloads.tail.subscribers", subscribers, Set::size)
+                .description("Open payload tail streams")
+                .register(meterRegistry);
+        this.droppedEntries = Counter.builder("ehr.payloads.tail.dropped")
+                .description("Payloads dropped from full subscriber buffers")
+                .register(meterRegistry);
+        storageService.addListener(this::publish);
+    }
+
+    /**
+     * Opens a stream of payloads matching the optional type and name filters, starting at
+     * {@code cursor} if given and at the next stored payload otherwise. Empty when the
+     * subscriber limit is reached.
+     */
+    public Optional<SseEmitter> subscribe(String type, String name, Long cursor) {
+        if (!subscriberPermits.tryAcquire()) {
+            return Optional.empty();
+        }
+        LoggingProperties.Tail tail = properties.getTail();
+        SseEmitter emitter = new SseEmitter(tail.getTimeout().toMillis());
+        // Read before registering: what is stored in between is replayed rather than lost
+        Subscriber subscriber = new Subscriber(emitter, type, name, tail.getBufferSize(),
+                cursor != null ? cursor : storageService.getNextSequence());
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        schedule(subscriber);
+        return Optional.of(emitter);
+    }
+
+    @Scheduled(fixedDelayString = "#{@loggingProperties.tail.heartbeat.toMillis()}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                close(subscriber);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(this::close);
+        senders.shutdownNow();
+    }
+
+    private void publish(PayloadEntry entry) {
+        for (Subscriber subscriber : subscribers) {
+            if (PayloadStorageService.matches(entry, subscriber.type, subscriber.name)) {
+                subscriber.offer(entry);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.replay) {
+                replay(subscriber);
+            }
+            List<PayloadEntry> batch = new ArrayList<>();
+            long dropped;
+            while ((dropped = subscriber.takeAll(batch)) > 0 || !batch.isEmpty()) {
+                if (dropped > 0) {
+                    droppedEntries.increment(dropped);
+                    subscriber.emitter.send(SseEmitter.event().name("dropped").data(dropped));
+                }
+                for (PayloadEntry entry : batch) {
+                    send(subscriber, entry);
+                }
+                batch.clear();
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Closing payload tail subscriber: {}", e.getMessage());
+            close(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+            if (subscriber.hasPending()) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void replay(Subscriber subscriber) throws IOException {
+        subscriber.replay = false;
+        PayloadPage page;
+        do {
+            page = storageService.read(subscriber.cursor, properties.getTail().getBufferSize(),
+                    subscriber.type, subscriber.name);
+            if (page.getMissed() > 0) {
+                subscriber.emitter.send(SseEmitter.event().name("dropped").data(page.getMissed()));
+            }
+            for (PayloadEntry entry : page.getEntries()) {
+                send(subscriber, entry);
+            }
+            subscriber.cursor = page.getNextCursor();
+        } while (!page.getEntries().isEmpty());
+    }
+
+    private void send(Subscriber subscriber, PayloadEntry entry) throws IOException {
+        // Entries reach the buffer in sequence order, so one below the cursor was already
+        // delivered by the replay
+        if (entry.getSequence() < subscriber.cursor) {
+            return;
+        }
+        subscriber.emitter.send(SseEmitter.event()
+                .id(Long.toString(entry.getSequence()))
+                .name("payload")
+                .data(entry, MediaType.APPLICATION_JSON));
+        subscriber.cursor = entry.getSequence() + 1;
+    }
+
+    private void close(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberPermits.release();
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String type;
+        private final String name;
+        private final int capacity;
+        private final ArrayDeque<PayloadEntry> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long dropped;
+        // Only touched by the sender thread currently draining this subscriber
+        private long cursor;
+        private boolean replay = true;
+
+        Subscriber(SseEmitter emitter, String type, String name, int capacity, long cursor) {
+            this.emitter = emitter;
+            this.type = type;
+            this.name = name;
+            this.capacity = capacity;
+            this.buffer = new ArrayDeque<>(capacity);
+            this.cursor = cursor;
+        }
+
+        synchronized void offer(PayloadEntry entry) {
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+                dropped++;
+            }
+            buffer.addLast(entry);
+        }
+
+        /**
+         * Moves all buffered entries into {@code batch} and returns how many were dropped
+         * since the last call.
+         */
+        synchronized long takeAll(List<PayloadEntry> batch) {
+            batch.addAll(buffer);
+            buffer.clear();
+            long count = dropped;
+            dropped = 0;
+            return count;
+        }
+
+        synchronized boolean hasPending() {
+            return !buffer.isEmpty() || dropped > 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.EventSchemaProperties;
+import com.ehr.springcore.config.EventSchemaProperties.PropertyType;
+import com.ehr.springcore.entity.PromotedPropertyValue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Looks up promoted properties and converts their values to the declared type. A value
+ * that does not convert is still kept in the generic property store, it just does not get
+ * a typed copy. A number and its string form convert alike, so that a value read back
+ * from the string store, as for archived events, matches the same filters as its typed
+ * copy did.
+ */
+@Service
+public class PromotedPropertyCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromotedPropertyCatalog.class);
+
+    private final Map<String, Map<String, PropertyType>> typesByEvent = new HashMap<>();
+    private final Counter rejectedValues;
+
+    public PromotedPropertyCatalog(EventSchemaProperties properties, MeterRegistry meterRegistry) {
+        properties.getPromoted().forEach((eventName, definitions) -> {
+            Map<String, PropertyType> types = new LinkedHashMap<>();
+            definitions.forEach(definition -> types.put(definition.getKey(), definition.getType()));
+            typesByEvent.put(eventName, Map.copyOf(types));
+        });
+        this.rejectedValues = Counter.builder("ehr.events.promoted.rejected")
+                .description("Promoted property values that did not match their declared type")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Promoted property keys of an event name and their types; empty if none are promoted.
+     */
+    public Map<String, PropertyType> forEvent(String eventName) {
+        return typesByEvent.getOrDefault(eventName, Map.of());
+    }
+
+    public Optional<PropertyType> typeOf(String eventName, String key) {
+        return Optional.ofNullable(forEvent(eventName).get(key));
+    }
+
+    /**
+     * Converts an ingested property value, or returns empty (and counts it) if it does not
+     * match the declared type.
+     */
+    public Optional<Object> convert(String eventName, String key, PropertyType type, Object value) {
+        try {
+            return Optional.of(convert(type, value));
+        } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+            rejectedValues.increment();
+            logger.warn("Property '{}' of event '{}' is not a valid {}: {}", key, eventName, type, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Parses a filter value given as a string, as in a query parameter.
+     */
+    public Object parse(PropertyType type, String value) {
+        try {
+            return convert(type, value);
+        } catch (NumberFormatException | DateTimeParseException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid " + type + " value: " + value);
+        }
+    }
+
+    private static Object convert(PropertyType type, Object value) {
+        return switch (type) {
+            case LONG -> new BigDecimal(value.toString().trim()).longValueExact();
+            case DOUBLE -> value instanceof Number number
+                    ? number.doubleValue()
+                    : Double.parseDouble(value.toString().trim());
+            case BOOLEAN -> {
+                if (value instanceof Boolean bool) {
+                    yield bool;
+                }
+                String text = value.toString().trim();
+                if (!text.equalsIgnoreCase("true") && !text.equalsIgnoreCase("false")) {
+                    throw new IllegalArgumentException("Not a boolean: " + text);
+                }
+                yield Boolean.parseBoolean(text);
+            }
+            case STRING -> {
+                String text = value.toString();
+                if (text.length() > PromotedPropertyValue.MAX_STRING_LENGTH) {
+                    throw new IllegalArgumentException("Longer than " + PromotedPropertyValue.MAX_STRING_LENGTH + " characters");
+                }
+                yield text;
+            }
+            case TIMESTAMP -> value instanceof Number number
+                    ? Instant.ofEpochMilli(number.longValue())
+                    : parseTimestamp(value.toString().trim());
+        };
+    }
+
+    private static Instant parseTimestamp(String text) {
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException e) {
+            try {
+                return Instant.ofEpochMilli(new BigDecimal(text).longValue());
+            } catch (NumberFormatException notNumeric) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.SinkProperties;
+import com.ehr.springcore.sink.CircuitBreaker;
+import com.ehr.springcore.sink.IngestSink;
+import com.ehr.springcore.sink.SinkRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans ingested events and metrics out to every enabled {@link IngestSink} bean.
+ * <p>
+ * Each sink has its own bounded queue and delivery thread, so {@link #publish} never
+ * blocks and one slow or failing sink does not hold up the request or the other sinks.
+ * The thread sends batches of up to {@code batch-size} records. A failed batch is retried
+ * with exponential backoff and jitter, and dropped after {@code max-attempts}. Repeated
+ * failures open the sink's {@link CircuitBreaker}: the thread then holds its batch and
+ * stops calling the sink until the open period ends. Records that find the queue full are
+ * dropped. Both kinds of drop are counted per sink.
+ */
+@Service
+public class SinkDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SinkDispatcher.class);
+
+    private final SinkProperties properties;
+    private final Map<String, SinkQueue> queues = new LinkedHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public SinkDispatcher(SinkProperties properties, List<IngestSink> allSinks, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        List<IngestSink> sinks = allSinks.stream().filter(IngestSink::isEnabled).toList();
+        if (sinks.isEmpty()) {
+            return;
+        }
+        if (properties.getQueueCapacity() < 1 || properties.getBatchSize() < 1 || properties.getMaxAttempts() < 1) {
+            throw new IllegalArgumentException("ingestion.sinks queue-capacity, batch-size and max-attempts must be positive");
+        }
+        for (IngestSink sink : sinks) {
+            SinkQueue queue = new SinkQueue(sink, meterRegistry);
+            if (queues.putIfAbsent(sink.getName(), queue) != null) {
+                throw new IllegalArgumentException("Duplicate sink name '" + sink.getName() + "'");
+            }
+            Thread worker = new Thread(queue::run, "sink-" + sink.getName());
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        logger.info("Forwarding ingested data to sinks {}", queues.keySet());
+    }
+
+    /**
+     * Queues a stored event or metric for every sink without waiting for delivery.
+     */
+    public void publish(String type, String name, Object payload) {
+        if (queues.isEmpty() || !running) {
+            return;
+        }
+        SinkRecord record = new SinkRecord(type, name, payload, Instant.now());
+        for (SinkQueue queue : queues.values()) {
+            if (!queue.queue.offer(record)) {
+                queue.droppedFull.increment();
+            }
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState(String sink) {
+        return queues.get(sink).breaker.getState();
+    }
+
+    /**
+     * Stops accepting records and gives the sinks a few seconds to deliver the queued ones.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private final class SinkQueue {
+
+        private final IngestSink sink;
+        private final BlockingQueue<SinkRecord> queue;
+        private final CircuitBreaker breaker;
+        private final Counter delivered;
+        private final Counter droppedFull;
+        private final Counter droppedFailed;
+        private final Timer writeLatency;
+        private volatile Instant inFlightSince;
+
+        SinkQueue(IngestSink sink, MeterRegistry meterRegistry) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            this.breaker = new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration().toNanos());
+            String name = sink.getName();
+            Gauge.builder("ehr.sink.queue.depth", queue, BlockingQueue::size)
+                    .description("Records waiting for delivery")
+                    .tag("sink", name)
+                    .register(meterRegistry);
+            Gauge.builder("ehr.sink.lag", this, SinkQueue::lagMillis)
+                    .description("Age of the oldest record not yet delivered")
+                    .tag("sink", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("ehr.sink.circuit.state", breaker, b -> b.getState().ordinal())
+                    .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                    .tag("sink", name)
+                    .register(meterRegistry);
+            this.delivered = Counter.builder("ehr.sink.delivered")
+                    .description("Records delivered")
+                    .tag("sink", name)
+                    .register(meterRegistry);
+            this.droppedFull = Counter.builder("ehr.sink.dropped")
+                    .description("Records dropped without delivery")
+                    .tag("sink", name)
+                    .tag("reason", "queue_full")
+                    .register(meterRegistry);
+            this.droppedFailed = Counter.builder("ehr.sink.dropped")
+                    .description("Records dropped without delivery")
+                    .tag("sink", name)
+                    .tag("reason", "failed")
+                    .register(meterRegistry);
+            this.writeLatency = Timer.builder("ehr.sink.write.latency")
+                    .description("Time a sink takes to accept a batch")
+                    .tag("sink", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+        }
+
+        void run() {
+            List<SinkRecord> batch = new ArrayList<>();
+            while (running || !queue.isEmpty()) {
+                try {
+                    collect(batch);
+                    if (!batch.isEmpty()) {
+                        inFlightSince = batch.get(0).receivedAt();
+                        deliver(batch);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    inFlightSince = null;
+                    batch.clear();
+                }
+            }
+        }
+
+        private void collect(List<SinkRecord> batch) throws InterruptedException {
+            SinkRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            int limit = properties.getBatchSize();
+            queue.drainTo(batch, limit - batch.size());
+            long deadline = System.nanoTime() + properties.getMaxLinger().toNanos();
+            while (batch.size() < limit) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                SinkRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+                queue.drainTo(batch, limit - batch.size());
+            }
+        }
+
+        private void deliver(List<SinkRecord> batch) throws InterruptedException {
+            int attempt = 0;
+            while (true) {
+                // An open breaker holds the batch without using up its attempts
+                while (!breaker.allowRequest(System.nanoTime())) {
+                    if (!running) {
+                        drop(batch, "circuit open at shutdown");
+                        return;
+                    }
+                    TimeUnit.NANOSECONDS.sleep(Math.min(breaker.remainingOpenNanos(System.nanoTime()),
+                            TimeUnit.MILLISECONDS.toNanos(100)) + 1);
+                }
+                long start = System.nanoTime();
+                try {
+                    sink.write(List.copyOf(batch));
+                    writeLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    breaker.onSuccess();
+                    delivered.increment(batch.size());
+                    return;
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    breaker.onFailure(System.nanoTime());
+                    attempt++;
+                    if (attempt >= properties.getMaxAttempts()) {
+                        drop(batch, e.toString());
+                        return;
+                    }
+                    logger.debug("Sink '{}' failed attempt {} for {} records: {}", sink.getName(), attempt,
+                            batch.size(), e.getMessage());
+                    TimeUnit.NANOSECONDS.sleep(backoffNanos(attempt));
+                }
+            }
+        }
+
+        private void drop(List<SinkRecord> batch, String reason) {
+            droppedFailed.increment(batch.size());
+            logger.warn("Dropped {} records for sink '{}': {}", batch.size(), sink.getName(), reason);
+        }
+
+        private long backoffNanos(int attempt) {
+            long ceiling = Math.min(properties.getMaxBackoff().toNanos(),
+                    properties.getInitialBackoff().toNanos() << Math.min(attempt - 1, 30));
+            // Half fixed, half random, so retries of several instances spread out
+            return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        }
+
+        private double lagMillis() {
+            Instant oldest = inFlightSince;
+            if (oldest == null) {
+                SinkRecord head = queue.peek();
+                oldest = head == null ? null : head.receivedAt();
+            }
+            return oldest == null ? 0 : Math.max(0, Instant.now().toEpochMilli() - oldest.toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ehr.springcore.sink;
+
+/**
+ * Consecutive-failure circuit breaker for one sink. After {@code failureThreshold}
+ * failed deliveries in a row it opens and rejects calls for {@code openNanos}. It then
+ * lets one trial call through (half-open): success closes it, failure opens it again.
+ * <p>
+ * Driven by a single delivery thread; the state may be read from any thread.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openNanos) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Whether a call may be made now. Moves an open breaker to half-open once its open
+     * period has passed.
+     */
+    public boolean allowRequest(long nowNanos) {
+        if (state == State.OPEN && nowNanos - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        return state != State.OPEN;
+    }
+
+    /**
+     * Nanoseconds until an open breaker lets a trial call through, 0 if it is not open.
+     */
+    public long remainingOpenNanos(long nowNanos) {
+        return state == State.OPEN ? Math.max(0, openedAt + openNanos - nowNanos) : 0;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public void onFailure(long nowNanos) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nowNanos;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+}
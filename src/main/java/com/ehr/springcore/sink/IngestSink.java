@@ -0,0 +1,31 @@
+package com.ehr.springcore.sink;
+
+import java.util.List;
+
+/**
+ * A downstream consumer of ingested events and metrics, such as a message bus, a file
+ * or a webhook. Every enabled {@code IngestSink} bean receives each event and metric
+ * after it has been stored.
+ * <p>
+ * Sinks are called from their own delivery thread, never from the request path, with
+ * batches of records in ingestion order. {@link #write} is called by one thread at a
+ * time. It should throw if the batch was not delivered, so that the batch is retried. A
+ * batch may therefore be delivered more than once.
+ */
+public interface IngestSink {
+
+    /**
+     * Short, unique name used as the {@code sink} tag of the sink's metrics.
+     */
+    String getName();
+
+    /**
+     * Read once at startup; a disabled sink receives nothing. Lets a sink be switched by
+     * configuration without a bean condition, which Spring AOT would fix at build time.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    void write(List<SinkRecord> records) throws Exception;
+}
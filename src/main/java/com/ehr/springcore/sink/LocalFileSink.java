@@ -0,0 +1,60 @@
+package com.ehr.springcore.sink;
+
+import com.ehr.springcore.config.SinkProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every record as one JSON line to {@code ingestion.sinks.local.path}. Stands in
+ * for a message bus or webhook during development and tests. Only used with
+ * {@code ingestion.sinks.local.enabled}.
+ */
+@Component
+public class LocalFileSink implements IngestSink {
+
+    private final boolean enabled;
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public LocalFileSink(SinkProperties properties, ObjectMapper objectMapper) throws IOException {
+        this.enabled = properties.getLocal().isEnabled();
+        this.path = properties.getLocal().getPath().toAbsolutePath();
+        this.objectMapper = objectMapper;
+        if (enabled) {
+            Files.createDirectories(path.getParent());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void write(List<SinkRecord> records) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (SinkRecord record : records) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
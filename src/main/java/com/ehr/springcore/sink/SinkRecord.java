@@ -0,0 +1,15 @@
+package com.ehr.springcore.sink;
+
+import java.time.Instant;
+
+/**
+ * One ingested event or metric on its way to the sinks.
+ *
+ * @param type       {@code EVENT} or {@code METRIC}, as in the payload log
+ * @param name       event or metric name
+ * @param payload    the {@link com.ehr.springcore.model.EventRequest} or
+ *                   {@link com.ehr.springcore.model.MetricRequest} as received
+ * @param receivedAt when the server accepted it
+ */
+public record SinkRecord(String type, String name, Object payload, Instant receivedAt) {
+}
@@ -0,0 +1,149 @@
+package com.ehr.springcore.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch (Metwally et al.) with a fixed number of counters.
+ * Each counter's true count lies in {@code [count - error, count]}; any value occurring
+ * more than {@code total / capacity} times is guaranteed to be tracked.
+ * <p>
+ * Merging sums counters and keeps the largest {@code capacity}, which preserves the
+ * error bound of the combined stream.
+ */
+public final class SpaceSaving {
+
+    private static final int MAX_VALUE_LENGTH = 256;
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String value) {
+        offer(truncate(value), 1, 0);
+    }
+
+    public void merge(SpaceSaving other) {
+        long thisMin = counters.size() < capacity ? 0 : minCount();
+        long otherMin = other.counters.size() < other.capacity ? 0 : other.minCount();
+        Map<String, Counter> merged = new HashMap<>();
+        counters.forEach((value, counter) -> {
+            Counter fromOther = other.counters.get(value);
+            merged.put(value, fromOther != null
+                    ? new Counter(counter.count + fromOther.count, counter.error + fromOther.error)
+                    : new Counter(counter.count + otherMin, counter.error + otherMin));
+        });
+        other.counters.forEach((value, counter) -> merged.computeIfAbsent(value,
+                v -> new Counter(counter.count + thisMin, counter.error + thisMin)));
+        counters.clear();
+        merged.entrySet().stream()
+                .sorted(Map.Entry.<String, Counter>comparingByValue(Comparator.comparingLong(c -> -c.count)))
+                .limit(capacity)
+                .forEach(entry -> counters.put(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Returns up to {@code limit} values ordered by estimated count, highest first.
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        counters.forEach((value, counter) -> entries.add(new Entry(value, counter.count, counter.error)));
+        entries.sort(Comparator.comparingLong(Entry::count).reversed().thenComparing(Entry::value));
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(capacity);
+            out.writeInt(counters.size());
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().count);
+                out.writeLong(entry.getValue().error);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SpaceSaving fromBytes(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            SpaceSaving sketch = new SpaceSaving(in.readInt());
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.counters.put(in.readUTF(), new Counter(in.readLong(), in.readLong()));
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void offer(String value, long count, long error) {
+        Counter counter = counters.get(value);
+        if (counter != null) {
+            counter.count += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(value, new Counter(count, error));
+            return;
+        }
+        // Replace the smallest counter; the new value inherits its count as error
+        String minValue = null;
+        Counter min = null;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            if (min == null || entry.getValue().count < min.count) {
+                minValue = entry.getKey();
+                min = entry.getValue();
+            }
+        }
+        counters.remove(minValue);
+        counters.put(value, new Counter(min.count + count, min.count + error));
+    }
+
+    private long minCount() {
+        long min = Long.MAX_VALUE;
+        for (Counter counter : counters.values()) {
+            min = Math.min(min, counter.count);
+        }
+        return counters.isEmpty() ? 0 : min;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value;
+    }
+
+    public record Entry(String value, long count, long error) {
+    }
+
+    private static final class Counter {
+
+        private long count;
+        private final long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.ehr.springcore.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Append-only block of compressed (timestamp, value) points using the encoding from
+ * Facebook's Gorilla paper: delta-of-delta timestamps and XOR-compressed doubles,
+ * packed MSB-first into a {@code long[]}.
+ * <p>
+ * Not thread-safe; callers synchronize on the owning series.
+ */
+public final class GorillaChunk {
+
+    /** Fixed per-chunk overhead used for memory accounting (header fields and array header). */
+    private static final int OVERHEAD_BYTES = 96;
+    private static final int INITIAL_WORDS = 8;
+
+    private final String unit;
+    private long[] words = new long[INITIAL_WORDS];
+    private int bitCount;
+    private int count;
+
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeading = -1;
+    private int lastTrailing;
+
+    public GorillaChunk(String unit) {
+        this.unit = unit;
+    }
+
+    public void append(long timestamp, double value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            writeBits(timestamp, 64);
+            writeBits(valueBits, 64);
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeTimestamp(delta - lastDelta);
+            writeValue(valueBits ^ lastValueBits);
+            lastDelta = delta;
+        }
+        lastTimestamp = timestamp;
+        lastValueBits = valueBits;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        count++;
+    }
+
+    /**
+     * Decodes every point with {@code from <= timestamp <= to} in insertion order.
+     */
+    public void forEach(long from, long to, PointConsumer consumer) {
+        if (count == 0 || to < minTimestamp || from > maxTimestamp) {
+            return;
+        }
+        Reader reader = new Reader();
+        long timestamp = reader.read(64);
+        long valueBits = reader.read(64);
+        long delta = 0;
+        int leading = -1;
+        int trailing = 0;
+        for (int i = 0; ; i++) {
+            if (timestamp >= from && timestamp <= to) {
+                consumer.accept(timestamp, Double.longBitsToDouble(valueBits));
+            }
+            if (i == count - 1) {
+                return;
+            }
+            delta += reader.readDeltaOfDelta();
+            timestamp += delta;
+            if (reader.read(1) != 0) {
+                if (reader.read(1) != 0) {
+                    leading = (int) reader.read(5);
+                    int length = (int) reader.read(6);
+                    if (length == 0) {
+                        length = 64;
+                    }
+                    trailing = 64 - leading - length;
+                }
+                valueBits ^= reader.read(64 - leading - trailing) << trailing;
+            }
+        }
+    }
+
+    /**
+     * Releases unused capacity once no more points will be appended.
+     */
+    public void seal() {
+        int used = (bitCount + 63) >>> 6;
+        if (used < words.length) {
+            words = Arrays.copyOf(words, Math.max(used, 1));
+        }
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public long sizeInBytes() {
+        return OVERHEAD_BYTES + (long) words.length * Long.BYTES;
+    }
+
+    private void writeTimestamp(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0b0, 1);
+        } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta + 63, 7);
+        } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta + 255, 9);
+        } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta + 2047, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (lastLeading >= 0 && leading >= lastLeading && trailing >= lastTrailing) {
+            // Meaningful bits fit inside the previous window
+            writeBits(0b10, 2);
+            writeBits(xor >>> lastTrailing, 64 - lastLeading - lastTrailing);
+        } else {
+            int length = 64 - leading - trailing;
+            writeBits(0b11, 2);
+            writeBits(leading, 5);
+            writeBits(length == 64 ? 0 : length, 6);
+            writeBits(xor >>> trailing, length);
+            lastLeading = leading;
+            lastTrailing = trailing;
+        }
+    }
+
+    private void writeBits(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        int needed = (bitCount + bits + 63) >>> 6;
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, Math.max(needed, words.length * 2));
+        }
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        int index = bitCount >>> 6;
+        int free = 64 - (bitCount & 63);
+        if (bits <= free) {
+            words[index] |= value << (free - bits);
+        } else {
+            int spill = bits - free;
+            words[index] |= value >>> spill;
+            words[index + 1] |= value << (64 - spill);
+        }
+        bitCount += bits;
+    }
+
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long timestamp, double value);
+    }
+
+    private final class Reader {
+
+        private int position;
+
+        long read(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int index = position >>> 6;
+            int free = 64 - (position & 63);
+            long result;
+            if (bits <= free) {
+                result = words[index] >>> (free - bits);
+                if (bits < 64) {
+                    result &= (1L << bits) - 1;
+                }
+            } else {
+                int spill = bits - free;
+                long high = words[index] & ((1L << free) - 1);
+                result = (high << spill) | (words[index + 1] >>> (64 - spill));
+            }
+            position += bits;
+            return result;
+        }
+
+        long readDeltaOfDelta() {
+            if (read(1) == 0) {
+                return 0;
+            }
+            if (read(1) == 0) {
+                return read(7) - 63;
+            }
+            if (read(1) == 0) {
+                return read(9) - 255;
+            }
+            if (read(1) == 0) {
+                return read(12) - 2047;
+            }
+            return read(64);
+        }
+    }
+}
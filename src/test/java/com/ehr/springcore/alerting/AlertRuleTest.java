@@ -0,0 +1,111 @@
+package com.ehr.springcore.alerting;
+
+import com.ehr.springcore.config.AlertingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertRuleTest {
+
+    private static final Instant START = Instant.parse("2024-06-01T00:00:00Z");
+
+    @Test
+    void testEvaluate_ThresholdReportsOnlyTransitions() {
+        // Arrange
+        AlertRule rule = AlertRule.of(rule(AlertingProperties.RuleType.THRESHOLD, 90.0, null));
+
+        // Act
+        List<Alert> alerts = feed(rule, 50, 95, 97, 99, 80, 70);
+
+        // Assert
+        assertEquals(2, alerts.size());
+        assertEquals(Alert.State.FIRING, alerts.get(0).state());
+        assertEquals(95.0, alerts.get(0).value());
+        assertEquals(START.plusSeconds(1), alerts.get(0).timestamp());
+        assertEquals(Alert.State.RESOLVED, alerts.get(1).state());
+        assertEquals(80.0, alerts.get(1).value());
+        assertFalse(rule.isFiring());
+    }
+
+    @Test
+    void testEvaluate_RateOfChangeOverWindow() {
+        // Arrange: more than 1 per second over the last 10 seconds, one value per second
+        AlertingProperties.Rule definition = rule(AlertingProperties.RuleType.RATE_OF_CHANGE, 1.0, null);
+        definition.setWindow(Duration.ofSeconds(10));
+        AlertRule rule = AlertRule.of(definition);
+
+        // Act: slow growth, then a jump of 30 in 5 seconds
+        List<Alert> alerts = feed(rule, 0, 0.5, 1, 1.5, 2, 2.5, 3, 3.5, 4, 4.5, 5, 11, 17, 23, 29, 35);
+        rule.evaluate(START.plusSeconds(3), 1_000);
+
+        // Assert: fires once the 10-second rate passes 1/s; the late value is ignored
+        assertEquals(1, alerts.size());
+        assertEquals(11.0, alerts.get(0).value());
+        assertEquals((11 - 0.5) / 10, alerts.get(0).signal(), 1e-9);
+        assertTrue(rule.isFiring());
+    }
+
+    @Test
+    void testEvaluate_ZScoreAndEwmaFlagSpikeInNoise() {
+        // Arrange
+        AlertingProperties.Rule zScore = rule(AlertingProperties.RuleType.Z_SCORE, 4.0, -4.0);
+        zScore.setWindowSize(50);
+        AlertingProperties.Rule ewma = rule(AlertingProperties.RuleType.EWMA, 4.0, -4.0);
+        ewma.setAlpha(0.05);
+        ewma.setMinSamples(30);
+        AlertRule zScoreRule = AlertRule.of(zScore);
+        AlertRule ewmaRule = AlertRule.of(ewma);
+        Random random = new Random(7);
+        double[] values = new double[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 100 + random.nextGaussian();
+        }
+        values[150] = 130;
+
+        // Act
+        List<Alert> zScoreAlerts = feed(zScoreRule, values);
+        List<Alert> ewmaAlerts = feed(ewmaRule, values);
+
+        // Assert: the spike fires, the next normal value resolves it
+        for (List<Alert> alerts : List.of(zScoreAlerts, ewmaAlerts)) {
+            assertEquals(2, alerts.size());
+            assertEquals(130.0, alerts.get(0).value());
+            assertTrue(alerts.get(0).signal() > 10);
+            assertEquals(Alert.State.RESOLVED, alerts.get(1).state());
+            assertEquals(START.plusSeconds(151), alerts.get(1).timestamp());
+        }
+    }
+
+    @Test
+    void testOf_RejectsRuleWithoutBounds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> AlertRule.of(rule(AlertingProperties.RuleType.THRESHOLD, null, null)));
+    }
+
+    private static AlertingProperties.Rule rule(AlertingProperties.RuleType type, Double above, Double below) {
+        AlertingProperties.Rule rule = new AlertingProperties.Rule();
+        rule.setName("test-" + type.name().toLowerCase());
+        rule.setMetric("test.metric");
+        rule.setType(type);
+        rule.setAbove(above);
+        rule.setBelow(below);
+        return rule;
+    }
+
+    private static List<Alert> feed(AlertRule rule, double... values) {
+        List<Alert> alerts = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            Alert alert = rule.evaluate(START.plusSeconds(i), values[i]);
+            if (alert != null) {
+                alerts.add(alert);
+            }
+        }
+        return alerts;
+    }
+}
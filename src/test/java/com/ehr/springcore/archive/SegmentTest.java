@@ -0,0 +1,136 @@
+package com.ehr.springcore.archive;
+
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.entity.Metric;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentTest {
+
+    private static final Instant DAY = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTrip_Metrics() throws Exception {
+        // Arrange: more rows than fit in one block, plus a pre-aggregated row without unit
+        Path file = directory.resolve("metrics-primary-20240101-000.seg");
+        try (SegmentWriter writer = new SegmentWriter(file, SegmentKind.METRICS, "primary", DAY,
+                DAY.plusSeconds(86_400), 64)) {
+            for (int i = 0; i < 200; i++) {
+                writer.append(metric(i + 1, "cpu.usage", 50.0 + i * 0.25, DAY.plusMillis(i * 15_000L + 123), "percent"));
+            }
+            Metric aggregate = metric(1_000, "agg.requests", 12.5, DAY.plusSeconds(600), null);
+            aggregate.setSampleCount(4L);
+            aggregate.setSumValue(50.0);
+            aggregate.setMinValue(10.0);
+            aggregate.setMaxValue(15.0);
+            writer.append(aggregate);
+            writer.finish();
+        }
+
+        // Act
+        Segment segment = Segment.open(file);
+        List<Metric> cpu = new ArrayList<>();
+        segment.forEachMetric("cpu.usage", DAY.plusSeconds(150), DAY.plusSeconds(300), cpu::add);
+        List<Metric> aggregates = new ArrayList<>();
+        segment.forEachMetric("agg.requests", Instant.MIN, Instant.MAX, aggregates::add);
+
+        // Assert
+        assertEquals(201, segment.getRowCount());
+        assertEquals(SegmentKind.METRICS, segment.getKind());
+        assertEquals("primary", segment.getShard());
+        assertFalse(Files.exists(directory.resolve(file.getFileName() + Segment.TEMPORARY_SUFFIX)));
+        // 150s..300s covers rows 10..19 (row 10 is at 150.123s)
+        assertEquals(10, cpu.size());
+        assertEquals(11L, cpu.get(0).getId());
+        assertEquals(DAY.plusMillis(150_123), cpu.get(0).getTimestamp());
+        assertEquals(52.5, cpu.get(0).getValue());
+        assertEquals("percent", cpu.get(0).getUnit());
+        assertEquals(cpu.get(0).getTimestamp().plusSeconds(1), cpu.get(0).getCreatedAt());
+        assertNull(cpu.get(0).getSampleCount());
+        assertEquals(1, aggregates.size());
+        Metric aggregate = aggregates.get(0);
+        assertNull(aggregate.getUnit());
+        assertEquals(4L, aggregate.getSampleCount());
+        assertEquals(50.0, aggregate.getSumValue());
+        assertEquals(10.0, aggregate.getMinValue());
+        assertEquals(15.0, aggregate.getMaxValue());
+        assertEquals(1_000L, segment.ids()[200]);
+        assertEquals(201, segment.ids().length);
+    }
+
+    @Test
+    void testRoundTrip_Events() throws Exception {
+        // Arrange
+        Path file = directory.resolve("events-primary-20240101-000.seg");
+        Map<String, String> properties = new HashMap<>();
+        properties.put("plan", "pro");
+        properties.put("duration_ms", "250");
+        properties.put("coupon", null);
+        try (SegmentWriter writer = new SegmentWriter(file, SegmentKind.EVENTS, "primary", DAY,
+                DAY.plusSeconds(86_400), 4096)) {
+            Event first = new Event("checkout.completed", DAY.plusSeconds(10), properties);
+            first.setId(7L);
+            first.setCreatedAt(DAY.plusSeconds(11));
+            writer.append(first);
+            Event second = new Event("checkout.completed", DAY.plusSeconds(20), Map.of("plan", "free"));
+            second.setId(9L);
+            second.setCreatedAt(DAY.plusSeconds(21));
+            writer.append(second);
+            writer.finish();
+        }
+
+        // Act
+        Segment segment = Segment.open(file);
+        List<Event> events = new ArrayList<>();
+        segment.forEachEvent(null, DAY, DAY.plusSeconds(60), events::add);
+        List<Event> none = new ArrayList<>();
+        segment.forEachEvent("user.login", DAY, DAY.plusSeconds(60), none::add);
+
+        // Assert
+        assertEquals(2, events.size());
+        assertEquals(7L, events.get(0).getId());
+        assertEquals(properties, events.get(0).getProperties());
+        assertTrue(events.get(0).getProperties().containsKey("coupon"));
+        assertEquals(Map.of("plan", "free"), events.get(1).getProperties());
+        assertEquals(DAY.plusSeconds(21), events.get(1).getCreatedAt());
+        assertTrue(none.isEmpty());
+        assertArrayEquals(new long[]{7L, 9L}, segment.ids());
+        assertThrows(IllegalStateException.class, () -> segment.forEachMetric(null, DAY, DAY, metric -> { }));
+    }
+
+    @Test
+    void testClose_UnfinishedWriterLeavesNoFile() {
+        // Arrange
+        Path file = directory.resolve("metrics-primary-20240101-001.seg");
+
+        // Act
+        try (SegmentWriter writer = new SegmentWriter(file, SegmentKind.METRICS, "primary", DAY,
+                DAY.plusSeconds(86_400), 16)) {
+            writer.append(metric(1, "cpu.usage", 1.0, DAY, "percent"));
+        }
+
+        // Assert
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(directory.resolve(file.getFileName() + Segment.TEMPORARY_SUFFIX)));
+    }
+
+    private static Metric metric(long id, String name, double value, Instant timestamp, String unit) {
+        Metric metric = new Metric(name, value, timestamp, unit);
+        metric.setId(id);
+        metric.setCreatedAt(timestamp.plusSeconds(1));
+        return metric;
+    }
+}
@@ -0,0 +1,146 @@
+package com.ehr.springcore.binding;
+
+import com.ehr.springcore.model.MetricRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FastBindingArgumentResolverTest {
+
+    @Test
+    void testFallback_ReplaysOversizedBodyToReadListener() throws Exception {
+        // Arrange: the first 17 bytes are consumed, the rest is still in the request stream
+        String body = "{\"metricName\":\"replayed.metric\",\"value\":1.0}";
+
+        // Act
+        Object read = resolveWithNonBlockingFallback(body, 16);
+
+        // Assert
+        assertEquals(body, read);
+    }
+
+    @Test
+    void testFallback_ReplaysFullyConsumedBodyToReadListener() throws Exception {
+        // Arrange: small enough to be consumed whole, but not a metric the fast binder accepts
+        String body = "[1, 2, 3]";
+
+        // Act
+        Object read = resolveWithNonBlockingFallback(body, 1024);
+
+        // Assert
+        assertEquals(body, read);
+    }
+
+    private Object resolveWithNonBlockingFallback(String body, int maxBodySize) throws Exception {
+        // The standard resolver stands in for one that reads the replayed body asynchronously
+        HandlerMethodArgumentResolver standardResolver = mock(HandlerMethodArgumentResolver.class);
+        when(standardResolver.resolveArgument(any(), any(), any(), any())).thenAnswer(invocation -> {
+            ServletInputStream in = invocation.<NativeWebRequest>getArgument(2)
+                    .getNativeRequest(HttpServletRequest.class).getInputStream();
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            boolean[] allRead = {false};
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[8];
+                    int count;
+                    while (in.isReady() && (count = in.read(buffer)) != -1) {
+                        received.write(buffer, 0, count);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+            assertTrue(allRead[0]);
+            assertTrue(in.isFinished());
+            return received.toString(StandardCharsets.UTF_8);
+        });
+        FastBindingArgumentResolver resolver = new FastBindingArgumentResolver(
+                new IngestionRequestBinder(new ObjectMapper()), standardResolver, maxBodySize, new SimpleMeterRegistry());
+
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest("POST", "/api/v1/metrics");
+        mockRequest.setContentType("application/json");
+        ServletInputStream stream = new NonBlockingInputStream(body.getBytes(StandardCharsets.UTF_8));
+        HttpServletRequest request = new HttpServletRequestWrapper(mockRequest) {
+            @Override
+            public ServletInputStream getInputStream() {
+                return stream;
+            }
+        };
+        MethodParameter parameter = new MethodParameter(
+                FastBindingArgumentResolverTest.class.getDeclaredMethod("ingest", MetricRequest.class), 0);
+
+        return resolver.resolveArgument(parameter, null, new ServletWebRequest(request), null);
+    }
+
+    @SuppressWarnings("unused")
+    private void ingest(@RequestBody MetricRequest request) {
+    }
+
+    /**
+     * Calls the read listener the way a container does once all of the body has arrived.
+     */
+    private static final class NonBlockingInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream data;
+
+        NonBlockingInputStream(byte[] body) {
+            this.data = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return data.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return data.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return !isFinished();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
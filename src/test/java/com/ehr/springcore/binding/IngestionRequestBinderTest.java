@@ -0,0 +1,72 @@
+package com.ehr.springcore.binding;
+
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.model.MetricRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestionRequestBinderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final IngestionRequestBinder binder = new IngestionRequestBinder(objectMapper);
+
+    @Test
+    void testReadEvent_MatchesJacksonBinding() throws Exception {
+        // Arrange
+        String json = "{\"eventName\":\"checkout.completed\",\"ignored\":{\"a\":[1,2]},"
+                + "\"timestamp\":\"2025-01-01T10:00:00.123Z\",\"properties\":{\"count\":3,\"big\":12345678901,"
+                + "\"ratio\":0.5,\"ok\":true,\"none\":null,\"tags\":[\"a\",{\"b\":1}],\"user\":{\"id\":\"42\"}}}";
+
+        // Act
+        Optional<EventRequest> fast = binder.readEvent(json.getBytes(StandardCharsets.UTF_8));
+        EventRequest expected = objectMapper.readValue(json, EventRequest.class);
+
+        // Assert
+        assertTrue(fast.isPresent());
+        assertEquals(expected.getEventName(), fast.get().getEventName());
+        assertEquals(expected.getTimestamp(), fast.get().getTimestamp());
+        assertEquals(expected.getProperties(), fast.get().getProperties());
+        assertEquals(expected.getProperties().get("big").getClass(), fast.get().getProperties().get("big").getClass());
+        assertTrue(binder.validate(fast.get()).isEmpty());
+    }
+
+    @Test
+    void testReadMetric_LeavesUnusualInputToStandardBinding() {
+        // Scalar coercions, non-UTC timestamps and malformed JSON are not handled here
+        for (String json : List.of(
+                "{\"metricName\":\"cpu\",\"value\":\"75.5\",\"timestamp\":\"2025-01-01T10:00:00Z\"}",
+                "{\"metricName\":\"cpu\",\"value\":75.5,\"timestamp\":\"2025-01-01T11:00:00+01:00\"}",
+                "{\"metricName\":\"cpu\",\"value\":75.5,\"timestamp\":1735725600}",
+                "{\"metricName\":42,\"value\":75.5,\"timestamp\":\"2025-01-01T10:00:00Z\"}",
+                "{\"metricName\":\"cpu\",\"value\":75.5",
+                "[]")) {
+            assertTrue(binder.readMetric(json.getBytes(StandardCharsets.UTF_8)).isEmpty(), json);
+        }
+    }
+
+    @Test
+    void testValidate_ReportsSameViolationsAsConstraints() {
+        // Arrange
+        Optional<MetricRequest> metric = binder.readMetric(
+                "{\"metricName\":\"  \",\"value\":null}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        List<IngestionRequestBinder.Violation> violations = binder.validate(metric.orElseThrow());
+
+        // Assert
+        assertEquals(List.of(
+                new IngestionRequestBinder.Violation("metricName", "  ", "Metric name is required"),
+                new IngestionRequestBinder.Violation("value", null, "Value is required"),
+                new IngestionRequestBinder.Violation("timestamp", null, "Timestamp is required")), violations);
+    }
+}
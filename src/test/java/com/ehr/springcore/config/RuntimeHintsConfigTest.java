@@ -0,0 +1,27 @@
+package com.ehr.springcore.config;
+
+import com.ehr.springcore.entity.Event;
+import com.ehr.springcore.entity.Metric;
+import com.ehr.springcore.entity.NameDictionaryListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuntimeHintsConfigTest {
+
+    @Test
+    void testEntityHints_Registered() {
+        RuntimeHints hints = new RuntimeHints();
+        new RuntimeHintsConfig.EntityHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Event.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Metric.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(NameDictionaryListener.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+    }
+}
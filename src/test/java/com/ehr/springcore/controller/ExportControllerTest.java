@@ -0,0 +1,165 @@
+package com.ehr.springcore.controller;
+
+import com.ehr.springcore.config.ExportProperties;
+import com.ehr.springcore.datasource.DataSourcePools;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.model.MetricRequest;
+import com.ehr.springcore.service.DatabaseService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.util.Text;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    @Qualifier("exportDataSources")
+    private DataSourcePools exportDataSources;
+
+    @Autowired
+    private ExportProperties exportProperties;
+
+    @Value("${security.api-key}")
+    private String apiKey;
+
+    @Test
+    void testExportMetrics_Success() throws Exception {
+        Instant timestamp = Instant.parse("2024-03-01T00:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            databaseService.saveMetric(new MetricRequest("export.metric", (double) i, timestamp.plusSeconds(i), "ms"));
+        }
+
+        byte[] body = export("/api/v1/export/metrics", "2024-03-01T00:00:00Z", "2024-03-01T00:01:00Z");
+
+        List<Map<String, Object>> rows = readRows(body);
+        assertEquals(5, rows.size());
+        assertEquals("export.metric", rows.get(0).get("metric_name"));
+        assertEquals(4.0, rows.get(4).get("value"));
+        assertEquals("ms", rows.get(0).get("unit"));
+    }
+
+    @Test
+    void testExportMetrics_OrderedByTimestamp() throws Exception {
+        // Arrange: saved newest first, so ID order is the reverse of timestamp order
+        Instant timestamp = Instant.parse("2024-05-01T00:00:00Z");
+        for (int i = 2; i >= 0; i--) {
+            databaseService.saveMetric(new MetricRequest("export.ordered", (double) i, timestamp.plusSeconds(i), "ms"));
+        }
+
+        // Act
+        byte[] body = export("/api/v1/export/metrics", "2024-05-01T00:00:00Z", "2024-05-01T00:01:00Z");
+
+        // Assert
+        List<Map<String, Object>> rows = readRows(body);
+        assertEquals(List.of(0.0, 1.0, 2.0), rows.stream().map(row -> row.get("value")).toList());
+    }
+
+    @Test
+    void testExportPool_SeparateFromIngestionWithoutRouting() {
+        // Act
+        HikariDataSource pool = exportDataSources.get(ShardRouter.PRIMARY);
+
+        // Assert
+        assertEquals("export-primary", pool.getPoolName());
+        assertEquals(exportProperties.getMaxConcurrentExports(), pool.getMaximumPoolSize());
+        assertEquals(0, pool.getMinimumIdle());
+        assertTrue(pool.isReadOnly());
+    }
+
+    @Test
+    void testExportEvents_FlattensKnownProperties() throws Exception {
+        Instant timestamp = Instant.parse("2024-04-01T00:00:00Z");
+        databaseService.saveEvent(new EventRequest("export.event", timestamp,
+                Map.of("userId", "u1", "screen", "home", "ignored", "x")));
+        databaseService.saveEvent(new EventRequest("export.event", timestamp.plusSeconds(1), Map.of("userId", "u2")));
+        databaseService.saveEvent(new EventRequest("export.event", timestamp.plusSeconds(2), null));
+
+        byte[] body = export("/api/v1/export/events", "2024-04-01T00:00:00Z", "2024-04-01T00:01:00Z");
+
+        List<Map<String, Object>> rows = readRows(body);
+        assertEquals(3, rows.size());
+        assertEquals("u1", rows.get(0).get("property_userId"));
+        assertEquals("home", rows.get(0).get("property_screen"));
+        assertEquals("u2", rows.get(1).get("property_userId"));
+        assertNull(rows.get(1).get("property_screen"));
+        assertNull(rows.get(2).get("property_userId"));
+        assertFalse(rows.get(0).containsKey("property_ignored"));
+    }
+
+    @Test
+    void testExportMetrics_InvalidRange() throws Exception {
+        mockMvc.perform(get("/api/v1/export/metrics")
+                        .header("X-API-Key", apiKey)
+                        .param("start", "2024-03-01T00:01:00Z")
+                        .param("end", "2024-03-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private byte[] export(String path, String start, String end) throws Exception {
+        MvcResult result = mockMvc.perform(get(path)
+                        .header("X-API-Key", apiKey)
+                        .param("start", start)
+                        .param("end", end))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.apache.arrow.stream"))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private List<Map<String, Object>> readRows(byte[] body) throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(body), allocator,
+                     CommonsCompressionFactory.INSTANCE)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    Map<String, Object> row = new HashMap<>();
+                    for (FieldVector vector : root.getFieldVectors()) {
+                        Object value = vector.getObject(i);
+                        if (value != null) {
+                            row.put(vector.getName(), value instanceof Text ? value.toString() : value);
+                        }
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+}
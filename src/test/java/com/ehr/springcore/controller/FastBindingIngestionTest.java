@@ -0,0 +1,90 @@
+package com.ehr.springcore.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fast-binding",
+        "ingestion.fast-binding.enabled=true"
+})
+@AutoConfigureMockMvc
+class FastBindingIngestionTest {
+
+    // A non-UTF-8 charset always takes the standard binding path
+    private static final String STANDARD_CONTENT_TYPE = "application/json;charset=ISO-8859-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.api-key}")
+    private String apiKey;
+
+    @Test
+    void testIngest_SameResponsesAsStandardBinding() throws Exception {
+        List<String[]> requests = List.of(
+                new String[]{"/api/v1/ingest/events",
+                        "{\"eventName\":\"user.login\",\"timestamp\":\"2025-01-01T10:00:00Z\",\"properties\":{\"userId\":\"123\"}}"},
+                new String[]{"/api/v1/ingest/events", "{\"eventName\":\" \",\"properties\":{}}"},
+                new String[]{"/api/v1/ingest/events", "{}"},
+                new String[]{"/api/v1/ingest/metrics",
+                        "{\"metricName\":\"cpu.usage\",\"value\":75.5,\"timestamp\":\"2025-01-01T10:00:00Z\",\"unit\":\"percent\"}"},
+                new String[]{"/api/v1/ingest/metrics", "{\"metricName\":null,\"value\":null,\"timestamp\":null}"},
+                new String[]{"/api/v1/ingest/metrics", "{\"metricName\":\"cpu.usage\",\"value\":\"abc\"}"});
+
+        double fallbacksBefore = totalFallbacks();
+
+        for (String[] request : requests) {
+            // Act
+            MvcResult fast = perform(request[0], "application/json", request[1]);
+            MvcResult standard = perform(request[0], STANDARD_CONTENT_TYPE, request[1]);
+
+            // Assert
+            assertEquals(standard.getResponse().getStatus(), fast.getResponse().getStatus(), request[1]);
+            assertEquals(standard.getResponse().getContentAsString(), fast.getResponse().getContentAsString(), request[1]);
+        }
+        // Only the standard requests and the string value fell back
+        assertEquals(fallbacksBefore + requests.size() + 1, totalFallbacks());
+    }
+
+    @Test
+    void testIngestMetric_FallsBackForCoercedValue() throws Exception {
+        // Arrange
+        double before = meterRegistry.counter("ehr.ingest.binding.fallbacks", "type", "metric").count();
+
+        // Act
+        MvcResult result = perform("/api/v1/ingest/metrics", "application/json",
+                "{\"metricName\":\"cpu.usage\",\"value\":\"75.5\",\"timestamp\":\"2025-01-01T10:00:00Z\"}");
+
+        // Assert
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(before + 1, meterRegistry.counter("ehr.ingest.binding.fallbacks", "type", "metric").count());
+    }
+
+    private double totalFallbacks() {
+        return meterRegistry.find("ehr.ingest.binding.fallbacks").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private MvcResult perform(String path, String contentType, String body) throws Exception {
+        return mockMvc.perform(post(path)
+                        .header("X-API-Key", apiKey)
+                        .contentType(contentType)
+                        .content(body))
+                .andReturn();
+    }
+}
@@ -0,0 +1,142 @@
+package com.ehr.springcore.controller;
+
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.service.PayloadStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PayloadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private PayloadStorageService storageService;
+
+    @Value("${security.api-key}")
+    private String apiKey;
+
+    @Test
+    void testReadPayloads_FilterByName() throws Exception {
+        ingestEvent("page.event");
+        ingestEvent("other.event");
+        ingestEvent("page.event");
+
+        mockMvc.perform(get("/api/v1/payloads")
+                        .header("X-API-Key", apiKey)
+                        .param("type", "EVENT")
+                        .param("name", "page.event"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries.length()").value(2))
+                .andExpect(jsonPath("$.entries[0].type").value("EVENT"))
+                .andExpect(jsonPath("$.entries[0].name").value("page.event"))
+                .andExpect(jsonPath("$.nextCursor").isNumber());
+    }
+
+    @Test
+    void testTailPayloads_StreamsMatchingPayloads() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/payloads/tail")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "tail.event"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        ingestEvent("ignored.event");
+        ingestEvent("tail.event");
+
+        String body = awaitContent(result.getResponse(), "tail.event");
+        assertTrue(body.contains("event:payload"));
+        assertFalse(body.contains("ignored.event"));
+    }
+
+    @Test
+    void testTailPayloads_ReplaysFromCursor() throws Exception {
+        ingestEvent("replay.event");
+
+        MvcResult result = mockMvc.perform(get("/api/v1/payloads/tail")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "replay.event")
+                        .param("cursor", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertTrue(awaitContent(result.getResponse(), "replay.event").contains("id:"));
+    }
+
+    @Test
+    void testTailPayloads_KeepsPayloadStoredWhileSubscribing() throws Exception {
+        // A payload arrives right after the tail has read the next sequence
+        doAnswer(invocation -> {
+            Object next = invocation.callRealMethod();
+            storageService.storePayload("EVENT", "race.event", "stored while subscribing");
+            return next;
+        }).when(storageService).getNextSequence();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/payloads/tail")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "race.event"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = awaitContent(result.getResponse(), "stored while subscribing");
+        assertEquals(body.indexOf("event:payload"), body.lastIndexOf("event:payload"));
+    }
+
+    @Test
+    void testReadPayloads_InvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/v1/payloads")
+                        .header("X-API-Key", apiKey)
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"));
+    }
+
+    @Test
+    void testTailPayloads_MissingApiKey() throws Exception {
+        mockMvc.perform(get("/api/v1/payloads/tail"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private void ingestEvent(String name) throws Exception {
+        mockMvc.perform(post("/api/v1/ingest/events")
+                        .header("X-API-Key", apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new EventRequest(name, Instant.now(), Map.of("source", "test")))))
+                .andExpect(status().isOk());
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = response.getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        assertTrue(body.contains(expected), body);
+        return body;
+    }
+}
@@ -0,0 +1,218 @@
+package com.ehr.springcore.controller;
+
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.model.MetricRequest;
+import com.ehr.springcore.service.DatabaseService;
+import com.ehr.springcore.service.EventSketchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    private EventSketchService eventSketchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${security.api-key}")
+    private String apiKey;
+
+    @Test
+    void testQueryMetrics_Success() throws Exception {
+        Instant timestamp = Instant.parse("2025-01-01T10:00:00Z");
+        databaseService.saveMetric(new MetricRequest("query.latency", 12.5, timestamp, "ms"));
+        databaseService.saveMetric(new MetricRequest("query.latency", 99.0, timestamp.plusSeconds(7200), "ms"));
+
+        mockMvc.perform(get("/api/v1/query/metrics")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "query.latency")
+                        .param("start", "2025-01-01T09:00:00Z")
+                        .param("end", "2025-01-01T11:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].metricName").value("query.latency"))
+                .andExpect(jsonPath("$[0].value").value(12.5))
+                .andExpect(jsonPath("$[0].unit").value("ms"));
+    }
+
+    @Test
+    void testQueryMetrics_IngestInvalidatesCachedBucket() throws Exception {
+        Instant timestamp = Instant.parse("2025-02-01T10:15:00Z");
+        databaseService.saveMetric(new MetricRequest("cached.latency", 1.0, timestamp, "ms"));
+
+        mockMvc.perform(get("/api/v1/query/metrics")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "cached.latency")
+                        .param("start", "2025-02-01T10:00:00Z")
+                        .param("end", "2025-02-01T10:59:59Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        // A late point for the same (closed) bucket must show up on the next query
+        mockMvc.perform(post("/api/v1/ingest/metrics")
+                        .header("X-API-Key", apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new MetricRequest("cached.latency", 2.0, timestamp.plusSeconds(60), "ms"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/query/metrics")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "cached.latency")
+                        .param("start", "2025-02-01T10:00:00Z")
+                        .param("end", "2025-02-01T10:59:59Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].value").value(2.0));
+    }
+
+    @Test
+    void testQueryEventSketches_MergesFlushedAndPending() throws Exception {
+        Instant timestamp = Instant.parse("2025-03-01T10:00:00Z");
+        for (int i = 0; i < 30; i++) {
+            ingestEvent(new EventRequest("sketch_view", timestamp.plusSeconds(i),
+                    Map.of("userId", "user-" + (i % 10), "screen", i % 3 == 0 ? "home" : "settings-" + (i % 2))));
+        }
+        eventSketchService.flush();
+        // Next hour, not yet flushed: new users plus repeats of flushed ones
+        for (int i = 0; i < 10; i++) {
+            ingestEvent(new EventRequest("sketch_view", timestamp.plusSeconds(3600 + i),
+                    Map.of("userId", "user-" + (i + 5), "screen", "home")));
+        }
+
+        mockMvc.perform(get("/api/v1/query/events/distinct")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "sketch_view")
+                        .param("property", "userId")
+                        .param("start", "2025-03-01T10:00:00Z")
+                        .param("end", "2025-03-01T11:30:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventName").value("sketch_view"))
+                .andExpect(jsonPath("$.distinctCount").value(15));
+
+        mockMvc.perform(get("/api/v1/query/events/top")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "sketch_view")
+                        .param("property", "screen")
+                        .param("start", "2025-03-01T10:00:00Z")
+                        .param("end", "2025-03-01T11:30:00Z")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.values.length()").value(2))
+                .andExpect(jsonPath("$.values[0].value").value("home"))
+                .andExpect(jsonPath("$.values[0].count").value(20))
+                .andExpect(jsonPath("$.values[0].maxError").value(0));
+    }
+
+    @Test
+    void testQueryEventSketches_UnknownEvent() throws Exception {
+        mockMvc.perform(get("/api/v1/query/events/distinct")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "never_seen")
+                        .param("property", "userId")
+                        .param("start", "2025-03-01T10:00:00Z")
+                        .param("end", "2025-03-01T11:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.distinctCount").value(0));
+    }
+
+    @Test
+    void testQueryEvents_FiltersOnPromotedProperty() throws Exception {
+        Instant timestamp = Instant.parse("2025-04-01T10:00:00Z");
+        ingestEvent(new EventRequest("checkout.completed", timestamp, Map.of("duration_ms", 120, "plan", "pro")));
+        ingestEvent(new EventRequest("checkout.completed", timestamp.plusSeconds(60), Map.of("duration_ms", "900", "plan", "free")));
+        ingestEvent(new EventRequest("checkout.completed", timestamp.plusSeconds(120), Map.of("duration_ms", "not-a-number")));
+
+        mockMvc.perform(get("/api/v1/query/events")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "checkout.completed")
+                        .param("property", "duration_ms")
+                        .param("op", "gt")
+                        .param("value", "500")
+                        .param("start", "2025-04-01T09:00:00Z")
+                        .param("end", "2025-04-01T11:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].eventName").value("checkout.completed"))
+                .andExpect(jsonPath("$[0].properties.duration_ms").value("900"))
+                .andExpect(jsonPath("$[0].properties.plan").value("free"));
+    }
+
+    @Test
+    void testQueryEvents_PropertyNotPromoted() throws Exception {
+        mockMvc.perform(get("/api/v1/query/events")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "checkout.completed")
+                        .param("property", "coupon")
+                        .param("op", "eq")
+                        .param("value", "SPRING")
+                        .param("start", "2025-04-01T09:00:00Z")
+                        .param("end", "2025-04-01T11:00:00Z"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"));
+    }
+
+    @Test
+    void testQueryEvents_InvalidFilterValue() throws Exception {
+        mockMvc.perform(get("/api/v1/query/events")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "checkout.completed")
+                        .param("property", "duration_ms")
+                        .param("op", "gt")
+                        .param("value", "fast")
+                        .param("start", "2025-04-01T09:00:00Z")
+                        .param("end", "2025-04-01T11:00:00Z"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid LONG value: fast"));
+    }
+
+    @Test
+    void testQueryMetrics_InvalidRange() throws Exception {
+        mockMvc.perform(get("/api/v1/query/metrics")
+                        .header("X-API-Key", apiKey)
+                        .param("name", "query.latency")
+                        .param("start", "2025-01-01T11:00:00Z")
+                        .param("end", "2025-01-01T09:00:00Z"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"));
+    }
+
+    @Test
+    void testQueryMetrics_MissingApiKey() throws Exception {
+        mockMvc.perform(get("/api/v1/query/metrics")
+                        .param("name", "query.latency")
+                        .param("start", "2025-01-01T09:00:00Z")
+                        .param("end", "2025-01-01T11:00:00Z"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private void ingestEvent(EventRequest event) throws Exception {
+        mockMvc.perform(post("/api/v1/ingest/events")
+                        .header("X-API-Key", apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,45 @@
+package com.ehr.springcore.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolMetricsTest {
+
+    private final HikariDataSource writer = ConnectionPoolWarmerTest.pool("metrics-writer", 4, 1);
+    private final HikariDataSource shard = ConnectionPoolWarmerTest.pool("metrics-shard", 2, 1);
+
+    @AfterEach
+    void tearDown() {
+        writer.close();
+        shard.close();
+    }
+
+    @Test
+    void testBindTo_ReportsSaturationPerPool() throws Exception {
+        // Arrange
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("writer", writer);
+        beanFactory.addBean("shardDataSources", new DataSourcePools(Map.of("east", shard)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new ConnectionPoolMetrics(beanFactory.getBeanProvider(HikariDataSource.class),
+                beanFactory.getBeanProvider(DataSourcePools.class)).bindTo(registry);
+
+        // Act: one of the writer's four connections in use, the shard pool not started
+        try (Connection ignored = writer.getConnection()) {
+            double writerSaturation = registry.get("ehr.datasource.pool.saturation").tag("pool", "metrics-writer").gauge().value();
+            double shardSaturation = registry.get("ehr.datasource.pool.saturation").tag("pool", "metrics-shard").gauge().value();
+
+            // Assert
+            assertEquals(0.25, writerSaturation, 1e-9);
+            assertEquals(0.0, shardSaturation, 1e-9);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ehr.springcore.datasource;
+
+import com.ehr.springcore.config.DataSourceWarmUpProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolWarmerTest {
+
+    private final HikariDataSource writer = pool("warm-writer", 4, -1);
+    private final HikariDataSource shard = pool("warm-shard", 5, 2);
+
+    @AfterEach
+    void tearDown() {
+        writer.close();
+        shard.close();
+    }
+
+    @Test
+    void testRun_FillsEveryPoolToItsTargetSize() {
+        // Arrange
+        ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(new DataSourceWarmUpProperties(),
+                beanFactory().getBeanProvider(HikariDataSource.class), beanFactory().getBeanProvider(DataSourcePools.class));
+
+        // Act
+        warmer.run(new DefaultApplicationArguments());
+
+        // Assert: an unset minimum-idle means the maximum pool size, and the warm-up
+        // connections were all returned
+        assertTrue(writer.getHikariPoolMXBean().getTotalConnections() >= 4);
+        assertTrue(shard.getHikariPoolMXBean().getTotalConnections() >= 2);
+        assertEquals(0, writer.getHikariPoolMXBean().getActiveConnections());
+        assertEquals(0, shard.getHikariPoolMXBean().getActiveConnections());
+    }
+
+    @Test
+    void testRun_DisabledLeavesPoolsUnstarted() {
+        // Arrange
+        DataSourceWarmUpProperties properties = new DataSourceWarmUpProperties();
+        properties.setEnabled(false);
+        ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(properties,
+                beanFactory().getBeanProvider(HikariDataSource.class), beanFactory().getBeanProvider(DataSourcePools.class));
+
+        // Act
+        warmer.run(new DefaultApplicationArguments());
+
+        // Assert
+        assertNull(writer.getHikariPoolMXBean());
+        assertNull(shard.getHikariPoolMXBean());
+    }
+
+    private StaticListableBeanFactory beanFactory() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("writer", writer);
+        beanFactory.addBean("shardDataSources", new DataSourcePools(Map.of("east", shard)));
+        return beanFactory;
+    }
+
+    /**
+     * A pool that is not started yet; a negative {@code minimumIdle} leaves it unset.
+     */
+    static HikariDataSource pool(String name, int maximumPoolSize, int minimumIdle) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        if (minimumIdle >= 0) {
+            dataSource.setMinimumIdle(minimumIdle);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ehr.springcore.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashShardMapTest {
+
+    @Test
+    void testShardFor_SpreadsKeysEvenly() {
+        // Arrange
+        ConsistentHashShardMap shardMap = new ConsistentHashShardMap(List.of("primary", "east", "west"), 128);
+
+        // Act
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(shardMap.shardFor("metric.name." + i), 1, Integer::sum);
+        }
+
+        // Assert
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 7_000 && count < 13_000, "count " + count));
+    }
+
+    @Test
+    void testAddShard_MovesOnlyKeysToNewShard() {
+        // Arrange
+        ConsistentHashShardMap before = new ConsistentHashShardMap(List.of("primary", "east", "west"), 128);
+        ConsistentHashShardMap after = new ConsistentHashShardMap(List.of("primary", "east", "west", "north"), 128);
+
+        // Act
+        int moved = 0;
+        for (int i = 0; i < 30_000; i++) {
+            String key = "event.name." + i;
+            if (!before.shardFor(key).equals(after.shardFor(key))) {
+                moved++;
+                assertEquals("north", after.shardFor(key));
+            }
+        }
+
+        // Assert: roughly a quarter of the keys move, all of them to the new shard
+        assertTrue(moved > 30_000 / 4 * 0.6 && moved < 30_000 / 4 * 1.4, "moved " + moved);
+    }
+}
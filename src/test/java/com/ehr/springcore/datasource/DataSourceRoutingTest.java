@@ -0,0 +1,59 @@
+package com.ehr.springcore.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing is switched on by a property read at startup, not by a bean condition, so this
+ * also holds for the AOT-processed build.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routed-writer;DB_CLOSE_DELAY=-1",
+        "datasource.routing.enabled=true",
+        "datasource.routing.reader.url=jdbc:h2:mem:routed-reader;DB_CLOSE_DELAY=-1",
+        "datasource.routing.reader.username=sa"
+})
+class DataSourceRoutingTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        for (String node : new String[]{"writer", "reader"}) {
+            JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:routed-" + node + ";DB_CLOSE_DELAY=-1", "sa", ""));
+            jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+            jdbc.execute("MERGE INTO node KEY (name) VALUES ('" + node + "')");
+        }
+    }
+
+    @Test
+    void testDataSource_RoutesByTransactionType() {
+        // Arrange
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // Act
+        String readOnlyNode = readOnly.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+        String readWriteNode = readWrite.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+
+        // Assert
+        assertEquals("reader", readOnlyNode);
+        assertEquals("writer", readWriteNode);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ehr.springcore.datasource;
+
+import com.ehr.springcore.config.DataSourceRoutingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private DriverManagerDataSource writer;
+    private DriverManagerDataSource reader;
+    private DataSourceRoutingProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        writer = new DriverManagerDataSource("jdbc:h2:mem:routing-writer;DB_CLOSE_DELAY=-1", "sa", "");
+        reader = new DriverManagerDataSource("jdbc:h2:mem:routing-reader;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(writer).execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        new JdbcTemplate(writer).execute("MERGE INTO node KEY (name) VALUES ('writer')");
+        new JdbcTemplate(reader).execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        new JdbcTemplate(reader).execute("MERGE INTO node KEY (name) VALUES ('reader')");
+        properties = new DataSourceRoutingProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testRoute_ReadWriteTransactionUsesWriter() {
+        ReadWriteRoutingDataSource routing = routing(new ReplicaLagMonitor(properties, reader));
+
+        assertEquals("writer", currentNode(routing));
+    }
+
+    @Test
+    void testRoute_ReadOnlyTransactionUsesReader() {
+        ReadWriteRoutingDataSource routing = routing(new ReplicaLagMonitor(properties, reader));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("reader", currentNode(routing));
+    }
+
+    @Test
+    void testRoute_LaggingReplicaFallsBackToWriter() {
+        properties.setMaxReplicaLag(Duration.ofSeconds(1));
+        properties.setLagQuery("SELECT 5000");
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(properties, reader);
+        ReadWriteRoutingDataSource routing = routing(monitor);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        monitor.checkLag();
+
+        assertTrue(monitor.isLagging());
+        assertEquals("writer", currentNode(routing));
+    }
+
+    private ReadWriteRoutingDataSource routing(ReplicaLagMonitor monitor) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(writer, reader, monitor);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private String currentNode(ReadWriteRoutingDataSource routing) {
+        return new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ehr.springcore.diagnostics;
+
+import com.ehr.springcore.model.MetricRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JfrEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${security.api-key}")
+    private String apiKey;
+
+    @Test
+    void testJfrEndpoint_RequiresApiKey() throws Exception {
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/actuator/jfr/unauthorized"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testJfrEndpoint_EncodedPathsStillRequireApiKey() throws Exception {
+        // Spring decodes and normalizes these to /actuator/jfr before routing
+        for (String path : List.of("/actuator/%6Afr", "/actuator/%6Afr/probe", "/actuator;x=1/jfr",
+                "/actuator//jfr", "/actuator/jfr/")) {
+            mockMvc.perform(get(URI.create(path)))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(post(URI.create(path)))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(get(URI.create("/%61pi/v1/query/metrics")))
+                .andExpect(status().isUnauthorized());
+        // Documented public endpoints stay open
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testRecording_CapturesIngestionEvents() throws Exception {
+        // Arrange
+        mockMvc.perform(post("/actuator/jfr/ingest-test")
+                        .header("X-API-Key", apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"profile\":\"default\",\"duration\":\"5m\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.profile").value("default"));
+
+        // Act
+        MetricRequest metric = new MetricRequest("jfr.test.metric", 1.5, Instant.now(), "ms");
+        mockMvc.perform(post("/api/v1/ingest/metrics")
+                        .header("X-API-Key", apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(metric)))
+                .andExpect(status().isOk());
+        byte[] dump = mockMvc.perform(get("/actuator/jfr/ingest-test").header("X-API-Key", apiKey))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        mockMvc.perform(get("/actuator/jfr").header("X-API-Key", apiKey))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ingest-test.state").value("RUNNING"));
+        mockMvc.perform(delete("/actuator/jfr/ingest-test").header("X-API-Key", apiKey))
+                .andExpect(status().isOk());
+
+        // Assert
+        Path file = Files.createTempFile("jfr-endpoint-test", ".jfr");
+        try {
+            Files.write(file, dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Set<String> types = events.stream()
+                    .filter(event -> "jfr.test.metric".equals(nameOf(event)))
+                    .map(event -> event.getEventType().getName())
+                    .collect(Collectors.toSet());
+            assertEquals(Set.of("com.ehr.IngestRequest", "com.ehr.IngestProcess", "com.ehr.Persist"), types);
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.ehr.HttpRequest")
+                    && "/api/v1/ingest/metrics".equals(event.getString("path"))
+                    && event.getBoolean("authenticated")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        mockMvc.perform(get("/actuator/jfr/ingest-test").header("X-API-Key", apiKey))
+                .andExpect(status().isNotFound());
+    }
+
+    private static String nameOf(RecordedEvent event) {
+        return event.hasField("name") ? event.getString("name") : null;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.ShardingProperties;
+import com.ehr.springcore.config.WriteBatchingProperties;
+import com.ehr.springcore.datasource.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AdaptiveWriteBatcherTest {
+
+    private AdaptiveWriteBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void testSubmit_ErrorInWriteFailsOnlyThatWrite() {
+        // Arrange
+        batcher = newBatcher(Duration.ofSeconds(30));
+
+        // Act
+        AssertionError error = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThrows(AssertionError.class, () -> batcher.submit(ShardRouter.PRIMARY, () -> {
+                    throw new AssertionError("write blew up");
+                })));
+        String next = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                batcher.submit(ShardRouter.PRIMARY, () -> "committed"));
+
+        // Assert: the writer thread survived the error
+        assertEquals("write blew up", error.getMessage());
+        assertEquals("committed", next);
+    }
+
+    @Test
+    void testSubmit_WithdrawsWriteThatTimesOutInTheQueue() throws InterruptedException {
+        // Arrange: the writer is stuck on a slow write for longer than the write timeout
+        batcher = newBatcher(Duration.ofMillis(200));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() ->
+                batcher.submit(ShardRouter.PRIMARY, () -> {
+                    started.countDown();
+                    return awaitUninterruptibly(release);
+                }));
+        started.await();
+        AtomicBoolean ran = new AtomicBoolean();
+
+        try {
+            // Act: a second write times out while still queued behind it
+            ResponseStatusException e = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                    assertThrows(ResponseStatusException.class, () ->
+                            batcher.submit(ShardRouter.PRIMARY, () -> ran.getAndSet(true))));
+
+            // Assert: the 503 means it was not written, even once the writer moves on
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        } finally {
+            release.countDown();
+        }
+        // The running write is not withdrawn, so its caller gets its outcome
+        assertTrue(assertTimeoutPreemptively(Duration.ofSeconds(5), () -> running.join()));
+        assertEquals("committed", assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                batcher.submit(ShardRouter.PRIMARY, () -> "committed")));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void testWriterStop_FailsQueuedWrites() throws InterruptedException {
+        // Arrange: one write is running, a second one waits in the queue behind it
+        batcher = newBatcher(Duration.ofSeconds(30));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() ->
+                batcher.submit(ShardRouter.PRIMARY, () -> {
+                    writer.set(Thread.currentThread());
+                    started.countDown();
+                    return awaitUninterruptibly(release);
+                }));
+        started.await();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() ->
+                batcher.submit(ShardRouter.PRIMARY, () -> "never runs"));
+        Thread.sleep(100);
+
+        // Act: interrupt the writer thread, which makes it stop after the running batch
+        writer.get().interrupt();
+        release.countDown();
+
+        // Assert
+        assertTrue(running.join());
+        CompletionException e = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThrows(CompletionException.class, queued::join));
+        assertInstanceOf(ResponseStatusException.class, e.getCause());
+    }
+
+    private static AdaptiveWriteBatcher newBatcher(Duration writeTimeout) {
+        WriteBatchingProperties properties = new WriteBatchingProperties();
+        properties.setEnabled(true);
+        properties.setWriteTimeout(writeTimeout);
+        return new AdaptiveWriteBatcher(properties, new ShardRouter(new ShardingProperties()),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    private static boolean awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.alerting.Alert;
+import com.ehr.springcore.alerting.AlertNotifier;
+import com.ehr.springcore.alerting.LoggingAlertNotifier;
+import com.ehr.springcore.config.AlertingProperties;
+import com.ehr.springcore.model.MetricRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:alerting",
+        "alerting.enabled=true",
+        "alerting.rules[0].name=cpu-high",
+        "alerting.rules[0].metric=alert.cpu",
+        "alerting.rules[0].above=90",
+        "alerting.rules[1].name=cpu-spike",
+        "alerting.rules[1].metric=alert.cpu",
+        "alerting.rules[1].type=z-score",
+        "alerting.rules[1].min-samples=5",
+        "alerting.rules[1].above=3"
+})
+class AlertEngineTest {
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    @Autowired
+    private LoggingAlertNotifier notifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testIngestMetric_FiresAlertsAsValuesArrive() throws Exception {
+        // Arrange
+        Instant timestamp = Instant.parse("2024-06-01T10:00:00Z");
+        double[] values = {40, 41, 39, 40, 42, 41, 95, 40};
+
+        // Act
+        for (int i = 0; i < values.length; i++) {
+            ingestionService.ingestMetric(new MetricRequest("alert.cpu", values[i], timestamp.plusSeconds(i), "percent"));
+        }
+        ingestionService.ingestMetric(new MetricRequest("alert.other", 99.0, timestamp, "percent"));
+
+        // Assert: both rules fire on the spike and resolve on the next value
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (notifier.recent().size() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        List<Alert> alerts = notifier.recent();
+        assertEquals(4, alerts.size());
+        assertEquals(List.of("cpu-high", "cpu-spike", "cpu-high", "cpu-spike"),
+                alerts.stream().map(Alert::rule).toList());
+        assertEquals(List.of(Alert.State.FIRING, Alert.State.FIRING, Alert.State.RESOLVED, Alert.State.RESOLVED),
+                alerts.stream().map(Alert::state).toList());
+        assertEquals(timestamp.plusSeconds(6), alerts.get(0).timestamp());
+        assertEquals(1.0, meterRegistry.get("ehr.alerts.transitions").tag("rule", "cpu-high").tag("state", "firing")
+                .counter().count());
+        assertEquals(0.0, meterRegistry.get("ehr.alerts.firing").gauge().value());
+    }
+
+    @Test
+    void testEvaluate_SkipsDisabledNotifiers() throws Exception {
+        // Arrange
+        AlertingProperties properties = new AlertingProperties();
+        properties.setEnabled(true);
+        properties.getLogNotifier().setEnabled(false);
+        AlertingProperties.Rule rule = new AlertingProperties.Rule();
+        rule.setName("disk-full");
+        rule.setMetric("alert.disk");
+        rule.setAbove(95.0);
+        properties.setRules(List.of(rule));
+        LoggingAlertNotifier disabled = new LoggingAlertNotifier(properties);
+        List<Alert> delivered = new CopyOnWriteArrayList<>();
+        AlertNotifier enabled = delivered::add;
+        AlertEngine engine = new AlertEngine(properties, List.of(disabled, enabled), new SimpleMeterRegistry());
+
+        // Act
+        engine.evaluate(new MetricRequest("alert.disk", 99.0, Instant.parse("2024-06-01T10:00:00Z"), "percent"));
+        engine.shutdown();
+
+        // Assert
+        assertEquals(1, delivered.size());
+        assertTrue(disabled.recent().isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+package com.ehr.springcore.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSizeControllerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void testAdjust_GrowsBatchesUnderBacklogAndLingersWhenQuiet() {
+        // Arrange: 50 ms target, fast commits
+        BatchSizeController controller = new BatchSizeController(50 * MS, 16, 500, 10 * MS);
+
+        // Act: writes queue up far beyond the batch size, yet stay within the target
+        for (int step = 0; step < 10; step++) {
+            controller.onBatch(2 * MS, 2_000);
+            for (int i = 0; i < 100; i++) {
+                controller.onWrite(10 * MS);
+            }
+            controller.adjust();
+        }
+        int underLoad = controller.getBatchSize();
+        // Then the queue drains and traffic becomes light
+        for (int step = 0; step < 20; step++) {
+            controller.onBatch(2 * MS, 0);
+            controller.onWrite(3 * MS);
+            controller.adjust();
+        }
+
+        // Assert
+        assertEquals(500, underLoad);
+        assertTrue(controller.getLingerNanos() > 0);
+        assertTrue(controller.getLingerNanos() <= 10 * MS);
+    }
+
+    @Test
+    void testAdjust_ShrinksBatchesWhenCommitsMissTarget() {
+        // Arrange
+        BatchSizeController controller = new BatchSizeController(50 * MS, 400, 500, 10 * MS);
+        controller.onBatch(1 * MS, 0);
+        controller.onWrite(5 * MS);
+        controller.adjust();
+        assertTrue(controller.getLingerNanos() > 0);
+
+        // Act: each commit alone takes longer than half the target
+        for (int step = 0; step < 5; step++) {
+            controller.onBatch(80 * MS, 0);
+            for (int i = 0; i < 100; i++) {
+                controller.onWrite(i < 98 ? 20 * MS : 120 * MS);
+            }
+            controller.adjust();
+        }
+
+        // Assert: p99 (120 ms) misses the target, so batches shrink and lingering stops
+        assertTrue(controller.getBatchSize() < 400);
+        assertEquals(0, controller.getLingerNanos());
+    }
+}
@@ -0,0 +1,96 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.entity.Metric;
+import com.ehr.springcore.model.MetricRequest;
+import com.ehr.springcore.repository.MetricRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batched",
+        "persistence.batching.enabled=true",
+        "persistence.batching.initial-batch-size=8",
+        "persistence.batching.max-linger=2ms"
+})
+class BatchedPersistenceTest {
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    private MetricRepository metricRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testSaveMetric_ConcurrentWritesAreGroupCommitted() throws Exception {
+        // Arrange
+        Instant timestamp = Instant.parse("2024-08-01T10:00:00Z");
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Metric>> saves = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 400; i++) {
+            double value = i;
+            saves.add(executor.submit(() ->
+                    databaseService.saveMetric(new MetricRequest("batched.metric", value, timestamp, "ms"))));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<Metric> save : saves) {
+            ids.add(save.get().getId());
+        }
+        executor.shutdown();
+
+        // Assert: every caller got its own committed row, and some commits were shared
+        assertEquals(400, ids.size());
+        assertEquals(400, metricRepository.findAll().stream()
+                .filter(metric -> timestamp.equals(metric.getTimestamp())).count());
+        var batchRows = meterRegistry.get("ehr.persistence.batch.rows").tag("shard", ShardRouter.PRIMARY).summary();
+        assertTrue(batchRows.count() < 400);
+        assertTrue(meterRegistry.get("ehr.persistence.batch.size").tag("shard", ShardRouter.PRIMARY).gauge().value() >= 1);
+    }
+
+    @Test
+    void testSaveMetric_FailingWriteDoesNotFailItsBatch() throws Exception {
+        // Arrange: a null value violates the NOT NULL column
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Instant timestamp = Instant.parse("2024-08-02T10:00:00Z");
+        List<Future<Metric>> saves = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 40; i++) {
+            Double value = i == 7 ? null : (double) i;
+            saves.add(executor.submit(() ->
+                    databaseService.saveMetric(new MetricRequest("batched.failing", value, timestamp, "ms"))));
+        }
+        int failed = 0;
+        for (Future<Metric> save : saves) {
+            try {
+                assertNotNull(save.get().getId());
+            } catch (Exception e) {
+                failed++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, failed);
+        assertEquals(39, metricRepository.findAll().stream()
+                .filter(metric -> timestamp.equals(metric.getTimestamp())).count());
+    }
+}
@@ -0,0 +1,115 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.archive.Segment;
+import com.ehr.springcore.archive.SegmentKind;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.model.EventRecord;
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.model.MetricDataPoint;
+import com.ehr.springcore.model.MetricRequest;
+import com.ehr.springcore.repository.EventRepository;
+import com.ehr.springcore.repository.MetricRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coldtier",
+        "storage.cold-tier.enabled=true",
+        "storage.cold-tier.directory=target/cold-tier-test",
+        "storage.cold-tier.retention=36500d",
+        "storage.cold-tier.archive-interval=1000d",
+        "storage.cold-tier.block-rows=8"
+})
+class ColdTierArchiveTest {
+
+    private static final Path DIRECTORY = Path.of("target/cold-tier-test");
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    private ColdTierArchiver archiver;
+
+    @Autowired
+    private ColdTierStore store;
+
+    @Autowired
+    private MetricQueryService metricQueryService;
+
+    @Autowired
+    private EventQueryService eventQueryService;
+
+    @Autowired
+    private MetricRepository metricRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @BeforeAll
+    static void cleanDirectory() throws Exception {
+        FileSystemUtils.deleteRecursively(DIRECTORY);
+    }
+
+    @Test
+    void testArchiveBefore_MovesOldRowsAndQueriesStillSeeThem() throws Exception {
+        // Arrange: two archived days and one recent day
+        Instant day1 = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 20; i++) {
+            databaseService.saveMetric(new MetricRequest("cold.cpu", (double) i, day1.plusSeconds(i * 3_600L), "percent"));
+        }
+        databaseService.saveMetric(new MetricRequest("cold.cpu", 100.0, Instant.parse("2024-01-02T12:00:00Z"), null));
+        databaseService.saveMetric(new MetricRequest("cold.cpu", 200.0, Instant.parse("2024-01-05T12:00:00Z"), "percent"));
+        // A LONG sent as 300.0 is stored as "300.0" and must still match once archived
+        databaseService.saveEvent(new EventRequest("checkout.completed", Instant.parse("2024-01-01T10:00:00Z"),
+                Map.of("duration_ms", 300.0, "plan", "pro")));
+        databaseService.saveEvent(new EventRequest("checkout.completed", Instant.parse("2024-01-02T10:00:00Z"),
+                Map.of("duration_ms", 50, "plan", "free")));
+        databaseService.saveEvent(new EventRequest("checkout.completed", Instant.parse("2024-01-05T10:00:00Z"),
+                Map.of("duration_ms", 900, "plan", "pro")));
+
+        // Act
+        long archived = archiver.archiveBefore(Instant.parse("2024-01-03T00:00:00Z"));
+
+        // Assert: old rows left the database for clean segments
+        assertEquals(23, archived);
+        assertEquals(1, metricRepository.count());
+        assertEquals(1, eventRepository.count());
+        List<Segment> metricSegments = store.segments(SegmentKind.METRICS, ShardRouter.PRIMARY);
+        assertEquals(2, metricSegments.size());
+        assertTrue(metricSegments.stream().allMatch(store::isClean));
+        assertTrue(Files.exists(DIRECTORY.resolve("metrics-primary-20240101-000.seg")));
+        assertTrue(Files.exists(DIRECTORY.resolve("events-primary-20240102-000.seg")));
+
+        // Queries merge both tiers
+        List<MetricDataPoint> points = metricQueryService.findMetrics("cold.cpu",
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-01-06T00:00:00Z"));
+        assertEquals(22, points.size());
+        assertEquals(0.0, points.get(0).getValue());
+        assertEquals(100.0, points.get(20).getValue());
+        assertNull(points.get(20).getUnit());
+        assertEquals(200.0, points.get(21).getValue());
+        List<EventRecord> events = eventQueryService.findEvents("checkout.completed", "duration_ms", "gt", "100",
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-01-06T00:00:00Z"), 10);
+        assertEquals(2, events.size());
+        assertEquals("pro", events.get(0).getProperties().get("plan"));
+        assertEquals(Instant.parse("2024-01-05T10:00:00Z"), events.get(1).getTimestamp());
+
+        // A late row for an archived day goes into a new segment
+        databaseService.saveMetric(new MetricRequest("cold.cpu", 7.5, Instant.parse("2024-01-01T23:30:00Z"), "percent"));
+        assertEquals(1, archiver.archiveBefore(Instant.parse("2024-01-03T00:00:00Z")));
+        Segment late = Segment.open(DIRECTORY.resolve("metrics-primary-20240101-001.seg"));
+        assertEquals(1, late.getRowCount());
+        assertEquals(1, metricRepository.count());
+    }
+}
@@ -6,15 +6,23 @@ import com.ehr.springcore.model.EventRequest;
 import com.ehr.springcore.model.MetricRequest;
 import com.ehr.springcore.repository.EventRepository;
 import com.ehr.springcore.repository.MetricRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,6 +39,9 @@ class DatabaseServiceTest {
     @Autowired
     private MetricRepository metricRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void testSaveEvent_Success() {
         // Arrange
@@ -185,4 +196,81 @@ class DatabaseServiceTest {
         assertTrue(savedEvent.getProperties().get("complexObject").contains("nested"));
         assertTrue(savedEvent.getProperties().get("complexObject").contains("data"));
     }
+
+    @Test
+    void testSaveEvent_SharesNameDictionaryId() {
+        // Arrange
+        EventRequest first = new EventRequest("shared.event", Instant.now(), null);
+        EventRequest second = new EventRequest("shared.event", Instant.now(), null);
+
+        // Act
+        Event firstSaved = databaseService.saveEvent(first);
+        Event secondSaved = databaseService.saveEvent(second);
+
+        // Assert
+        assertNotNull(firstSaved.getEventNameId());
+        assertEquals(firstSaved.getEventNameId(), secondSaved.getEventNameId());
+        assertEquals(2, eventRepository.findByEventNameId(firstSaved.getEventNameId()).size());
+    }
+
+    @Test
+    void testFindMetricsByName_UnknownName() {
+        // Act
+        List<Metric> metrics = metricRepository.findByMetricName("never.ingested");
+
+        // Assert
+        assertTrue(metrics.isEmpty());
+    }
+
+    @Test
+    void testLoadMetric_ResolvesNameFromDictionary() {
+        // Arrange
+        Metric savedMetric = databaseService.saveMetric(new MetricRequest("disk.free", 12.0, Instant.now(), "gb"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Metric loadedMetric = metricRepository.findById(savedMetric.getId()).orElseThrow();
+
+        // Assert
+        assertEquals("disk.free", loadedMetric.getMetricName());
+        assertEquals(savedMetric.getMetricNameId(), loadedMetric.getMetricNameId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testMergeMetricAggregate_ConcurrentFlushesShareOneRow() throws Exception {
+        // Arrange: several instances flush the same interval at once
+        Instant intervalStart = Instant.parse("2024-01-01T00:00:00Z");
+        int flushes = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(flushes);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Metric>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < flushes; i++) {
+            double value = i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return databaseService.mergeMetricAggregate("merge.race", "ms", intervalStart, 1, value, value, value);
+            }));
+        }
+        start.countDown();
+        for (Future<Metric> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        List<Metric> rows = metricRepository.findByMetricName("merge.race");
+        try {
+            assertEquals(1, rows.size());
+            assertEquals(flushes, rows.get(0).getSampleCount());
+            assertEquals(6.0, rows.get(0).getSumValue());
+            assertEquals(0.0, rows.get(0).getMinValue());
+            assertEquals(3.0, rows.get(0).getMaxValue());
+        } finally {
+            metricRepository.deleteAll(rows);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.ShardingProperties;
+import com.ehr.springcore.config.SketchProperties;
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.repository.EventSketchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EventSketchServiceTest {
+
+    @Test
+    void testFlush_DatabaseDownKeepsSketchesAndTerminates() {
+        // Arrange: every sketch write fails
+        SketchProperties properties = new SketchProperties();
+        properties.setEnabled(true);
+        properties.setDistinctProperties(List.of("userId"));
+        EventSketchRepository repository = mock(EventSketchRepository.class);
+        when(repository.findByEventNameIdAndPropertyKeyAndKindAndBucketStart(anyInt(), any(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Database unavailable"));
+        NameDictionaryService nameDictionaryService = mock(NameDictionaryService.class);
+        when(nameDictionaryService.idFor(any())).thenReturn(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EventSketchService service = new EventSketchService(properties, repository, nameDictionaryService,
+                mock(PlatformTransactionManager.class), new ShardRouter(new ShardingProperties()), meterRegistry);
+        Instant start = Instant.parse("2024-03-01T00:00:00Z");
+        for (int i = 0; i < 20; i++) {
+            service.record(new EventRequest("sketch.event", start.plus(Duration.ofHours(i)), Map.of("userId", "u" + i)));
+        }
+
+        // Act
+        int failed = assertTimeoutPreemptively(Duration.ofSeconds(10), service::flush);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), service::flushOnShutdown);
+
+        // Assert: each sketch was tried once per flush, one flush plus three at shutdown
+        assertEquals(20, failed);
+        assertEquals(20, service.getPendingCount());
+        verify(repository, times(80)).findByEventNameIdAndPropertyKeyAndKindAndBucketStart(anyInt(), any(), any(), any());
+        assertEquals(80, meterRegistry.get("ehr.sketches.flush.failures").counter().count());
+    }
+}
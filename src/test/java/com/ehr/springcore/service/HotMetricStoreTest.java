@@ -0,0 +1,49 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.HotTierProperties;
+import com.ehr.springcore.model.MetricRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotMetricStoreTest {
+
+    @Test
+    void testCovers_ExcludesRangesReachingIntoChunksEvictedForMemory() {
+        // Arrange: two points per chunk and no room for anything but the open chunk
+        HotTierProperties properties = new HotTierProperties();
+        properties.setEnabled(true);
+        properties.setServeQueries(true);
+        properties.setChunkSize(2);
+        properties.setMaxMemory(DataSize.ofBytes(1));
+        HotMetricStore store = new HotMetricStore(properties, new SimpleMeterRegistry());
+        Instant base = Instant.now().plusSeconds(60);
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            store.record(new MetricRequest("hot.metric", (double) i, base.plusSeconds(i), "ms"));
+        }
+
+        // Assert: points 0-3 were evicted, 4 and 5 are still held
+        assertFalse(store.covers("hot.metric", base));
+        assertFalse(store.covers("hot.metric", base.plusSeconds(3)));
+        assertTrue(store.covers("hot.metric", base.plusSeconds(4)));
+        assertTrue(store.covers("other.metric", base));
+        assertEquals(2, store.query("hot.metric", base, base.plusSeconds(10)).size());
+    }
+
+    @Test
+    void testCovers_ServeQueriesIsOffByDefault() {
+        // Arrange
+        HotTierProperties properties = new HotTierProperties();
+        properties.setEnabled(true);
+        HotMetricStore store = new HotMetricStore(properties, new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertFalse(store.covers("hot.metric", Instant.now().plusSeconds(60)));
+    }
+}
@@ -0,0 +1,198 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.DataSourceRoutingProperties;
+import com.ehr.springcore.config.MetricAggregationProperties;
+import com.ehr.springcore.config.QueryCacheProperties;
+import com.ehr.springcore.model.MetricDataPoint;
+import com.ehr.springcore.model.MetricRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class MetricAggregatorTest {
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    @Autowired
+    private MetricAggregator metricAggregator;
+
+    @Autowired
+    private MetricQueryService metricQueryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PayloadStorageService storageService;
+
+    @Test
+    void testFlush_WritesIntervalOnceWatermarkPassesIt() {
+        // Arrange: the agg.* metrics are aggregated per minute in the test configuration
+        Instant minute = Instant.now().minus(30, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MINUTES);
+        for (int i = 1; i <= 100; i++) {
+            ingestionService.ingestMetric(new MetricRequest("agg.requests", (double) i, minute.plusMillis(i * 500L), "count"));
+        }
+
+        // Act: nothing later has been seen yet, so the interval stays open
+        metricAggregator.flush();
+        List<MetricDataPoint> beforeWatermark = metricQueryService.findMetrics("agg.requests", minute, minute.plusSeconds(60));
+        ingestionService.ingestMetric(new MetricRequest("agg.requests", 1.0, minute.plusSeconds(125), "count"));
+        metricAggregator.flush();
+        List<MetricDataPoint> points = metricQueryService.findMetrics("agg.requests", minute, minute.plusSeconds(60));
+
+        // Assert
+        assertTrue(beforeWatermark.isEmpty());
+        assertEquals(1, points.size());
+        MetricDataPoint point = points.get(0);
+        assertEquals(minute, point.getTimestamp());
+        assertEquals(100L, point.getCount());
+        assertEquals(5050.0, point.getSum());
+        assertEquals(1.0, point.getMin());
+        assertEquals(100.0, point.getMax());
+        assertEquals(50.5, point.getValue());
+    }
+
+    @Test
+    void testRecord_LateValuesCorrectStoredRowOrAreDropped() {
+        // Arrange: close an interval by moving the watermark past it
+        Instant minute = Instant.now().minus(20, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MINUTES);
+        ingestionService.ingestMetric(new MetricRequest("agg.late", 10.0, minute.plusSeconds(10), "count"));
+        ingestionService.ingestMetric(new MetricRequest("agg.late", 1.0, minute.plusSeconds(185), "count"));
+        metricAggregator.flush();
+        double droppedBefore = meterRegistry.counter("ehr.metrics.aggregation.late", "outcome", "dropped").count();
+        long cursor = storageService.getNextSequence();
+
+        // Act: one late value within the allowed lateness, one far beyond it
+        ingestionService.ingestMetric(new MetricRequest("agg.late", 30.0, minute.plusSeconds(20), "count"));
+        ingestionService.ingestMetric(new MetricRequest("agg.late", 5.0, minute.minus(3, ChronoUnit.DAYS), "count"));
+        metricAggregator.flush();
+        List<MetricDataPoint> points = metricQueryService.findMetrics("agg.late", minute, minute.plusSeconds(60));
+
+        // Assert: the stored row was corrected in place
+        assertEquals(1, points.size());
+        assertEquals(2L, points.get(0).getCount());
+        assertEquals(40.0, points.get(0).getSum());
+        assertEquals(30.0, points.get(0).getMax());
+        assertEquals(20.0, points.get(0).getValue());
+        assertEquals(droppedBefore + 1, meterRegistry.counter("ehr.metrics.aggregation.late", "outcome", "dropped").count());
+        assertTrue(metricQueryService.findMetrics("agg.late", minute.minus(4, ChronoUnit.DAYS),
+                minute.minus(2, ChronoUnit.DAYS)).isEmpty());
+        // The dropped value did not reach the payload log either
+        assertEquals(1, storageService.read(cursor, 10, "METRIC", "agg.late").getEntries().size());
+    }
+
+    @Test
+    void testRecord_LosesNoValuesWhileFlushingConcurrently() throws Exception {
+        // Arrange: the interval is already behind the watermark, so every flush writes to it
+        Instant minute = Instant.now().minus(10, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MINUTES);
+        metricAggregator.record(new MetricRequest("agg.concurrent", 1.0, minute.plusSeconds(185), "count"));
+        metricAggregator.flush();
+        int threads = 4;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        // Act
+        Future<?> flusher = executor.submit(() -> {
+            while (writing.get()) {
+                metricAggregator.flush();
+            }
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    metricAggregator.record(new MetricRequest("agg.concurrent", 1.0, minute.plusSeconds(i % 60), "count"));
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        writing.set(false);
+        flusher.get();
+        executor.shutdown();
+        metricAggregator.flush();
+
+        // Assert: every correction was merged into the same row
+        List<MetricDataPoint> points = metricQueryService.findMetrics("agg.concurrent", minute, minute.plusSeconds(60));
+        assertEquals(1, points.size());
+        assertEquals((long) threads * perThread, points.get(0).getCount());
+        assertEquals(minute, points.get(0).getTimestamp());
+    }
+
+    @Test
+    void testFlushOnShutdown_DatabaseDownKeepsAggregatesAndTerminates() {
+        // Arrange: a standalone aggregator whose every write fails
+        MetricAggregationProperties properties = new MetricAggregationProperties();
+        properties.setIntervals(Map.of("agg.down", Duration.ofMinutes(1)));
+        DatabaseService databaseService = mock(DatabaseService.class);
+        when(databaseService.mergeMetricAggregate(any(), any(), any(), anyLong(), anyDouble(), anyDouble(), anyDouble()))
+                .thenThrow(new DataAccessResourceFailureException("Database unavailable"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MetricQueryCache queryCache = new MetricQueryCache(new QueryCacheProperties(), properties,
+                new DataSourceRoutingProperties(), registry);
+        MetricAggregator aggregator = new MetricAggregator(properties, databaseService, queryCache, registry);
+        Instant start = Instant.parse("2024-03-01T00:00:00Z");
+        for (int i = 0; i < 20; i++) {
+            aggregator.record(new MetricRequest("agg.down", 1.0, start.plus(Duration.ofMinutes(i)), "count"));
+        }
+
+        // Act
+        assertTimeoutPreemptively(Duration.ofSeconds(10), aggregator::flushOnShutdown);
+
+        // Assert: each interval was tried once per attempt and is still open
+        assertEquals(20, aggregator.getOpenCount());
+        verify(databaseService, times(60))
+                .mergeMetricAggregate(any(), any(), any(), anyLong(), anyDouble(), anyDouble(), anyDouble());
+        assertEquals(60, registry.get("ehr.metrics.aggregation.flush.failures").counter().count());
+    }
+
+    @Test
+    void testRecord_ReportsValuesBeyondAllowedLatenessAsDropped() {
+        // Arrange
+        MetricAggregationProperties properties = new MetricAggregationProperties();
+        properties.setIntervals(Map.of("agg.dropped", Duration.ofMinutes(1)));
+        properties.setAllowedLateness(Duration.ofMinutes(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MetricQueryCache queryCache = new MetricQueryCache(new QueryCacheProperties(), properties,
+                new DataSourceRoutingProperties(), registry);
+        MetricAggregator aggregator = new MetricAggregator(properties, mock(DatabaseService.class), queryCache, registry);
+        Instant now = Instant.now();
+        aggregator.record(new MetricRequest("agg.dropped", 1.0, now, "count"));
+        aggregator.flush();
+
+        // Act
+        MetricAggregator.Outcome corrected = aggregator.record(new MetricRequest("agg.dropped", 1.0,
+                now.minus(Duration.ofMinutes(3)), "count"));
+        MetricAggregator.Outcome dropped = aggregator.record(new MetricRequest("agg.dropped", 1.0,
+                now.minus(Duration.ofHours(1)), "count"));
+        MetricAggregator.Outcome raw = aggregator.record(new MetricRequest("not.aggregated", 1.0, now, "count"));
+
+        // Assert
+        assertEquals(MetricAggregator.Outcome.AGGREGATED, corrected);
+        assertEquals(MetricAggregator.Outcome.DROPPED, dropped);
+        assertEquals(MetricAggregator.Outcome.RAW, raw);
+        assertEquals(1, registry.get("ehr.metrics.aggregation.late").tag("outcome", "dropped").counter().count());
+    }
+}
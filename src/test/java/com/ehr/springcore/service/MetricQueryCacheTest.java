@@ -0,0 +1,57 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.DataSourceRoutingProperties;
+import com.ehr.springcore.config.MetricAggregationProperties;
+import com.ehr.springcore.config.QueryCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricQueryCacheTest {
+
+    @Test
+    void testFind_KeepsBucketsShortUntilLateWritesCanNoLongerLand() {
+        // Arrange: open buckets are not cached at all, settled ones for an hour
+        QueryCacheProperties properties = new QueryCacheProperties();
+        properties.setOpenBucketTtl(Duration.ZERO);
+        MetricAggregationProperties aggregationProperties = new MetricAggregationProperties();
+        aggregationProperties.setIntervals(Map.of("agg.cpu", Duration.ofMinutes(1)));
+        aggregationProperties.setAllowedLateness(Duration.ofHours(24));
+        DataSourceRoutingProperties routingProperties = new DataSourceRoutingProperties();
+        routingProperties.setEnabled(true);
+        routingProperties.setMaxReplicaLag(Duration.ofHours(3));
+        MetricQueryCache cache = new MetricQueryCache(properties, aggregationProperties, routingProperties,
+                new SimpleMeterRegistry());
+        Instant twoHoursAgo = Instant.now().minus(2, ChronoUnit.HOURS);
+        Instant twoDaysAgo = Instant.now().minus(2, ChronoUnit.DAYS);
+
+        // Act
+        int aggregatedRecent = loadsOfTwoReads(cache, "agg.cpu", twoHoursAgo);
+        int rawRecent = loadsOfTwoReads(cache, "raw.cpu", twoHoursAgo);
+        int aggregatedOld = loadsOfTwoReads(cache, "agg.cpu", twoDaysAgo);
+
+        // Assert: within lateness or replica lag the bucket is reloaded, afterwards it is cached
+        assertEquals(2, aggregatedRecent);
+        assertEquals(2, rawRecent);
+        assertEquals(1, aggregatedOld);
+    }
+
+    private static int loadsOfTwoReads(MetricQueryCache cache, String metricName, Instant at) {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cache.find(metricName, at, at, (name, from, to) -> {
+                loads.incrementAndGet();
+                return List.of();
+            });
+        }
+        return loads.get();
+    }
+}
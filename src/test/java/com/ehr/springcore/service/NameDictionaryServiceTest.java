@@ -0,0 +1,52 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.entity.Metric;
+import com.ehr.springcore.repository.MetricRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:namedictionary",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+class NameDictionaryServiceTest {
+
+    @Autowired
+    private MetricRepository metricRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testLoad_ResolvesUncachedNameOnTheLoadingConnection() {
+        // Arrange: a row whose name was written by another instance, so it is not cached here
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("INSERT INTO name_dictionary (name, created_at) VALUES (?, ?)", "written.elsewhere", now);
+        Integer nameId = jdbcTemplate.queryForObject("SELECT id FROM name_dictionary WHERE name = ?", Integer.class,
+                "written.elsewhere");
+        jdbcTemplate.update("INSERT INTO metrics (metric_name_id, metric_value, timestamp, created_at) VALUES (?, ?, ?, ?)",
+                nameId, 1.0, now, now);
+        Long metricId = jdbcTemplate.queryForObject("SELECT id FROM metrics WHERE metric_name_id = ?", Long.class, nameId);
+
+        // Act: the only pool connection is held by the loading transaction
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Metric metric = transaction.execute(status -> metricRepository.findById(metricId).orElseThrow());
+
+        // Assert
+        assertEquals("written.elsewhere", metric.getMetricName());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.LoggingProperties;
+import com.ehr.springcore.model.PayloadEntry;
+import com.ehr.springcore.model.PayloadPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadStorageServiceTest {
+
+    @Test
+    void testRead_ReportsEntriesOverwrittenBeforeCursor() {
+        // Arrange
+        LoggingProperties properties = new LoggingProperties();
+        properties.setMaxSize(3);
+        PayloadStorageService storage = new PayloadStorageService(properties);
+        for (int i = 0; i < 5; i++) {
+            storage.storePayload("EVENT", "event." + i, "payload-" + i);
+        }
+
+        // Act
+        PayloadPage page = storage.read(0, 10, null, null);
+
+        // Assert
+        assertEquals(2, page.getMissed());
+        assertEquals(List.of(2L, 3L, 4L), page.getEntries().stream().map(PayloadEntry::getSequence).toList());
+        assertEquals(5, page.getNextCursor());
+        assertEquals(3, storage.getPayloadCount());
+        assertEquals("[EVENT] payload-4", storage.getPayloads().get(2));
+    }
+
+    @Test
+    void testRead_FiltersAndPagesByCursor() {
+        // Arrange
+        PayloadStorageService storage = new PayloadStorageService(new LoggingProperties());
+        List<PayloadEntry> notified = new ArrayList<>();
+        storage.addListener(notified::add);
+        storage.storePayload("EVENT", "login", "a");
+        storage.storePayload("METRIC", "cpu", "b");
+        storage.storePayload("EVENT", "login", "c");
+        storage.storePayload("EVENT", "logout", "d");
+
+        // Act
+        PayloadPage first = storage.read(0, 1, "event", "login");
+        PayloadPage second = storage.read(first.getNextCursor(), 10, "event", "login");
+
+        // Assert
+        assertEquals("a", first.getEntries().get(0).getPayload());
+        assertEquals(1, first.getNextCursor());
+        assertEquals(List.of("c"), second.getEntries().stream().map(PayloadEntry::getPayload).toList());
+        assertEquals(4, second.getNextCursor());
+        assertEquals(4, notified.size());
+    }
+
+    @Test
+    void testRead_CountsOnlyMatchingMissedEntries() {
+        // Arrange: seven payloads through a ring of three, remembering two overwritten ones
+        LoggingProperties properties = new LoggingProperties();
+        properties.setMaxSize(3);
+        properties.setMissedHistory(2);
+        PayloadStorageService storage = new PayloadStorageService(properties);
+        String[] names = {"login", "cpu", "login", "cpu", "login", "cpu", "login"};
+        for (String name : names) {
+            storage.storePayload(name.equals("cpu") ? "METRIC" : "EVENT", name, name);
+        }
+
+        // Act
+        PayloadPage all = storage.read(0, 10, null, null);
+        PayloadPage logins = storage.read(0, 10, "event", "login");
+        PayloadPage recentLogins = storage.read(2, 10, "event", "login");
+
+        // Assert: 0-3 are overwritten; 2 and 3 are remembered, 0 and 1 are counted regardless
+        assertEquals(4, all.getMissed());
+        assertEquals(3, logins.getMissed());
+        assertEquals(1, recentLogins.getMissed());
+        assertEquals(List.of(4L, 6L), logins.getEntries().stream().map(PayloadEntry::getSequence).toList());
+    }
+
+    @Test
+    void testStorePayload_NotifiesListenersInSequenceOrder() throws Exception {
+        // Arrange
+        PayloadStorageService storage = new PayloadStorageService(new LoggingProperties());
+        List<Long> notified = Collections.synchronizedList(new ArrayList<>());
+        storage.addListener(entry -> notified.add(entry.getSequence()));
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    storage.storePayload("EVENT", "concurrent", i);
+                }
+            }));
+        }
+
+        // Act
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // Assert
+        assertEquals(LongStream.range(0, 1000).boxed().toList(), notified);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.LoggingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadTailServiceTest {
+
+    @Test
+    void testSubscribe_LimitHoldsUnderConcurrentSubscribes() throws Exception {
+        // Arrange
+        LoggingProperties properties = new LoggingProperties();
+        properties.getTail().setMaxSubscribers(2);
+        PayloadTailService tailService = new PayloadTailService(new PayloadStorageService(properties), properties,
+                new SimpleMeterRegistry());
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        List<Future<Boolean>> subscribed = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            subscribed.add(clients.submit(() -> {
+                start.await();
+                return tailService.subscribe(null, null, null).isPresent();
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<Boolean> result : subscribed) {
+            accepted += result.get() ? 1 : 0;
+        }
+        clients.shutdown();
+
+        // Assert
+        assertEquals(2, accepted);
+        assertEquals(2, tailService.getSubscriberCount());
+        tailService.close();
+    }
+}
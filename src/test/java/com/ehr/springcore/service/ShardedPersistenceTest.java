@@ -0,0 +1,133 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.datasource.ShardRouter;
+import com.ehr.springcore.model.MetricDataPoint;
+import com.ehr.springcore.model.MetricRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-primary;DB_CLOSE_DELAY=-1",
+        "datasource.sharding.enabled=true",
+        "datasource.sharding.shards[0].name=east",
+        "datasource.sharding.shards[0].url=jdbc:h2:mem:shard-east;DB_CLOSE_DELAY=-1",
+        "datasource.sharding.shards[0].username=sa",
+        "datasource.sharding.shards[1].name=west",
+        "datasource.sharding.shards[1].url=jdbc:h2:mem:shard-west;DB_CLOSE_DELAY=-1",
+        "datasource.sharding.shards[1].username=sa"
+})
+class ShardedPersistenceTest {
+
+    private static final Map<String, String> SHARD_URLS = Map.of(
+            "primary", "jdbc:h2:mem:shard-primary;DB_CLOSE_DELAY=-1",
+            "east", "jdbc:h2:mem:shard-east;DB_CLOSE_DELAY=-1",
+            "west", "jdbc:h2:mem:shard-west;DB_CLOSE_DELAY=-1");
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    private MetricQueryService metricQueryService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testSaveMetric_WritesToOwningShard() {
+        // Arrange
+        Instant timestamp = Instant.parse("2024-05-01T10:00:00Z");
+
+        // Act
+        for (int i = 0; i < 30; i++) {
+            databaseService.saveMetric(new MetricRequest("sharded.metric." + i, (double) i, timestamp, "count"));
+        }
+
+        // Assert: every shard received rows, and each name is only on its own shard
+        for (String shard : shardRouter.getShards()) {
+            JdbcTemplate jdbc = shardJdbc(shard);
+            assertTrue(jdbc.queryForObject("SELECT COUNT(*) FROM metrics WHERE timestamp = ?", Integer.class, timestamp) > 0);
+        }
+        for (int i = 0; i < 30; i++) {
+            String name = "sharded.metric." + i;
+            String owner = shardRouter.shardFor(name);
+            List<MetricDataPoint> points = metricQueryService.findMetrics(name, timestamp, timestamp);
+            assertEquals(1, points.size());
+            assertEquals((double) i, points.get(0).getValue());
+            for (String shard : shardRouter.getShards()) {
+                int expected = shard.equals(owner) ? 1 : 0;
+                assertEquals(expected, countMetricRows(shard, name), "shard " + shard + " for " + name);
+            }
+        }
+    }
+
+    @Test
+    void testFindMetrics_MergesRowsFromAllShards() {
+        // Arrange: a row left on another shard, as after adding a shard to the ring
+        String name = "moved.metric";
+        Instant timestamp = Instant.parse("2024-06-01T10:00:00Z");
+        databaseService.saveMetric(new MetricRequest(name, 2.0, timestamp.plusSeconds(60), "ms"));
+        String otherShard = shardRouter.getShards().stream()
+                .filter(shard -> !shard.equals(shardRouter.shardFor(name)))
+                .findFirst().orElseThrow();
+        Integer nameId = shardJdbc("primary").queryForObject("SELECT id FROM name_dictionary WHERE name = ?", Integer.class, name);
+        shardJdbc(otherShard).update("INSERT INTO metrics (metric_name_id, metric_value, timestamp, unit, created_at)"
+                + " VALUES (?, ?, ?, ?, ?)", nameId, 1.0, timestamp, "ms", timestamp);
+
+        // Act
+        List<MetricDataPoint> points = metricQueryService.findMetrics(name, timestamp, timestamp.plusSeconds(3600));
+
+        // Assert
+        assertEquals(2, points.size());
+        assertEquals(1.0, points.get(0).getValue());
+        assertEquals(2.0, points.get(1).getValue());
+        assertEquals(name, points.get(1).getMetricName());
+    }
+
+    @Test
+    void testGlobalId_UniqueAcrossShards() {
+        // Act
+        Set<Long> ids = shardRouter.getShards().stream()
+                .map(shard -> shardRouter.globalId(shard, 1))
+                .collect(Collectors.toSet());
+
+        // Assert: the same row ID on every shard maps to distinct IDs, primary IDs are unchanged
+        assertEquals(3, ids.size());
+        assertEquals(7, shardRouter.globalId(ShardRouter.PRIMARY, 7));
+    }
+
+    @Test
+    void testShardPools_CoveredByPoolMetrics() {
+        // Act
+        Set<String> pools = meterRegistry.get("ehr.datasource.pool.saturation").gauges().stream()
+                .map(gauge -> gauge.getId().getTag("pool"))
+                .collect(Collectors.toSet());
+
+        // Assert
+        assertTrue(pools.containsAll(Set.of("shard-primary", "shard-east", "shard-west")), pools.toString());
+    }
+
+    private int countMetricRows(String shard, String name) {
+        // The dictionary only lives on the primary shard
+        Integer nameId = shardJdbc("primary").queryForObject("SELECT id FROM name_dictionary WHERE name = ?", Integer.class, name);
+        return shardJdbc(shard).queryForObject("SELECT COUNT(*) FROM metrics WHERE metric_name_id = ?", Integer.class, nameId);
+    }
+
+    private static JdbcTemplate shardJdbc(String shard) {
+        return new JdbcTemplate(new DriverManagerDataSource(SHARD_URLS.get(shard), "sa", ""));
+    }
+}
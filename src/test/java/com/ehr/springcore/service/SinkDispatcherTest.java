@@ -0,0 +1,170 @@
+package com.ehr.springcore.service;
+
+import com.ehr.springcore.config.SinkProperties;
+import com.ehr.springcore.model.EventRequest;
+import com.ehr.springcore.model.MetricRequest;
+import com.ehr.springcore.sink.CircuitBreaker;
+import com.ehr.springcore.sink.IngestSink;
+import com.ehr.springcore.sink.LocalFileSink;
+import com.ehr.springcore.sink.SinkRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sinks",
+        "ingestion.sinks.local.enabled=true",
+        "ingestion.sinks.local.path=target/sink-test/ingest.ndjson",
+        "ingestion.sinks.queue-capacity=50",
+        "ingestion.sinks.batch-size=10",
+        "ingestion.sinks.max-linger=1ms",
+        "ingestion.sinks.max-attempts=2",
+        "ingestion.sinks.initial-backoff=1ms",
+        "ingestion.sinks.max-backoff=2ms",
+        "ingestion.sinks.failure-threshold=2",
+        "ingestion.sinks.open-duration=1h"
+})
+class SinkDispatcherTest {
+
+    private static final CountDownLatch RELEASE_SLOW_SINK = new CountDownLatch(1);
+    private static final List<SinkRecord> SLOW_SINK_RECORDS = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class Sinks {
+
+        @Bean
+        IngestSink slowSink() {
+            return new IngestSink() {
+                @Override
+                public String getName() {
+                    return "slow";
+                }
+
+                @Override
+                public void write(List<SinkRecord> records) throws InterruptedException {
+                    RELEASE_SLOW_SINK.await();
+                    SLOW_SINK_RECORDS.addAll(records);
+                }
+            };
+        }
+
+        @Bean
+        IngestSink failingSink() {
+            return new IngestSink() {
+                @Override
+                public String getName() {
+                    return "failing";
+                }
+
+                @Override
+                public void write(List<SinkRecord> records) {
+                    throw new IllegalStateException("Downstream unavailable");
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    @Autowired
+    private SinkDispatcher sinkDispatcher;
+
+    @Autowired
+    private LocalFileSink localFileSink;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void cleanDirectory() throws Exception {
+        FileSystemUtils.deleteRecursively(Path.of("target/sink-test"));
+    }
+
+    @Test
+    void testPublish_SlowAndFailingSinksDoNotAffectIngestOrEachOther() throws Exception {
+        // Arrange
+        Instant timestamp = Instant.parse("2024-09-01T10:00:00Z");
+
+        // Act: the slow sink blocks on its first batch while everything is ingested
+        long start = System.nanoTime();
+        ingestionService.ingestEvent(new EventRequest("sink.event", timestamp, Map.of("plan", "pro")));
+        for (int i = 0; i < 199; i++) {
+            ingestionService.ingestMetric(new MetricRequest("sink.cpu", (double) i, timestamp.plusSeconds(i), "percent"));
+        }
+        long ingestMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert: the healthy sink got every record, in order
+        awaitTrue(() -> lines().size() == 200);
+        assertTrue(ingestMillis < 5_000, "Ingest took " + ingestMillis + " ms");
+        assertTrue(lines().get(0).contains("\"type\":\"EVENT\""));
+        assertTrue(lines().get(199).contains("\"value\":198.0"));
+        assertEquals(200, meterRegistry.get("ehr.sink.delivered").tag("sink", "local").counter().count());
+
+        // The failing sink dropped its batches after retries and opened its circuit
+        awaitTrue(() -> sinkDispatcher.getCircuitState("failing") == CircuitBreaker.State.OPEN);
+        assertTrue(dropped("failing", "failed") > 0);
+
+        // The slow sink overflowed its queue, then catches up once released
+        double droppedFull = dropped("slow", "queue_full");
+        assertTrue(droppedFull > 0);
+        assertTrue(meterRegistry.get("ehr.sink.lag").tag("sink", "slow").gauge().value() > 0);
+        RELEASE_SLOW_SINK.countDown();
+        awaitTrue(() -> SLOW_SINK_RECORDS.size() + droppedFull == 200);
+        assertEquals(0, meterRegistry.get("ehr.sink.queue.depth").tag("sink", "slow").gauge().value());
+    }
+
+    @Test
+    void testConstructor_SkipsDisabledSinks() throws Exception {
+        // Arrange: the local sink is off by default
+        SinkProperties properties = new SinkProperties();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        SinkDispatcher dispatcher = new SinkDispatcher(properties,
+                List.of(new LocalFileSink(properties, new ObjectMapper())), registry);
+        dispatcher.publish("EVENT", "disabled.event", Map.of());
+
+        // Assert
+        assertNull(registry.find("ehr.sink.queue.depth").gauge());
+        dispatcher.shutdown();
+    }
+
+    private List<String> lines() throws Exception {
+        return Files.exists(localFileSink.getPath()) ? Files.readAllLines(localFileSink.getPath()) : List.of();
+    }
+
+    private double dropped(String sink, String reason) {
+        return meterRegistry.get("ehr.sink.dropped").tag("sink", sink).tag("reason", reason).counter().count();
+    }
+
+    private static void awaitTrue(ThrowingCondition condition) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.get()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 10 s");
+            Thread.sleep(10);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingCondition {
+        boolean get() throws Exception;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ehr.springcore.sink;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testOnFailure_OpensAfterThresholdAndRecoversThroughHalfOpen() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(3, 30 * SECOND);
+
+        // Act: a success resets the count, then three failures in a row
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+        breaker.onSuccess();
+        breaker.onFailure(SECOND);
+        breaker.onFailure(SECOND);
+        boolean allowedBeforeThreshold = breaker.allowRequest(SECOND);
+        breaker.onFailure(2 * SECOND);
+
+        // Assert
+        assertTrue(allowedBeforeThreshold);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest(10 * SECOND));
+        assertEquals(22 * SECOND, breaker.remainingOpenNanos(10 * SECOND));
+        assertTrue(breaker.allowRequest(32 * SECOND));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.remainingOpenNanos(32 * SECOND));
+    }
+
+    @Test
+    void testOnFailure_FailedTrialReopens() {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(2, 30 * SECOND);
+        breaker.onFailure(0);
+        breaker.onFailure(0);
+
+        // Act: the trial call after the open period fails
+        assertTrue(breaker.allowRequest(30 * SECOND));
+        breaker.onFailure(30 * SECOND);
+
+        // Assert: open for a full period again
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest(59 * SECOND));
+        assertTrue(breaker.allowRequest(60 * SECOND));
+    }
+}
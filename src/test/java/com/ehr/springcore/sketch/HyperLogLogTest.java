@@ -0,0 +1,63 @@
+package com.ehr.springcore.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void testEstimate_WithinErrorBound() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog(12);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add("user-" + i);
+            sketch.add("user-" + i);
+        }
+
+        // Assert: standard error at precision 12 is ~1.6%, allow three of them
+        assertEquals(100_000, sketch.estimate(), 100_000 * 0.05);
+    }
+
+    @Test
+    void testMerge_CountsUnionOnce() {
+        // Arrange
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 1_000; i++) {
+            first.add("user-" + i);
+            second.add("user-" + (i + 500));
+        }
+
+        // Act
+        first.merge(second);
+
+        // Assert
+        assertEquals(1_500, first.estimate(), 1_500 * 0.05);
+    }
+
+    @Test
+    void testSerialization_SparseAndDense() {
+        // Arrange
+        HyperLogLog sparse = new HyperLogLog(12);
+        HyperLogLog dense = new HyperLogLog(12);
+        for (int i = 0; i < 10; i++) {
+            sparse.add("value-" + i);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            dense.add("value-" + i);
+        }
+
+        // Act
+        byte[] sparseBytes = sparse.toBytes();
+        byte[] denseBytes = dense.toBytes();
+
+        // Assert
+        assertTrue(sparseBytes.length < 64);
+        assertEquals(2 + 4096, denseBytes.length);
+        assertEquals(sparse.estimate(), HyperLogLog.fromBytes(sparseBytes).estimate());
+        assertEquals(dense.estimate(), HyperLogLog.fromBytes(denseBytes).estimate());
+    }
+}
@@ -0,0 +1,66 @@
+package com.ehr.springcore.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+
+    @Test
+    void testTop_FindsHeavyHittersInLongTail() {
+        // Arrange
+        SpaceSaving sketch = new SpaceSaving(50);
+
+        // Act: three frequent values interleaved with 5000 values seen once
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("tail-" + i);
+            if (i % 5 == 0) {
+                sketch.add("home");
+            }
+            if (i % 10 == 0) {
+                sketch.add("search");
+            }
+            if (i % 20 == 0) {
+                sketch.add("checkout");
+            }
+        }
+        List<SpaceSaving.Entry> top = sketch.top(3);
+
+        // Assert
+        assertEquals(List.of("home", "search", "checkout"), top.stream().map(SpaceSaving.Entry::value).toList());
+        for (SpaceSaving.Entry entry : top) {
+            long trueCount = switch (entry.value()) {
+                case "home" -> 1_000;
+                case "search" -> 500;
+                default -> 250;
+            };
+            assertTrue(entry.count() >= trueCount);
+            assertTrue(entry.count() - entry.error() <= trueCount);
+        }
+    }
+
+    @Test
+    void testMerge_AndRoundTrip() {
+        // Arrange
+        SpaceSaving first = new SpaceSaving(10);
+        SpaceSaving second = new SpaceSaving(10);
+        for (int i = 0; i < 30; i++) {
+            first.add("a");
+            second.add("b");
+        }
+        first.add("c");
+        second.add("a");
+
+        // Act
+        first.merge(SpaceSaving.fromBytes(second.toBytes()));
+        List<SpaceSaving.Entry> top = first.top(10);
+
+        // Assert
+        assertEquals(3, top.size());
+        assertEquals(new SpaceSaving.Entry("a", 31, 0), top.get(0));
+        assertEquals(new SpaceSaving.Entry("b", 30, 0), top.get(1));
+        assertEquals(new SpaceSaving.Entry("c", 1, 0), top.get(2));
+    }
+}
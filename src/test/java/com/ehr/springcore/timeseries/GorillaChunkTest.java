@@ -0,0 +1,94 @@
+package com.ehr.springcore.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GorillaChunkTest {
+
+    @Test
+    void testRoundTrip_RegularInterval() {
+        // Arrange
+        GorillaChunk chunk = new GorillaChunk("percent");
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < 240; i++) {
+            chunk.append(start + i * 15_000L, 50.0 + (i % 7) * 0.5);
+        }
+
+        // Act
+        List<Long> timestamps = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        chunk.forEach(Long.MIN_VALUE, Long.MAX_VALUE, (timestamp, value) -> {
+            timestamps.add(timestamp);
+            values.add(value);
+        });
+
+        // Assert
+        assertEquals(240, values.size());
+        for (int i = 0; i < 240; i++) {
+            assertEquals(start + i * 15_000L, timestamps.get(i));
+            assertEquals(50.0 + (i % 7) * 0.5, values.get(i));
+        }
+        // Regular timestamps and repeating values compress far below 16 bytes per point
+        chunk.seal();
+        assertTrue(chunk.sizeInBytes() < 240 * 4);
+    }
+
+    @Test
+    void testRoundTrip_IrregularTimestampsAndValues() {
+        // Arrange
+        Random random = new Random(42);
+        GorillaChunk chunk = new GorillaChunk(null);
+        long[] expectedTimestamps = new long[500];
+        double[] expectedValues = new double[500];
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < 500; i++) {
+            // Mix of small jitter, large gaps and out-of-order points
+            timestamp += switch (i % 5) {
+                case 0 -> 1000;
+                case 1 -> random.nextInt(5000);
+                case 2 -> -random.nextInt(300);
+                case 3 -> random.nextInt(10_000_000);
+                default -> 0;
+            };
+            expectedTimestamps[i] = timestamp;
+            expectedValues[i] = i % 11 == 0 ? Double.NaN : random.nextGaussian() * 1e6;
+            chunk.append(expectedTimestamps[i], expectedValues[i]);
+        }
+
+        // Act
+        List<Double> values = new ArrayList<>();
+        List<Long> timestamps = new ArrayList<>();
+        chunk.forEach(Long.MIN_VALUE, Long.MAX_VALUE, (ts, value) -> {
+            timestamps.add(ts);
+            values.add(value);
+        });
+
+        // Assert
+        assertEquals(500, values.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(expectedTimestamps[i], timestamps.get(i));
+            assertEquals(Double.doubleToRawLongBits(expectedValues[i]), Double.doubleToRawLongBits(values.get(i)));
+        }
+    }
+
+    @Test
+    void testForEach_FiltersByRange() {
+        // Arrange
+        GorillaChunk chunk = new GorillaChunk("ms");
+        for (int i = 0; i < 10; i++) {
+            chunk.append(i * 1000L, i);
+        }
+
+        // Act
+        List<Double> values = new ArrayList<>();
+        chunk.forEach(3000L, 5000L, (timestamp, value) -> values.add(value));
+
+        // Assert
+        assertEquals(List.of(3.0, 4.0, 5.0), values);
+    }
+}